@@ -0,0 +1,86 @@
+package org.rakdao.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the JMH benchmarks twice, single-threaded and with jmh.threads threads (default:
+ * all cores) contending on the same state, and writes target/jmh/results-&lt;threads&gt;t.json.
+ * With -Djmh.baseline=&lt;dir of an earlier run&gt; every score is compared to the same
+ * benchmark there and changes beyond jmh.threshold percent (default 10) are flagged.
+ * Run with: mvn test -Pjmh
+ */
+public class JmhRunner {
+
+    private static final Path RESULT_DIR = Paths.get(System.getProperty("user.dir"), "target", "jmh");
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("jmh.include", ".*");
+        int threads = Integer.getInteger("jmh.threads", 0);
+        int maxThreads = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        String baseline = System.getProperty("jmh.baseline", "");
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "10"));
+        Files.createDirectories(RESULT_DIR);
+
+        for (int threadCount : new int[]{1, maxThreads}) {
+            Path result = RESULT_DIR.resolve("results-" + threadCount + "t.json");
+            Options options = new OptionsBuilder()
+                    .include(include.isBlank() ? ".*" : include)
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString())
+                    // Keep the forks away from the real counter file, run report and logs. The logback
+                    // config has its own name so plain test runs never pick it up from target/test-classes
+                    .jvmArgsAppend("-Dcounter.file=" + RESULT_DIR.resolve("counter.txt"),
+                            "-DrunData.dir=" + RESULT_DIR.resolve("run-data"),
+                            "-Dlogback.configurationFile=logback-jmh.xml")
+                    .build();
+            new Runner(options).run();
+            System.out.println("JMH results (" + threadCount + " thread(s)) written to " + result);
+
+            if (!baseline.isBlank()) {
+                compare(Paths.get(baseline).resolve(result.getFileName()), result, threshold);
+            }
+        }
+    }
+
+    /** Prints the change of every benchmark score against the baseline file. */
+    private static void compare(Path baselineFile, Path resultFile, double threshold) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + ", skipping comparison");
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Double> before = new HashMap<>();
+        for (JsonNode run : mapper.readTree(baselineFile.toFile())) {
+            before.put(run.get("benchmark").asText(), run.get("primaryMetric").get("score").asDouble());
+        }
+
+        System.out.println("Compared to " + baselineFile + ":");
+        for (JsonNode run : mapper.readTree(resultFile.toFile())) {
+            String name = run.get("benchmark").asText();
+            double score = run.get("primaryMetric").get("score").asDouble();
+            Double old = before.get(name);
+            if (old == null || old == 0) {
+                System.out.printf("  %-60s %14.3f  (new)%n", name, score);
+                continue;
+            }
+            // Throughput: higher is better; time modes: lower is better
+            double change = (score - old) / old * 100;
+            boolean worse = "thrpt".equals(run.get("mode").asText()) ? change < -threshold : change > threshold;
+            System.out.printf("  %-60s %14.3f  %+7.1f%%%s%n", name, score, change, worse ? "  REGRESSION" : "");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.rakdao.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.By;
+import org.rakdao.pageObjects.BasePage;
+import org.rakdao.utils.JsonLocatorReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator lookups done on every click: re-registering a locator file, reading the raw
+ * locator data, building a By and BasePage.getAllLocators (registry + adaptive ordering).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmarks {
+
+    private static final String NAV_BAR_JSON = System.getProperty("user.dir")
+            + "/src/main/java/org/rakdao/pageObjects/locators/NavigationBar.json";
+
+    private BasePage navBar;
+    private Map<String, String> locatorData;
+
+    @Setup
+    public void setUp() {
+        navBar = new BasePage(null, "NavigationBar");
+        locatorData = Map.of("locatorType", "xpath", "locatorValue", "//one-app-nav-bar-item-root//a[@title='Leads']");
+    }
+
+    @Benchmark
+    public void load() throws IOException {
+        JsonLocatorReader.load(NAV_BAR_JSON);
+    }
+
+    @Benchmark
+    public Map<String, Object> getLocatorData() {
+        return JsonLocatorReader.getLocatorData("NavigationBar", "leadsTab");
+    }
+
+    @Benchmark
+    public By buildBy() {
+        return JsonLocatorReader.buildBy(locatorData);
+    }
+
+    @Benchmark
+    public List<By> getAllLocators() {
+        return navBar.getAllLocators("leadsTab");
+    }
+}
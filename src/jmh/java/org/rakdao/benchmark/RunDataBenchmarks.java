@@ -0,0 +1,38 @@
+package org.rakdao.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rakdao.utils.WriteToExcel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteToExcel.writeRunData, i.e. queueing a row and flushing batches to the journal,
+ * under -DrunData.dir (target/jmh/run-data). The journal is dropped after each iteration
+ * so the workbook built at exit stays small.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunDataBenchmarks {
+
+    @Benchmark
+    public void writeRunData() {
+        WriteToExcel.writeRunData("https://staging.innovationcity.com/#contact", "Company Setup",
+                "Alice", "Smith", "a.aldar+1001@innovationcity.com", "0581234567", true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropJournal() throws IOException {
+        String dir = System.getProperty("runData.dir");
+        if (dir != null) {
+            Files.deleteIfExists(Paths.get(dir, "LeadRunData.jsonl"));
+        }
+    }
+}
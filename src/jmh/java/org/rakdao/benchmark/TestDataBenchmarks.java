@@ -0,0 +1,74 @@
+package org.rakdao.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rakdao.utils.ConfigReader;
+import org.rakdao.utils.CounterUtil;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-test data: config lookups, unique counter values (block-reserved from the counter
+ * file, here target/jmh/counter.txt) and generated users. The plain user benchmarks take
+ * users back to back, faster than the UserPool filler can keep up with (on one CPU it only
+ * competes with the taker); the BetweenSteps pair pauses between takes as a test does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDataBenchmarks {
+
+    @Benchmark
+    public String configGet() {
+        return ConfigReader.get("browser");
+    }
+
+    @Benchmark
+    public int configGetIntWithDefault() {
+        return ConfigReader.getInt("runData.batchSize", 50);
+    }
+
+    @Benchmark
+    public int counterNext() {
+        return CounterUtil.getNextCount();
+    }
+
+    @Benchmark
+    public User generateUser() {
+        return UserGenerator.generateUser();
+    }
+
+    /** Inline generation, what generateUser did before the pool. */
+    @Benchmark
+    public User createUser() {
+        return UserGenerator.createUser(20250101, CounterUtil.getNextCount());
+    }
+
+    /** A test takes a user, then works in the browser: that idle time is when the pool refills. */
+    @State(Scope.Thread)
+    public static class BrowserWork {
+        @Setup(Level.Invocation)
+        public void between() {
+            LockSupport.parkNanos(200_000);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public User generateUserBetweenSteps(BrowserWork work) {
+        return UserGenerator.generateUser();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public User createUserBetweenSteps(BrowserWork work) {
+        return UserGenerator.createUser(20250101, CounterUtil.getNextCount());
+    }
+}
@@ -0,0 +1,129 @@
+package org.rakdao.api;
+
+import io.restassured.response.Response;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.User;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates and converts Leads through the API, replacing the UI steps in LeadPage
+ * when a test only needs the resulting records.
+ */
+public class LeadApiClient {
+
+    private static final Logger log = LoggerUtil.getLogger(LeadApiClient.class);
+
+    private static final String CONVERT_ENVELOPE =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:urn=\"urn:partner.soap.sforce.com\">" +
+            "<soapenv:Header><urn:SessionHeader><urn:sessionId>%s</urn:sessionId></urn:SessionHeader></soapenv:Header>" +
+            "<soapenv:Body><urn:convertLead><urn:leadConverts>" +
+            "<urn:convertedStatus>%s</urn:convertedStatus>" +
+            "<urn:leadId>%s</urn:leadId>" +
+            "<urn:doNotCreateOpportunity>false</urn:doNotCreateOpportunity>" +
+            "</urn:leadConverts></urn:convertLead></soapenv:Body></soapenv:Envelope>";
+
+    private final SalesforceApi api;
+
+    public LeadApiClient(SalesforceApi api) {
+        this.api = api;
+    }
+
+    /**
+     * Creates a Lead for the generated user.
+     * @param recordTypeName Lead record type label (e.g. "Customer"), or null for the default
+     * @param extraFields    any other fields by API name (entity type, nationality, ...)
+     * @return the Lead id
+     */
+    public String createLead(User user, String recordTypeName, Map<String, Object> extraFields) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("FirstName", user.getFirstName());
+        fields.put("LastName", user.getLastName());
+        fields.put("Company", user.getCompany());
+        fields.put("Email", user.getEmail());
+        fields.put("MobilePhone", user.getMobile());
+        if (recordTypeName != null) {
+            fields.put("RecordTypeId", findRecordTypeId("Lead", recordTypeName));
+        }
+        fields.putAll(extraFields);
+        return createLead(fields);
+    }
+
+    public String createLead(Map<String, Object> fields) {
+        String id = api.create("Lead", fields);
+        log.info("[createLead] ✅ Lead {} created", id);
+        return id;
+    }
+
+    public String findRecordTypeId(String sObject, String recordTypeName) {
+        List<Map<String, Object>> records = api.query(String.format(
+                "SELECT Id FROM RecordType WHERE SobjectType = '%s' AND Name = '%s'",
+                escape(sObject), escape(recordTypeName)));
+        if (records.isEmpty()) {
+            throw new RuntimeException("Record type '" + recordTypeName + "' not found for " + sObject);
+        }
+        return (String) records.get(0).get("Id");
+    }
+
+    /**
+     * Converts the Lead into Account, Contact and Opportunity (partner SOAP convertLead;
+     * the REST API has no convert resource).
+     */
+    public ConvertedLead convertLead(String leadId, String convertedStatus) {
+        log.info("[convertLead] Converting Lead {} with status '{}'", leadId, convertedStatus);
+        Response response = api.soap()
+                .body(String.format(CONVERT_ENVELOPE, api.getAccessToken(), escapeXml(convertedStatus), leadId))
+                .post();
+        SalesforceApi.expectStatus(response, 200, "convertLead " + leadId);
+
+        String body = response.asString();
+        if (!"true".equals(element(body, "success"))) {
+            throw new RuntimeException("Lead conversion failed for " + leadId + ": " + element(body, "message"));
+        }
+        ConvertedLead converted = new ConvertedLead(leadId,
+                element(body, "accountId"), element(body, "contactId"), element(body, "opportunityId"));
+        log.info("[convertLead] ✅ Lead {} converted, Opportunity {}", leadId, converted.getOpportunityId());
+        return converted;
+    }
+
+    // ====== Internals ======
+
+    /** Text of the first element with this local name, ignoring the namespace prefix. */
+    private static String element(String xml, String localName) {
+        Matcher m = Pattern.compile("<(?:\\w+:)?" + localName + ">([^<]*)</").matcher(xml);
+        return m.find() ? m.group(1) : null;
+    }
+
+    static String escape(String soqlLiteral) {
+        return soqlLiteral.replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /** Ids of the records created by a Lead conversion. */
+    public static final class ConvertedLead {
+        private final String leadId;
+        private final String accountId;
+        private final String contactId;
+        private final String opportunityId;
+
+        ConvertedLead(String leadId, String accountId, String contactId, String opportunityId) {
+            this.leadId = leadId;
+            this.accountId = accountId;
+            this.contactId = contactId;
+            this.opportunityId = opportunityId;
+        }
+
+        public String getLeadId() { return leadId; }
+        public String getAccountId() { return accountId; }
+        public String getContactId() { return contactId; }
+        public String getOpportunityId() { return opportunityId; }
+    }
+}
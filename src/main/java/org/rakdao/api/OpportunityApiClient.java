@@ -0,0 +1,67 @@
+package org.rakdao.api;
+
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attaches price book products to Opportunities through the API, replacing the
+ * Add Product / price book / product listing modals in OpportunityPage.
+ */
+public class OpportunityApiClient {
+
+    private static final Logger log = LoggerUtil.getLogger(OpportunityApiClient.class);
+
+    private final SalesforceApi api;
+
+    public OpportunityApiClient(SalesforceApi api) {
+        this.api = api;
+    }
+
+    public Map<String, Object> getOpportunity(String opportunityId) {
+        return api.get("Opportunity", opportunityId);
+    }
+
+    /**
+     * Adds a product from the price book to the Opportunity, setting the Opportunity's
+     * price book first when it has none.
+     * @return the OpportunityLineItem id
+     */
+    public String addProduct(String opportunityId, String pricebookName, String productName, int quantity) {
+        Map<String, Object> entry = findPricebookEntry(pricebookName, productName);
+        String pricebookId = (String) entry.get("Pricebook2Id");
+
+        Object currentPricebook = getOpportunity(opportunityId).get("Pricebook2Id");
+        if (currentPricebook == null) {
+            api.update("Opportunity", opportunityId, Map.of("Pricebook2Id", pricebookId));
+        } else if (!pricebookId.equals(currentPricebook)) {
+            throw new RuntimeException("Opportunity " + opportunityId + " already uses another price book: " + currentPricebook);
+        }
+
+        String lineItemId = api.create("OpportunityLineItem", Map.of(
+                "OpportunityId", opportunityId,
+                "PricebookEntryId", entry.get("Id"),
+                "Quantity", quantity,
+                "UnitPrice", entry.get("UnitPrice")));
+        log.info("[addProduct] ✅ '{}' x{} added to Opportunity {}", productName, quantity, opportunityId);
+        return lineItemId;
+    }
+
+    public Map<String, Object> findPricebookEntry(String pricebookName, String productName) {
+        List<Map<String, Object>> records = api.query(String.format(
+                "SELECT Id, Pricebook2Id, UnitPrice FROM PricebookEntry" +
+                " WHERE Pricebook2.Name = '%s' AND Product2.Name = '%s' AND IsActive = true",
+                LeadApiClient.escape(pricebookName), LeadApiClient.escape(productName)));
+        if (records.isEmpty()) {
+            throw new RuntimeException("No active price book entry for '" + productName + "' in '" + pricebookName + "'");
+        }
+        return records.get(0);
+    }
+
+    public List<Map<String, Object>> getLineItems(String opportunityId) {
+        return api.query("SELECT Id, PricebookEntryId, Quantity, UnitPrice FROM OpportunityLineItem"
+                + " WHERE OpportunityId = '" + LeadApiClient.escape(opportunityId) + "'");
+    }
+}
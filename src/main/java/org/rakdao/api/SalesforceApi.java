@@ -0,0 +1,128 @@
+package org.rakdao.api;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.rakdao.utils.ConfigReader;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticated connection to the Salesforce REST (and SOAP) API, shared by the
+ * API clients. Obtained with the OAuth username-password flow ({@link #fromConfig()})
+ * or from an existing token ({@link #withToken}).
+ */
+public class SalesforceApi {
+
+    private static final Logger log = LoggerUtil.getLogger(SalesforceApi.class);
+
+    private final String instanceUrl;
+    private final String accessToken;
+    private final String version;
+
+    private SalesforceApi(String instanceUrl, String accessToken, String version) {
+        this.instanceUrl = instanceUrl;
+        this.accessToken = accessToken;
+        this.version = version;
+    }
+
+    /** Use an access token (or session id) obtained elsewhere. */
+    public static SalesforceApi withToken(String instanceUrl, String accessToken, String version) {
+        return new SalesforceApi(instanceUrl, accessToken, version);
+    }
+
+    /** OAuth username-password login using the api.* keys and the admin credentials in config.properties. */
+    public static SalesforceApi fromConfig() {
+        return login(ConfigReader.get("api.loginUrl").trim(),
+                ConfigReader.get("api.clientId").trim(),
+                ConfigReader.get("api.clientSecret").trim(),
+                ConfigReader.get("adminUserName").trim(),
+                ConfigReader.get("adminPassword").trim()
+                        + Optional.ofNullable(ConfigReader.get("api.securityToken")).orElse("").trim(),
+                ConfigReader.get("api.version").trim());
+    }
+
+    public static SalesforceApi login(String loginUrl, String clientId, String clientSecret,
+                                      String username, String password, String version) {
+        log.info("[login] Requesting API token from {} for {}", loginUrl, username);
+        Response response = RestAssured.given()
+                .baseUri(loginUrl)
+                .contentType(ContentType.URLENC)
+                .formParam("grant_type", "password")
+                .formParam("client_id", clientId)
+                .formParam("client_secret", clientSecret)
+                .formParam("username", username)
+                .formParam("password", password)
+                .post("/services/oauth2/token");
+        expectStatus(response, 200, "OAuth login");
+
+        String instanceUrl = response.jsonPath().getString("instance_url");
+        log.info("[login] ✅ API session opened on {}", instanceUrl);
+        return new SalesforceApi(instanceUrl, response.jsonPath().getString("access_token"), version);
+    }
+
+    public String getInstanceUrl() { return instanceUrl; }
+    public String getAccessToken() { return accessToken; }
+    public String getVersion() { return version; }
+
+    /** Request spec for /services/data/vXX.X with auth and JSON set. */
+    public RequestSpecification rest() {
+        return RestAssured.given()
+                .baseUri(instanceUrl)
+                .basePath("/services/data/v" + version)
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(ContentType.JSON)
+                .accept(ContentType.JSON);
+    }
+
+    /** Request spec for the partner SOAP endpoint (used for calls REST does not offer, e.g. convertLead). */
+    public RequestSpecification soap() {
+        return RestAssured.given()
+                .baseUri(instanceUrl)
+                .basePath("/services/Soap/u/" + version)
+                .header("SOAPAction", "\"\"")
+                .contentType("text/xml; charset=UTF-8");
+    }
+
+    // ====== sObject helpers ======
+
+    /** @return the new record id */
+    public String create(String sObject, Map<String, Object> fields) {
+        Response response = rest().body(fields).post("/sobjects/" + sObject);
+        expectStatus(response, 201, "create " + sObject);
+        String id = response.jsonPath().getString("id");
+        log.debug("[create] {} {}", sObject, id);
+        return id;
+    }
+
+    public void update(String sObject, String id, Map<String, Object> fields) {
+        Response response = rest().body(fields).patch("/sobjects/" + sObject + "/" + id);
+        expectStatus(response, 204, "update " + sObject + " " + id);
+    }
+
+    public Map<String, Object> get(String sObject, String id) {
+        Response response = rest().get("/sobjects/" + sObject + "/" + id);
+        expectStatus(response, 200, "get " + sObject + " " + id);
+        return response.jsonPath().getMap("$");
+    }
+
+    /** Runs a SOQL query and returns the records of the first page. */
+    public List<Map<String, Object>> query(String soql) {
+        Response response = rest().queryParam("q", soql).get("/query");
+        expectStatus(response, 200, "query");
+        return response.jsonPath().getList("records");
+    }
+
+    static void expectStatus(Response response, int expected, String action) {
+        if (response.statusCode() != expected) {
+            log.error("❌ Salesforce API {} failed: HTTP {} {}", action, response.statusCode(), response.asString());
+            throw new RuntimeException("Salesforce API " + action + " failed with HTTP "
+                    + response.statusCode() + ": " + response.asString());
+        }
+    }
+}
@@ -2,34 +2,99 @@ package org.rakdao.base;
 
 import org.openqa.selenium.WebDriver;
 import org.rakdao.pageObjects.HomePage;
-import org.rakdao.utils.ConfigReader;
 import org.rakdao.utils.DriverFactory;
+import org.rakdao.utils.EventWaiter;
+import org.rakdao.utils.LocatorStats;
 import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.SessionCache;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.TestListener;
+import org.rakdao.utils.UserPool;
 
 import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
 
+import java.lang.reflect.Method;
+import java.net.URI;
+
+@Listeners(TestListener.class) // failure screenshots and the step timing report also when run outside a suite XML
 public class BaseClass {
     private static final Logger log = LoggerUtil.getLogger(BaseClass.class);
-    protected WebDriver driver;
-    String url;
     //protected HomePage homePage;
+
+    @BeforeSuite
+    public void startDriverPool() {
+        TestConfig config = TestConfig.getInstance();
+        if (config.getDriverPoolSize() > 0) {
+            // At least one warm session per parallel thread, so no worker launches a cold browser
+            int poolSize = Math.max(config.getDriverPoolSize(), config.getThreads());
+            log.info("Starting driver pool with {} warm session(s)...", poolSize);
+            DriverFactory.startPool(config.getBrowser(), poolSize, config.getDriverPoolMaxSessionAge());
+        }
+    }
+
+    @BeforeSuite
+    public void startUserPool() {
+        // Pre-generate test users while the browsers start
+        UserPool.getInstance();
+    }
+
     @BeforeMethod
-    public void setUp() {
+    public void setUp(Method method) {
+        // Runs before TestListener.onTestStart: tag the login's log lines and session report with the test already
+        MDC.put("test", getClass().getSimpleName() + "." + method.getName());
         log.info("Initializing WebDriver...");
-        DriverFactory.initDriver(ConfigReader.get("browser"));
-        driver = DriverFactory.getDriver();
+        TestConfig config = TestConfig.getInstance();
+        DriverFactory.initDriver(config.getBrowser());
         log.info("WebDriver initialized successfully.");
-        url=ConfigReader.get("baseUrl");
-        driver.get(url);
+        // Lands on baseUrl logged in: cached session when available, UI login otherwise
+        SessionCache.getInstance().openAuthenticated(getDriver(), baseUrl(),
+                config.getAdminUserName(), config.getAdminPassword());
         //homePage = new HomePage(DriverFactory.getDriver());
     }
 
+    /** Salesforce URL the tests start from; overridden to run against the local fixture replica. */
+    protected String baseUrl() {
+        return TestConfig.getInstance().getBaseUrl();
+    }
+
+    /** This thread's driver; parallel test methods each see their own session. */
+    protected WebDriver getDriver() {
+        return DriverFactory.getDriver();
+    }
+
+    /** Opens a record page directly, e.g. an Opportunity prepared through the API clients. */
+    protected void openRecord(String sObject, String recordId) {
+        URI base = URI.create(baseUrl());
+        getDriver().get(base.getScheme() + "://" + base.getAuthority() + "/lightning/r/" + sObject + "/" + recordId + "/view");
+    }
+
     @AfterMethod
-    public void tearDown() throws InterruptedException {
+    public void tearDown(ITestResult result) throws InterruptedException {
         log.info("Quitting WebDriver...");
-        DriverFactory.quitDriver();
+        DriverFactory.quitDriver(result.isSuccess());
         log.info("WebDriver quit completed.");
     }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopDriverPool() {
+        DriverFactory.stopPool();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void saveLocatorStats() {
+        LocatorStats.getInstance().save();
+        LocatorStats.getInstance().reportDeadPrimaries();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void logWaitStats() {
+        EventWaiter.logStats();
+    }
 }
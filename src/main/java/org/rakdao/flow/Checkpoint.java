@@ -0,0 +1,66 @@
+package org.rakdao.flow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of a staged flow: the stages completed so far (with how long each took),
+ * the values they produced (record IDs, names) and the URL the last stage ended on.
+ */
+public class Checkpoint {
+
+    private final String flow;
+    private final Map<String, Long> completedStages; // stage -> duration ms, in completion order
+    private final Map<String, String> values;
+    private String url;
+    private Instant updatedAt;
+
+    public Checkpoint(String flow) {
+        this(flow, new LinkedHashMap<>(), new LinkedHashMap<>(), null, Instant.now());
+    }
+
+    Checkpoint(String flow, Map<String, Long> completedStages, Map<String, String> values, String url, Instant updatedAt) {
+        this.flow = flow;
+        this.completedStages = completedStages;
+        this.values = values;
+        this.url = url;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getFlow() { return flow; }
+    public String getUrl() { return url; }
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    public Map<String, Long> getCompletedStages() {
+        return Collections.unmodifiableMap(completedStages);
+    }
+
+    public Map<String, String> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    public boolean isCompleted(String stage) {
+        return completedStages.containsKey(stage);
+    }
+
+    public boolean isEmpty() {
+        return completedStages.isEmpty();
+    }
+
+    public Duration age() {
+        return Duration.between(updatedAt, Instant.now());
+    }
+
+    void put(String key, String value) {
+        values.put(key, value);
+    }
+
+    void complete(String stage, long durationMs, String url) {
+        completedStages.put(stage, durationMs);
+        this.url = url;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,107 @@
+package org.rakdao.flow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One JSON file per flow under target/checkpoints/&lt;run id&gt;. Files are replaced atomically
+ * so a run killed mid-write leaves the previous checkpoint intact.
+ *
+ * <p>The run id is created once per JVM, so TestNG retries resume but the next run (a nightly
+ * build, another developer) starts fresh instead of continuing someone else's half-built
+ * records. -Dflow.runId=&lt;id of an earlier run&gt; resumes that run's checkpoints on purpose.
+ */
+public class CheckpointStore {
+
+    private static final Logger log = LoggerUtil.getLogger(CheckpointStore.class);
+    private static final String RUN_ID = Optional.ofNullable(System.getProperty("flow.runId"))
+            .orElse(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + "-" + ProcessHandle.current().pid());
+
+    private final Path dir;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public CheckpointStore() {
+        this(Paths.get(System.getProperty("user.dir"), "target", "checkpoints", RUN_ID));
+    }
+
+    /** Id of this run's checkpoint directory; pass it as -Dflow.runId to resume the run later. */
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    public CheckpointStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public Optional<Checkpoint> load(String flow) {
+        Path file = fileFor(flow);
+        if (!Files.exists(file)) return Optional.empty();
+        try {
+            JsonNode root = mapper.readTree(file.toFile());
+            Map<String, Long> stages = new LinkedHashMap<>();
+            root.path("completedStages").fields().forEachRemaining(e -> stages.put(e.getKey(), e.getValue().asLong()));
+            Map<String, String> values = new LinkedHashMap<>();
+            root.path("values").fields().forEachRemaining(e -> values.put(e.getKey(), e.getValue().asText()));
+            String url = root.hasNonNull("url") ? root.get("url").asText() : null;
+            return Optional.of(new Checkpoint(flow, stages, values, url, Instant.parse(root.path("updatedAt").asText())));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable checkpoint '{}': {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(Checkpoint checkpoint) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("flow", checkpoint.getFlow());
+        root.put("updatedAt", checkpoint.getUpdatedAt().toString());
+        root.put("url", checkpoint.getUrl());
+        ObjectNode stages = root.putObject("completedStages");
+        checkpoint.getCompletedStages().forEach(stages::put);
+        ObjectNode values = root.putObject("values");
+        checkpoint.getValues().forEach(values::put);
+
+        Path file = fileFor(checkpoint.getFlow());
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), root);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // A lost checkpoint only costs a longer retry, never the flow itself
+            log.error("Failed to save checkpoint '{}'", file, e);
+        }
+    }
+
+    public void delete(String flow) {
+        try {
+            Files.deleteIfExists(fileFor(flow));
+            try {
+                Files.deleteIfExists(dir); // the run's directory, once no flow of it is left to resume
+            } catch (DirectoryNotEmptyException ignored) {
+                // other flows of this run still have checkpoints
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint for '{}': {}", flow, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String flow) {
+        return dir.resolve(flow.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+}
@@ -0,0 +1,59 @@
+package org.rakdao.flow;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What a stage gets: the driver and the checkpoint values written by earlier stages,
+ * including those of a previous attempt when the flow resumed.
+ */
+public class FlowContext {
+
+    private static final Duration RECORD_URL_TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebDriver driver;
+    private final Checkpoint checkpoint;
+
+    FlowContext(WebDriver driver, Checkpoint checkpoint) {
+        this.driver = driver;
+        this.checkpoint = checkpoint;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /** Stores a value in the checkpoint; it is saved when the current stage completes. */
+    public void put(String key, String value) {
+        checkpoint.put(key, value);
+    }
+
+    public String get(String key) {
+        return checkpoint.getValues().get(key);
+    }
+
+    /** Value written by an earlier stage; fails the stage when it is missing. */
+    public String require(String key) {
+        String value = get(key);
+        if (value == null) {
+            throw new IllegalStateException("Checkpoint of '" + checkpoint.getFlow() + "' has no value '" + key + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Waits until the browser is on a Lightning record page of the given sObject
+     * (/lightning/r/Lead/00Q.../view) and returns the record ID.
+     */
+    public String awaitRecordId(String sObject) {
+        Pattern recordUrl = Pattern.compile("/lightning/r/" + sObject + "/([a-zA-Z0-9]{15,18})(?:/|$)");
+        return new WebDriverWait(driver, RECORD_URL_TIMEOUT).until(d -> {
+            Matcher m = recordUrl.matcher(d.getCurrentUrl());
+            return m.find() ? m.group(1) : null;
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package org.rakdao.flow;
+
+import org.openqa.selenium.WebDriver;
+import org.rakdao.utils.ConfigReader;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A long UI flow split into named stages. After each stage a checkpoint (values such as
+ * record IDs, the current URL) is saved; when the flow runs again, e.g. on a TestNG retry,
+ * completed stages are skipped and the stage's resume action brings a fresh browser back
+ * to where the failed stage should start (usually the existing record's page).
+ * The checkpoint is deleted once the last stage completes.
+ *
+ * <p>A failed stage is re-run from its start, so stages should be safe to repeat: end a
+ * stage right after the step that saves data (a record, a line item) and do the waiting
+ * that follows in the next stage, so a retry never saves twice.
+ * Checkpoints are per flow name and run ({@link CheckpointStore}): flows that may run
+ * concurrently need distinct names, which {@link #forCurrentTest()} provides.
+ */
+public class StagedFlow {
+
+    private static final Logger log = LoggerUtil.getLogger(StagedFlow.class);
+    private static final boolean RESUME = Boolean.parseBoolean(
+            Optional.ofNullable(ConfigReader.get("flow.resume")).orElse("true").trim());
+    private static final Duration MAX_AGE = Duration.ofMinutes(ConfigReader.getInt("flow.checkpointMaxAgeMinutes", 120));
+
+    /** Work done by a stage, or the navigation that precedes a resumed stage. */
+    @FunctionalInterface
+    public interface StageAction {
+        void run(FlowContext context) throws Exception;
+    }
+
+    private final String name;
+    private final CheckpointStore store;
+    private final List<Stage> stages = new ArrayList<>();
+
+    public StagedFlow(String name) {
+        this(name, new CheckpointStore());
+    }
+
+    public StagedFlow(String name, CheckpointStore store) {
+        this.name = name;
+        this.store = store;
+    }
+
+    /**
+     * Flow named after the running TestNG test: class, method, data-provider row (hash of its
+     * parameters) and thread, e.g. StandardIncorporate.newStandardIncorporate@TestNG-methods-2.
+     * Retries run on the same thread with the same row, so they resume; parallel invocations
+     * never share a checkpoint.
+     */
+    public static StagedFlow forCurrentTest() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            throw new IllegalStateException("StagedFlow.forCurrentTest() must be called from a TestNG test method");
+        }
+        Object[] row = result.getParameters();
+        return new StagedFlow(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName()
+                + (row.length == 0 ? "" : "#" + Integer.toHexString(Arrays.deepHashCode(row)))
+                + "@" + Thread.currentThread().getName());
+    }
+
+    /** A stage that can only run as part of a fresh flow (e.g. the first one). */
+    public StagedFlow stage(String stageName, StageAction action) {
+        return stage(stageName, null, action);
+    }
+
+    /**
+     * @param resume run instead of the completed stages when a resumed flow starts at this stage
+     */
+    public StagedFlow stage(String stageName, StageAction resume, StageAction action) {
+        stages.add(new Stage(stageName, resume, action));
+        return this;
+    }
+
+    /** Runs the remaining stages; returns the final checkpoint (values of all stages). */
+    public Checkpoint run(WebDriver driver) throws Exception {
+        Checkpoint checkpoint = resumableCheckpoint();
+        FlowContext context = new FlowContext(driver, checkpoint);
+        boolean resuming = !checkpoint.isEmpty();
+        long skippedMs = checkpoint.getCompletedStages().values().stream().mapToLong(Long::longValue).sum();
+
+        for (Stage stage : stages) {
+            if (checkpoint.isCompleted(stage.name)) {
+                log.info("⏭️ [{}] Skipping completed stage '{}'", name, stage.name);
+                continue;
+            }
+            if (resuming) {
+                log.info("⏩ [{}] Resuming at stage '{}' ({} ms of completed stages not repeated)", name, stage.name, skippedMs);
+                stage.resume.run(context);
+                resuming = false;
+            }
+
+            log.info("▶️ [{}] Stage '{}' started", name, stage.name);
+            long start = System.nanoTime();
+            stage.action.run(context);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            checkpoint.complete(stage.name, elapsedMs, driver.getCurrentUrl());
+            store.save(checkpoint);
+            log.info("✅ [{}] Stage '{}' completed in {} ms, checkpoint saved", name, stage.name, elapsedMs);
+        }
+
+        store.delete(name);
+        log.info("🏁 [{}] All {} stage(s) completed, checkpoint cleared", name, stages.size());
+        return checkpoint;
+    }
+
+    // ====== Internals ======
+
+    /** Saved progress to continue from, or a fresh checkpoint when there is none or it cannot be used. */
+    private Checkpoint resumableCheckpoint() {
+        Checkpoint saved = RESUME ? store.load(name).orElse(null) : null;
+        if (saved == null || saved.isEmpty()) return new Checkpoint(name);
+
+        if (saved.age().compareTo(MAX_AGE) > 0) {
+            log.info("[{}] Checkpoint is {} min old (max {}), starting over", name, saved.age().toMinutes(), MAX_AGE.toMinutes());
+            return new Checkpoint(name);
+        }
+        Stage next = stages.stream().filter(s -> !saved.isCompleted(s.name)).findFirst().orElse(null);
+        if (next == null) {
+            log.info("[{}] Checkpoint covers every stage, starting over", name);
+            return new Checkpoint(name);
+        }
+        if (next.resume == null) {
+            log.warn("[{}] Stage '{}' has no resume action, starting over", name, next.name);
+            return new Checkpoint(name);
+        }
+        log.info("[{}] Found checkpoint of run {} from {} min ago: completed {}, values {}",
+                name, CheckpointStore.runId(), saved.age().toMinutes(), saved.getCompletedStages().keySet(), saved.getValues());
+        return saved;
+    }
+
+    private static class Stage {
+        private final String name;
+        private final StageAction resume;
+        private final StageAction action;
+
+        Stage(String name, StageAction resume, StageAction action) {
+            this.name = name;
+            this.resume = resume;
+            this.action = action;
+        }
+    }
+}
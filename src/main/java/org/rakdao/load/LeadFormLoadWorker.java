@@ -0,0 +1,57 @@
+package org.rakdao.load;
+
+import org.openqa.selenium.WebDriver;
+import org.rakdao.pageObjects.website.WebLeadFormPageObjects;
+import org.rakdao.utils.DriverFactory;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Virtual user for the website lead forms: one browser per worker, each flow opens the
+ * next URL (round robin) and runs the same WebLeadFormPageObjects / LandingPageObject
+ * submission as WebLeadFormAutomation.
+ */
+public class LeadFormLoadWorker implements LoadWorker {
+
+    private static final Logger log = LoggerUtil.getLogger(LeadFormLoadWorker.class);
+
+    private final String browser;
+    private final boolean headless;
+    private final List<String> urls;
+
+    public LeadFormLoadWorker(String browser, boolean headless, List<String> urls) {
+        this.browser = browser;
+        this.headless = headless;
+        this.urls = List.copyOf(urls);
+    }
+
+    @Override
+    public void open() {
+        DriverFactory.initDriver(browser, headless);
+    }
+
+    @Override
+    public boolean runFlow(long iteration, LongConsumer submitLatency) {
+        String url = urls.get((int) ((iteration - 1) % urls.size()));
+        User user = UserGenerator.generateUser();
+        log.debug("[runFlow] #{} {} on {}", iteration, url, Thread.currentThread().getName());
+
+        WebDriver driver = DriverFactory.getDriver();
+        driver.get(url);
+        WebLeadFormPageObjects leadFormPage = new WebLeadFormPageObjects(driver);
+        leadFormPage.setSubmitLatencyListener(submitLatency);
+        return leadFormPage.submitLeadForAllEnquiryTypes(user.getFirstName(), user.getLastName());
+    }
+
+    @Override
+    public void close() {
+        if (DriverFactory.getDriver() != null) {
+            DriverFactory.quitDriver(false);
+        }
+    }
+}
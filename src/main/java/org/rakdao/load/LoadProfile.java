@@ -0,0 +1,53 @@
+package org.rakdao.load;
+
+import org.rakdao.utils.ConfigReader;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load run: how many browsers, how many flows per minute once ramped up,
+ * how long the ramp takes and how long flows keep being started.
+ */
+public class LoadProfile {
+
+    private final int workers;
+    private final double flowsPerMinute;
+    private final Duration rampUp;
+    private final Duration duration;
+
+    public LoadProfile(int workers, double flowsPerMinute, Duration rampUp, Duration duration) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1");
+        if (flowsPerMinute <= 0) throw new IllegalArgumentException("flowsPerMinute must be > 0");
+        this.workers = workers;
+        this.flowsPerMinute = flowsPerMinute;
+        this.rampUp = rampUp;
+        this.duration = duration;
+    }
+
+    /** Reads load.workers, load.flowsPerMinute, load.rampUpSeconds and load.durationSeconds. */
+    public static LoadProfile fromConfig() {
+        return new LoadProfile(
+                ConfigReader.getInt("load.workers", 4),
+                ConfigReader.getInt("load.flowsPerMinute", 12),
+                Duration.ofSeconds(ConfigReader.getInt("load.rampUpSeconds", 60)),
+                Duration.ofSeconds(ConfigReader.getInt("load.durationSeconds", 300)));
+    }
+
+    public int getWorkers() { return workers; }
+    public double getFlowsPerMinute() { return flowsPerMinute; }
+    public Duration getRampUp() { return rampUp; }
+    public Duration getDuration() { return duration; }
+
+    /** Target arrival rate in flows/second at the given time since start (linear ramp). */
+    double rateAt(Duration elapsed) {
+        double full = flowsPerMinute / 60.0;
+        if (rampUp.isZero() || elapsed.compareTo(rampUp) >= 0) return full;
+        return full * elapsed.toNanos() / rampUp.toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d worker(s), %.1f flow(s)/min, ramp-up %d s, duration %d s",
+                workers, flowsPerMinute, rampUp.toSeconds(), duration.toSeconds());
+    }
+}
@@ -0,0 +1,153 @@
+package org.rakdao.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of a load run: flow and submit latency percentiles, queueing delay (time a
+ * scheduled flow waited for a free worker), error counts and throughput.
+ */
+public class LoadReport {
+
+    private static final Logger log = LoggerUtil.getLogger(LoadReport.class);
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final LoadProfile profile;
+    private final List<Long> flowNanos = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> submitNanos = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> queueNanos = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long elapsedNanos;
+
+    LoadReport(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    // ====== Recording (called by LoadRunner) ======
+
+    void scheduled() { scheduled.increment(); }
+    void dropped(long count) { dropped.add(count); }
+    void submit(long nanos) { submitNanos.add(nanos); }
+    void elapsed(long nanos) { elapsedNanos = nanos; }
+
+    void flow(long queuedNanos, long durationNanos, Boolean passedFlow) {
+        queueNanos.add(queuedNanos);
+        flowNanos.add(durationNanos);
+        if (passedFlow == null) errors.increment();
+        else if (passedFlow) passed.increment();
+        else failed.increment();
+    }
+
+    // ====== Results ======
+
+    public long getCompletedFlows() { return passed.sum() + failed.sum() + errors.sum(); }
+    public long getFailedFlows() { return failed.sum() + errors.sum(); }
+    public long getDroppedFlows() { return dropped.sum(); }
+    public long getSubmits() { return submitNanos.size(); }
+
+    /** Failed or errored flows over completed flows. */
+    public double getErrorRate() {
+        long completed = getCompletedFlows();
+        return completed == 0 ? 0 : (double) getFailedFlows() / completed;
+    }
+
+    public double getFlowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getCompletedFlows() / (elapsedNanos / 1e9);
+    }
+
+    public double getSubmitsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getSubmits() / (elapsedNanos / 1e9);
+    }
+
+    /** Submit latency percentile in milliseconds (0 when nothing was submitted). */
+    public double submitPercentileMillis(double percentile) {
+        return percentile(sorted(submitNanos), percentile) / 1e6;
+    }
+
+    public void log() {
+        log.info("📈 Load run: {}", profile);
+        log.info("📈 Flows: {} scheduled, {} passed, {} failed, {} errored, {} dropped (no free worker before end)",
+                scheduled.sum(), passed.sum(), failed.sum(), errors.sum(), dropped.sum());
+        log.info("📈 Throughput: {} flow(s)/s, {} submit(s)/s, error rate {}%",
+                String.format("%.3f", getFlowsPerSecond()), String.format("%.3f", getSubmitsPerSecond()),
+                String.format("%.1f", getErrorRate() * 100));
+        log.info("📈 Submit latency ms: {}", summary(sorted(submitNanos)));
+        log.info("📈 Flow duration ms:  {}", summary(sorted(flowNanos)));
+        log.info("📈 Queue delay ms:    {}", summary(sorted(queueNanos)));
+    }
+
+    public void write(Path file) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("profile", profile.toString());
+        root.put("elapsedSeconds", elapsedNanos / 1e9);
+        ObjectNode flows = root.putObject("flows");
+        flows.put("scheduled", scheduled.sum());
+        flows.put("passed", passed.sum());
+        flows.put("failed", failed.sum());
+        flows.put("errored", errors.sum());
+        flows.put("dropped", dropped.sum());
+        root.put("errorRate", getErrorRate());
+        root.put("flowsPerSecond", getFlowsPerSecond());
+        root.put("submitsPerSecond", getSubmitsPerSecond());
+        percentiles(root.putObject("submitLatencyMs"), sorted(submitNanos));
+        percentiles(root.putObject("flowDurationMs"), sorted(flowNanos));
+        percentiles(root.putObject("queueDelayMs"), sorted(queueNanos));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+            log.info("Load report written to '{}'", file);
+        } catch (IOException e) {
+            log.error("Failed to write load report '{}'", file, e);
+        }
+    }
+
+    // ====== Internals ======
+
+    private static List<Long> sorted(List<Long> values) {
+        List<Long> copy;
+        synchronized (values) {
+            copy = new ArrayList<>(values);
+        }
+        Collections.sort(copy);
+        return copy;
+    }
+
+    /** Nearest-rank percentile. */
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) return 0;
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static String summary(List<Long> sorted) {
+        if (sorted.isEmpty()) return "n/a";
+        StringBuilder sb = new StringBuilder("n=").append(sorted.size());
+        for (double p : PERCENTILES) {
+            sb.append(String.format(", p%.0f=%.0f", p, percentile(sorted, p) / 1e6));
+        }
+        return sb.append(String.format(", max=%.0f", sorted.get(sorted.size() - 1) / 1e6)).toString();
+    }
+
+    private static void percentiles(ObjectNode node, List<Long> sorted) {
+        node.put("count", sorted.size());
+        for (double p : PERCENTILES) {
+            node.put(String.format("p%.0f", p), percentile(sorted, p) / 1e6);
+        }
+        node.put("max", sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1) / 1e6);
+    }
+}
@@ -0,0 +1,127 @@
+package org.rakdao.load;
+
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: flows are scheduled at the profile's arrival rate (ramping
+ * up linearly) regardless of how fast they complete, and picked up by a fixed set of
+ * workers. When all workers are busy, scheduled flows wait in a queue, and that wait is
+ * reported separately so saturation shows up instead of silently lowering the rate.
+ */
+public class LoadRunner {
+
+    private static final Logger log = LoggerUtil.getLogger(LoadRunner.class);
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final LoadProfile profile;
+
+    public LoadRunner(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    /** Runs the load and blocks until every worker has finished its last flow. */
+    public LoadReport run(Supplier<LoadWorker> workerFactory) throws InterruptedException {
+        LoadReport report = new LoadReport(profile);
+        BlockingQueue<Long> schedule = new LinkedBlockingQueue<>(); // scheduled start times (nanoTime)
+        AtomicLong iterations = new AtomicLong();
+        AtomicBoolean scheduling = new AtomicBoolean(true);
+        CountDownLatch opened = new CountDownLatch(profile.getWorkers());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < profile.getWorkers(); i++) {
+            LoadWorker worker = workerFactory.get();
+            Thread thread = new Thread(() -> work(worker, opened, schedule, iterations, report, scheduling), "load-worker-" + (i + 1));
+            threads.add(thread);
+        }
+
+        log.info("🚦 Starting load: {}", profile);
+        threads.forEach(Thread::start);
+        opened.await(); // browser start-up is not part of the measured run
+
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        double credit = 0;
+        long previous = start;
+        while (System.nanoTime() < end) {
+            TimeUnit.NANOSECONDS.sleep(TICK_NANOS);
+            long now = System.nanoTime();
+            credit += profile.rateAt(Duration.ofNanos(now - start)) * (now - previous) / 1e9;
+            previous = now;
+            while (credit >= 1) {
+                schedule.offer(now);
+                report.scheduled();
+                credit -= 1;
+            }
+        }
+        scheduling.set(false);
+
+        List<Long> leftover = new ArrayList<>();
+        schedule.drainTo(leftover);
+        report.dropped(leftover.size());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report.elapsed(System.nanoTime() - start);
+        report.log();
+        return report;
+    }
+
+    private void work(LoadWorker worker, CountDownLatch opened, BlockingQueue<Long> schedule, AtomicLong iterations,
+                      LoadReport report, AtomicBoolean scheduling) {
+        try {
+            worker.open();
+        } catch (RuntimeException e) {
+            log.error("❌ Load worker failed to start, it will not take flows", e);
+            return;
+        } finally {
+            opened.countDown();
+        }
+        try {
+            while (true) {
+                Long scheduledAt = schedule.poll(100, TimeUnit.MILLISECONDS);
+                if (scheduledAt == null) {
+                    if (!scheduling.get()) return;
+                    continue;
+                }
+
+                long started = System.nanoTime();
+                long iteration = iterations.incrementAndGet();
+                Boolean passed;
+                try {
+                    passed = worker.runFlow(iteration, report::submit);
+                } catch (Exception e) {
+                    log.warn("⚠️ Load flow #{} errored: {}", iteration, e.toString());
+                    passed = null;
+                    try {
+                        worker.recover();
+                    } catch (RuntimeException recoverError) {
+                        log.error("❌ Load worker could not recover, stopping it", recoverError);
+                        report.flow(started - scheduledAt, System.nanoTime() - started, null);
+                        return;
+                    }
+                }
+                report.flow(started - scheduledAt, System.nanoTime() - started, passed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                worker.close();
+            } catch (RuntimeException e) {
+                log.warn("Load worker close failed: {}", e.getMessage());
+            }
+        }
+    }
+}
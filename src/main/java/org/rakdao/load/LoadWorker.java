@@ -0,0 +1,29 @@
+package org.rakdao.load;
+
+import java.util.function.LongConsumer;
+
+/**
+ * One virtual user of a load run. Each worker runs on its own thread and keeps its
+ * resources (e.g. a browser) between flows.
+ */
+public interface LoadWorker {
+
+    /** Called once on the worker thread before its first flow. */
+    void open();
+
+    /**
+     * Runs one flow.
+     * @param submitLatency receives the latency (nanoseconds) of every submit in the flow
+     * @return false if the flow completed with failed submissions
+     */
+    boolean runFlow(long iteration, LongConsumer submitLatency) throws Exception;
+
+    /** Called after a flow threw; the worker should get back to a usable state (e.g. a new browser). */
+    default void recover() {
+        close();
+        open();
+    }
+
+    /** Called once on the worker thread at the end of the run. */
+    void close();
+}
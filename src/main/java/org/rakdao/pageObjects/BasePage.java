@@ -4,11 +4,11 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.rakdao.utils.JsonLocatorReader;
+import org.rakdao.utils.LocatorCandidate;
+import org.rakdao.utils.LocatorRegistry;
+import org.rakdao.utils.LocatorStats;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class BasePage {
 
@@ -24,29 +24,27 @@ public class BasePage {
         return JsonLocatorReader.getElement(driver, pageName, key);
     }
 
+    /** Primary + fallback locators for the element, historically fastest working one first. */
     public List<By> getAllLocators(String key) {
-        List<By> locators = new ArrayList<>();
-
-        // Get all locator data (main + fallback)
-        Map<String, Object> locatorData = JsonLocatorReader.getLocatorData(pageName, key);
-
-        // Primary locator
-        Map<String, String> primary = new HashMap<>();
-        primary.put("locatorType", (String) locatorData.get("locatorType"));
-        primary.put("locatorValue", (String) locatorData.get("locatorValue"));
-        locators.add(JsonLocatorReader.buildBy(primary));
-
-        // Fallback locators
-        Object fallbackObj = locatorData.get("fallback");
-        if (fallbackObj instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> fallbacks = (List<Map<String, String>>) fallbackObj;
-            for (Map<String, String> fb : fallbacks) {
-                locators.add(JsonLocatorReader.buildBy(fb));
-            }
-        }
+        List<LocatorCandidate> declared = LocatorRegistry.getInstance().getCandidates(pageName, key);
+        List<LocatorCandidate> ordered = LocatorStats.getInstance().order(pageName, key, declared);
+        return ordered == declared
+                ? LocatorRegistry.getInstance().getLocators(pageName, key)
+                : ordered.stream().map(LocatorCandidate::getBy).toList();
+    }
 
-        return locators;
+    /** Candidates in adaptive order; report outcomes back with {@link #recordLocatorResult}. */
+    public List<LocatorCandidate> getOrderedCandidates(String key) {
+        return LocatorStats.getInstance().order(pageName, key,
+                LocatorRegistry.getInstance().getCandidates(pageName, key));
+    }
+
+    public void recordLocatorResult(String key, LocatorCandidate candidate, boolean found, long nanos) {
+        if (found) {
+            LocatorStats.getInstance().recordHit(pageName, key, candidate, nanos);
+        } else {
+            LocatorStats.getInstance().recordMiss(pageName, key, candidate);
+        }
     }
 
 
@@ -5,11 +5,10 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import org.rakdao.utils.JsonLocatorReader;
+import org.rakdao.utils.LocatorCandidate;
 import org.rakdao.utils.ReusableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
 
@@ -52,23 +51,25 @@ public class HomePage extends ReusableUtil {
      * Clicks on the navigation bar tab such as 'Leads', 'Accounts', etc.
      * Optimized for speed: tries primary + first visible fallback quickly.
      */
-    public void clickNavigationTab(String tabName) throws IOException {
+    public void clickNavigationTab(String tabName) {
         logger.info("[clickNavigationTab] Clicking navigation tab: {}", tabName);
 
-        JsonLocatorReader.load(System.getProperty("user.dir")
-                + "/src/main/java/org/rakdao/pageObjects/locators/NavigationBar.json");
         BasePage navBar = new BasePage(driver, "NavigationBar");
 
-        List<By> locators = navBar.getAllLocators(tabName.toLowerCase() + "Tab");
+        String key = tabName.toLowerCase() + "Tab";
 
         WebElement element = null;
-        for (By locator : locators) {
+        for (LocatorCandidate candidate : navBar.getOrderedCandidates(key)) {
+            long start = System.nanoTime();
             try {
                 element = new WebDriverWait(driver, Duration.ofSeconds(8))
-                        .until(ExpectedConditions.elementToBeClickable(locator));
-                logger.debug("[clickNavigationTab] Found tab '{}' using locator: {}", tabName, locator);
+                        .until(ExpectedConditions.elementToBeClickable(candidate.getBy()));
+                navBar.recordLocatorResult(key, candidate, true, System.nanoTime() - start);
+                logger.debug("[clickNavigationTab] Found tab '{}' using locator: {}", tabName, candidate);
                 break;
-            } catch (Exception ignored) {}
+            } catch (Exception ignored) {
+                navBar.recordLocatorResult(key, candidate, false, 0);
+            }
         }
 
         if (element == null)
@@ -141,11 +142,9 @@ public class HomePage extends ReusableUtil {
     /**
      * Clicks on the “New Lead” button from the Leads home view.
      */
-    public void clickNewLeadButton() throws IOException {
+    public void clickNewLeadButton() {
         logger.info("[clickNewLead] Clicking 'New Lead' button...");
 
-        JsonLocatorReader.load(System.getProperty("user.dir")
-                + "/src/main/java/org/rakdao/pageObjects/locators/LeadsActions.json");
         BasePage leadBar = new BasePage(driver, "LeadsActions");
 
         clickElementWithJSFallback(leadBar, "newButton", wait);
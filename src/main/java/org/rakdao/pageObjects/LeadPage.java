@@ -11,7 +11,9 @@ import org.slf4j.LoggerFactory;
 import org.testng.asserts.SoftAssert;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -38,25 +40,16 @@ public class LeadPage extends ReusableUtil {
     @FindBy(css = ".inlineFooter div button span")
     private List<WebElement> cancelNextCtas;
 
-    @FindBy(xpath = "//input[@name='firstName']")
-    private WebElement firstNameInput;
-
-    @FindBy(xpath = "//input[@name='lastName']")
-    private WebElement lastNameInput;
-
-    @FindBy(xpath = "//input[@name='Company']")
-    private WebElement companyInput;
-
-    @FindBy(xpath = "//input[@name='Email']")
-    private WebElement emailInput;
-
-    @FindBy(xpath = "//input[@name='MobilePhone']")
-    private WebElement mobileInput;
+    // Plain locators: filled in one script call by FormFiller, no PageFactory lookups
+    private final By firstNameInput = By.xpath("//input[@name='firstName']");
+    private final By lastNameInput = By.xpath("//input[@name='lastName']");
+    private final By companyInput = By.xpath("//input[@name='Company']");
+    private final By emailInput = By.xpath("//input[@name='Email']");
+    private final By mobileInput = By.xpath("//input[@name='MobilePhone']");
 
     private final By nationalityBox = By.xpath("//button[@name='Nationality' or @aria-label='Nationality']");
     private final By entityTypeBox = By.xpath("//button[@aria-label='Entity Type']");
     private final By activityGroupBox = By.xpath("//button[@aria-label='Activity Group']");
-    private final String dropdownItemsXpath = "//lightning-base-combobox-item//span/span";
 
     // Lead Conversion confirmation
     @FindBy(css = "div.title h2")
@@ -96,114 +89,30 @@ public class LeadPage extends ReusableUtil {
 
     /** Enter lead details */
     public void enterLeadDetails(String firstName, String lastName, String company, String email, String mobile) {
-        waitForVisibility(firstNameInput);
-        firstNameInput.clear(); firstNameInput.sendKeys(firstName);
-        lastNameInput.clear(); lastNameInput.sendKeys(lastName);
-        companyInput.clear(); companyInput.sendKeys(company);
-        mobileInput.clear(); mobileInput.sendKeys(mobile);
-        emailInput.clear(); emailInput.sendKeys(email);
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(firstNameInput, firstName);
+        fields.put(lastNameInput, lastName);
+        fields.put(companyInput, company);
+        fields.put(mobileInput, mobile);
+        fields.put(emailInput, email);
+        fillForm(fields); // waits for the modal's inputs itself
         logger.info("[enterLeadDetails] ✅ Entered lead info for '{} {}'", firstName, lastName);
     }
 
     // -------------------- Dropdowns --------------------
+    // Lightning comboboxes: option found by label and clicked in one script call (Nationality has ~200 options)
     public void selectEntityType(String entityType) {
-        selectDropdownValue(entityTypeBox, dropdownItemsXpath, entityType);
+        selectComboboxOption(entityTypeBox, entityType);
     }
 
     public void selectActivityGroup(String group) {
-        selectDropdownValue(activityGroupBox, dropdownItemsXpath, group);
+        selectComboboxOption(activityGroupBox, group);
     }
 
     public void selectNationality(String nationality) {
-        selectDropdownValue(nationalityBox, dropdownItemsXpath, nationality);
-    }
-
-//    /** Generic dropdown selection logic */
-//    private void selectDropdownValue(By dropdownButton, String dropdownItemsXpath, String valueToSelect) {
-//        logger.info("[selectDropdownValue] Selecting '{}' from '{}'", valueToSelect, dropdownButton);
-//
-//        WebElement button = wait.until(ExpectedConditions.visibilityOfElementLocated(dropdownButton));
-//        scrollToElement(button);
-//
-//        try { button.click(); }
-//        catch (ElementClickInterceptedException e) {
-//            logger.warn("Click intercepted, using JS fallback...");
-//            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", button);
-//        }
-//
-//        List<WebElement> options = wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(By.xpath(dropdownItemsXpath)));
-//        boolean found = false;
-//
-//        for (WebElement opt : options) {
-//            if (opt.getText().trim().equalsIgnoreCase(valueToSelect)) {
-//                scrollToElement(opt);
-//                try { opt.click(); }
-//                catch (ElementClickInterceptedException e) {
-//                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", opt);
-//                }
-//                logger.info("[selectDropdownValue] ✅ Selected '{}'", valueToSelect);
-//                found = true;
-//                break;
-//            }
-//        }
-//
-//        if (!found) throw new NoSuchElementException("Dropdown option not found: " + valueToSelect);
-//    }
-
-    /** Robust dropdown selection for Salesforce LWC */
-    private void selectDropdownValue(By dropdownButton, String dropdownItemsXpath, String valueToSelect) {
-        logger.info("[selectDropdownValue] Selecting '{}' from '{}'", valueToSelect, dropdownButton);
-
-        // Step 1: Wait for and click the dropdown button
-
-        WebElement button = waitForClickability(driver.findElement(dropdownButton));
-        scrollToElement(button);
-        try {
-            button.click();
-        } catch (ElementClickInterceptedException e) {
-            logger.warn("Click intercepted, using JS fallback...");
-            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", button);
-        }
-
-        // Step 2: Wait for dropdown items to appear (presence + visibility)
-        By itemLocator = By.xpath(String.format("%s[normalize-space(text())='%s']", dropdownItemsXpath, valueToSelect));
-        WebElement item = null;
-
-        int attempts = 0;
-        while (attempts < 3) { // retry a few times in case of lazy-render
-            try {
-                wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.xpath(dropdownItemsXpath)));
-                item = wait.until(ExpectedConditions.visibilityOfElementLocated(itemLocator));
-                break; // found, exit loop
-            } catch (TimeoutException e) {
-                logger.warn("Dropdown item '{}' not yet visible, retrying... attempt {}", valueToSelect, attempts + 1);
-                scrollToElement(button); // scroll dropdown into view
-                sleep(500); // small wait before retry
-            }
-            attempts++;
-        }
-
-        if (item == null) {
-            throw new NoSuchElementException("Dropdown option not found: " + valueToSelect);
-        }
-
-        // Step 3: Scroll to item and click
-        scrollToElement(item);
-        try {
-            item.click();
-        } catch (ElementClickInterceptedException e) {
-            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", item);
-        }
-
-        logger.info("[selectDropdownValue] ✅ Selected '{}'", valueToSelect);
-    }
-
-    /** Utility: simple sleep wrapper */
-    private void sleep(long millis) {
-        try { Thread.sleep(millis); } catch (InterruptedException ignored) {}
+        selectComboboxOption(nationalityBox, nationality);
     }
 
-
     // -------------------- CTA / Conversion Methods --------------------
     public void clickRibbonCta(String ctaText) {
         logger.info("[clickRibbonCta] Clicking CTA: {}", ctaText);
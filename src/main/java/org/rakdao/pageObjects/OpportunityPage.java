@@ -6,6 +6,7 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.rakdao.utils.ReusableUtil;
+import org.rakdao.utils.TableSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.asserts.SoftAssert;
@@ -188,7 +189,7 @@ public class OpportunityPage extends ReusableUtil {
             logger.debug("[chooseProductFromStandardBook] Product table visible.");
 
             productSearchBoxEle.sendKeys(productName);
-            Thread.sleep(1000);
+            waitForPageIdle(); // search results are fetched as you type
             logger.info("[chooseProductFromStandardBook] Entered '{}' into search box.", productName);
 
             By listBoxLocator=By.xpath("//div[@role='listbox']");
@@ -343,20 +344,8 @@ public class OpportunityPage extends ReusableUtil {
     private void selectDropdownValue(WebElement dropdown, String value) {
         try {
             logger.info("[selectDropdownValue] Attempting to select '{}'...", value);
-            scrollToElement(dropdown);
-            waitForClickability(dropdown);
-
-            String currentValue = dropdown.getText().trim();
-            if (currentValue.equalsIgnoreCase(value)) {
-                logger.info("[selectDropdownValue] '{}' already selected.", value);
-                return;
-            }
-
-            dropdown.click();
-            WebElement option = driver.findElement(By.xpath("//lightning-base-combobox-item//span[@title='" + value + "']"));
-            waitForClickability(option);
-            option.click();
-
+            // Skips the click when the value is already selected
+            selectComboboxOption(dropdown, value);
             logger.info("[selectDropdownValue] ✅ '{}' selected successfully.", value);
         } catch (Exception e) {
             logger.error("[selectDropdownValue] ❌ Failed to select '{}'.", value, e);
@@ -399,53 +388,33 @@ public class OpportunityPage extends ReusableUtil {
         By tableLocator = By.cssSelector("table.slds-table.slds-table_bordered.slds-table_cell-buffer");
         WebElement table = wait.until(ExpectedConditions.visibilityOfElementLocated(tableLocator));
 
-        int columnIndex = getColumnIndexByHeader("RENTAL AMOUNT", table);
-        logger.debug("[selectInventoryByRentalAmount] 'RENTAL AMOUNT' column index resolved to: {}", columnIndex);
-
         int maxPages = 20; // safety limit
         boolean found = false;
 
-        for (int page = 1; page <= maxPages; page++) {
-            logger.debug("[selectInventoryByRentalAmount] Checking page {}...", page);
-
-            List<WebElement> rows = table.findElements(By.xpath(".//tbody/tr"));
-            logger.debug("[selectInventoryByRentalAmount] Page {} loaded with {} rows", page, rows.size());
+        // One script call pulls headers and every cell (text + title) of the current page
+        TableSnapshot snapshot = TableSnapshot.capture(driver, table);
+        logger.debug("[selectInventoryByRentalAmount] 'RENTAL AMOUNT' column index resolved to: {}",
+                getColumnIndexByHeader("RENTAL AMOUNT", snapshot));
 
-            for (int i = 0; i < rows.size(); i++) {
-                WebElement row = rows.get(i);
-                try {
-                    // ✅ Always use ./ to scope within row
-                    String cellXpath = "./th[" + columnIndex + "]//div";
-                    WebElement cell = row.findElement(By.xpath(cellXpath));
-
-                    // Prefer getText() if title attribute is missing
-                    String cellValue = cell.getAttribute("title") != null
-                            ? cell.getAttribute("title").trim()
-                            : cell.getText().trim();
-
-                    logger.debug("Row {} column value: '{}'", i + 1, cellValue);
-
-                    if (cellValue.equals(expectedAmount)) {
-                        logger.info("✅ Found rental amount '{}' at row {} on page {}", expectedAmount, i + 1, page);
-                        WebElement checkbox = row.findElement(By.xpath(".//input[@type='checkbox']"));
-                        scrollToElement(checkbox);
-                        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", checkbox);
-                        found = true;
-                        break;
-                    }
-                } catch (NoSuchElementException e) {
-                    // Skip if cell not found in this row
+        for (int page = 1; page <= maxPages; page++) {
+            logger.debug("[selectInventoryByRentalAmount] Page {} loaded with {} rows", page, snapshot.getRows().size());
+
+            Optional<TableSnapshot.Row> match = snapshot.findRow("RENTAL AMOUNT", expectedAmount::equals);
+            if (match.isPresent()) {
+                logger.info("✅ Found rental amount '{}' at row {} on page {}", expectedAmount, match.get().getIndex() + 1, page);
+                found = snapshot.clickInRow(match.get(), "input[type='checkbox']");
+                if (!found) {
+                    logger.warn("⚠️ Row {} has no checkbox to select.", match.get().getIndex() + 1);
                 }
+                break;
             }
 
-            if (found) break;
-
             // 🔁 Handle pagination
             WebElement nextButton = driver.findElement(By.xpath("//button[contains(text(),'Next')]"));
             if (nextButton.isDisplayed()) {
                 logger.info("➡️ Clicking Next Page (page {})...", page + 1);
                 ((JavascriptExecutor) driver).executeScript("arguments[0].click();", nextButton);
-                table = wait.until(ExpectedConditions.visibilityOfElementLocated(tableLocator));
+                snapshot = waitForNextPage(tableLocator, snapshot.signature());
             } else {
                 logger.warn("⚠️ No more pages. Rental amount '{}' not found.", expectedAmount);
                 break;
@@ -473,18 +442,22 @@ public class OpportunityPage extends ReusableUtil {
     }
 
 
-    private int getColumnIndexByHeader(String headerName, WebElement table) {
-        List<WebElement> headers = table.findElements(By.xpath(".//thead//th"));
-        for (int i = 0; i < headers.size(); i++) {
-            String title = headers.get(i).getText().trim();
-            if (title.equalsIgnoreCase(headerName)) {
-                return i + 1; // XPath index starts at 1
+    /** Re-captures the table until its content differs from the previous page. */
+    private TableSnapshot waitForNextPage(By tableLocator, String previousSignature) {
+        return wait.until(d -> {
+            try {
+                TableSnapshot next = TableSnapshot.capture(d, d.findElement(tableLocator));
+                return next.signature().equals(previousSignature) ? null : next;
+            } catch (StaleElementReferenceException e) {
+                return null; // table re-rendered mid-capture, try again
             }
-        }
-        throw new NoSuchElementException("Header '" + headerName + "' not found in table.");
+        });
     }
 
-
+    /** 1-based column index (XPath style) of the header, read from an already captured snapshot. */
+    private int getColumnIndexByHeader(String headerName, TableSnapshot snapshot) {
+        return snapshot.columnIndex(headerName) + 1;
+    }
 
 
 
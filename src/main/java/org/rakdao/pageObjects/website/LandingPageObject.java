@@ -5,34 +5,33 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.rakdao.utils.FormFiller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class LandingPageObject {
     private static final Logger logger = LoggerFactory.getLogger(LandingPageObject.class);
     private WebDriver driver;
     private WebDriverWait wait;
+    private FormFiller formFiller;
 
     public LandingPageObject(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        this.formFiller = new FormFiller(driver);
         PageFactory.initElements(driver, this);
     }
 
     // ====== Locators ======
-    @FindBy(css = "div[class*='container item'] input[name='firstName']")
-    private WebElement firstNameEle;
-
-    @FindBy(css = "div[class*='container item'] input[name='lastName']")
-    private WebElement lastNameEle;
-
-    @FindBy(css = "div[class*='container item'] input[name='phoneNumber']")
-    private WebElement phoneNumberEle;
-
-    @FindBy(css = "div[class*='container item'] input[name='email']")
-    private WebElement emailEle;
+    // Text inputs are plain locators: filled through FormFiller in one script call
+    private final By firstNameEle = By.cssSelector("div[class*='container item'] input[name='firstName']");
+    private final By lastNameEle = By.cssSelector("div[class*='container item'] input[name='lastName']");
+    private final By phoneNumberEle = By.cssSelector("div[class*='container item'] input[name='phoneNumber']");
+    private final By emailEle = By.cssSelector("div[class*='container item'] input[name='email']");
 
     @FindBy(css = "#_R_ikannb_-form-item")
     private WebElement checkBoxEle;
@@ -43,33 +42,36 @@ public class LandingPageObject {
     // ====== Actions ======
 
     public void setFirstName(String firstName) {
-        WebElement ele = wait.until(ExpectedConditions.visibilityOf(firstNameEle));
-        ele.clear();
-        ele.sendKeys(firstName);
+        formFiller.fill(Map.of(firstNameEle, firstName));
         logger.info("✅ Entered First Name: {}", firstName);
     }
 
     public void setLastName(String lastName) {
-        WebElement ele = wait.until(ExpectedConditions.visibilityOf(lastNameEle));
-        ele.clear();
-        ele.sendKeys(lastName);
+        formFiller.fill(Map.of(lastNameEle, lastName));
         logger.info("✅ Entered Last Name: {}", lastName);
     }
 
     public void setPhoneNumber(String phone) {
-        WebElement ele = wait.until(ExpectedConditions.visibilityOf(phoneNumberEle));
-        ele.clear();
-        ele.sendKeys(phone);
+        formFiller.fill(Map.of(phoneNumberEle, phone));
         logger.info("✅ Entered Phone Number: {}", phone);
     }
 
     public void setEmail(String email) {
-        WebElement ele = wait.until(ExpectedConditions.visibilityOf(emailEle));
-        ele.clear();
-        ele.sendKeys(email);
+        formFiller.fill(Map.of(emailEle, email));
         logger.info("✅ Entered Email: {}", email);
     }
 
+    /** Fills all four contact fields in one go. */
+    public void fillContactDetails(String firstName, String lastName, String phone, String email) {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(firstNameEle, firstName);
+        fields.put(lastNameEle, lastName);
+        fields.put(phoneNumberEle, phone);
+        fields.put(emailEle, email);
+        formFiller.fill(fields);
+        logger.info("✅ Entered contact details: {} {}, {}, {}", firstName, lastName, phone, email);
+    }
+
     public void clickCheckBox() {
         try {
             WebElement ele = wait.until(ExpectedConditions.elementToBeClickable(checkBoxEle));
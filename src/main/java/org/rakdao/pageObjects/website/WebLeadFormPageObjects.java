@@ -7,6 +7,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.rakdao.utils.CounterUtil;
+import org.rakdao.utils.ElementDescription;
 import org.rakdao.utils.PhoneUtil;
 import org.rakdao.utils.ReusableUtil;
 import org.rakdao.utils.WriteToExcel;
@@ -14,7 +15,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
 
 public class WebLeadFormPageObjects extends ReusableUtil {
     private String email;
@@ -23,19 +27,14 @@ public class WebLeadFormPageObjects extends ReusableUtil {
     private static final Logger logger = LoggerFactory.getLogger(WebLeadFormPageObjects.class);
     private WebDriver driver;
     private WebDriverWait wait;
+    private LongConsumer submitLatencyListener = nanos -> { };
 
     // ====== Locators ======
-    @FindBy(id = "firstName")
-    private WebElement firstNameInput;
-
-    @FindBy(id = "lastName")
-    private WebElement lastNameInput;
-
-    @FindBy(id = "email")
-    private WebElement emailInput;
-
-    @FindBy(css = "#phone")
-    private WebElement mobileInput;
+    // Text inputs are plain locators: filled through FormFiller in one script call
+    private final By firstNameInput = By.id("firstName");
+    private final By lastNameInput = By.id("lastName");
+    private final By emailInput = By.id("email");
+    private final By mobileInput = By.cssSelector("#phone");
 
     @FindBy(id = "enquiryType")
     private WebElement enquiryDropdown;
@@ -60,31 +59,43 @@ public class WebLeadFormPageObjects extends ReusableUtil {
         PageFactory.initElements(driver, this);
     }
 
+    /** Receives the time from each submit click to its confirmation (used by the load runner). */
+    public void setSubmitLatencyListener(LongConsumer listener) {
+        this.submitLatencyListener = listener;
+    }
+
     // ====== Actions ======
     public void setFirstName(String firstName) {
-        waitForVisibility(firstNameInput).clear();
-        firstNameInput.sendKeys(firstName);
+        fillForm(Map.of(firstNameInput, firstName));
         logger.info("✅ Entered First Name: {}", firstName);
     }
 
     public void setLastName(String lastName) {
-        waitForVisibility(lastNameInput).clear();
-        lastNameInput.sendKeys(lastName);
+        fillForm(Map.of(lastNameInput, lastName));
         logger.info("✅ Entered Last Name: {}", lastName);
     }
 
     public void setEmail(String email) {
-        waitForVisibility(emailInput).clear();
-        emailInput.sendKeys(email);
+        fillForm(Map.of(emailInput, email));
         logger.info("✅ Entered Email: {}", email);
     }
 
     public void setMobile(String mobile) {
-        waitForVisibility(mobileInput).clear();
-        mobileInput.sendKeys(mobile);
+        fillForm(Map.of(mobileInput, mobile));
         logger.info("✅ Entered Mobile: {}", mobile);
     }
 
+    /** Fills first name, last name, email and mobile in one go. */
+    public void fillContactDetails(String firstName, String lastName, String email, String mobile) {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(firstNameInput, firstName);
+        fields.put(lastNameInput, lastName);
+        fields.put(emailInput, email);
+        fields.put(mobileInput, mobile);
+        fillForm(fields);
+        logger.info("✅ Entered contact details: {} {}, {}, {}", firstName, lastName, email, mobile);
+    }
+
     public void selectEnquiryType(String enquiryType) {
         Select select = new Select(waitForVisibility(enquiryDropdown));
         select.selectByVisibleText(enquiryType);
@@ -129,25 +140,24 @@ public class WebLeadFormPageObjects extends ReusableUtil {
 
             int count = CounterUtil.getNextCount();
             email = "a.aldar+" + count + "@innovationcity.com";
-            phone = PhoneUtil.generateRandomPhone("58");
+            phone = PhoneUtil.uniquePhone("58", count);
 
             try {
-                setFirstName(firstName);
-                setLastName(lastName);
-                setEmail(email);
-                setMobile(phone);
+                fillContactDetails(firstName, lastName, email, phone);
 
                 select.selectByVisibleText(enquiryType);
+                long submittedAt = System.nanoTime();
                 submitForm();
 
                 waitForVisibility(successMsg);
+                submitLatencyListener.accept(System.nanoTime() - submittedAt);
                 WriteToExcel.writeRunData(
                         driver.getCurrentUrl(), enquiryType,
                         firstName, lastName, email, phone, true
                 );
                 logger.info("✅ Lead submitted successfully for Enquiry Type: {}", enquiryType);
 
-                Thread.sleep(1000);
+                waitForPageIdle();
                 scrollAndClick(backToHomeLink);
 
                 // Re-init page factory after reload
@@ -181,7 +191,7 @@ public class WebLeadFormPageObjects extends ReusableUtil {
             ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", element);
             waitForClickability(element).click();
         } catch (Exception e) {
-            logger.warn("⚠️ Normal click failed, using JS fallback for {}", element);
+            logger.warn("⚠️ Normal click failed, using JS fallback for {}", ElementDescription.of(element));
             ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
         }
     }
@@ -190,13 +200,11 @@ public class WebLeadFormPageObjects extends ReusableUtil {
         LandingPageObject landingPage = new LandingPageObject(driver);
         int count = CounterUtil.getNextCount();
         email = "a.aldar+" + count + "@innovationcity.com";
-        phone = PhoneUtil.generateRandomPhone("58");
+        phone = PhoneUtil.uniquePhone("58", count);
 
-        landingPage.setFirstName(firstName);
-        landingPage.setLastName(lastName);
-        landingPage.setPhoneNumber(phone);
-        landingPage.setEmail(email);
+        landingPage.fillContactDetails(firstName, lastName, phone, email);
         landingPage.clickCheckBox();
+        long submittedAt = System.nanoTime();
         landingPage.clickSubmit();
 
         logger.info("✅ Lead submitted successfully via LaunchWith Landing Page");
@@ -205,6 +213,7 @@ public class WebLeadFormPageObjects extends ReusableUtil {
         );
 
         waitForVisibility(backToHomeLink);
+        submitLatencyListener.accept(System.nanoTime() - submittedAt);
         backToHomeLink.click();
         waitForVisibility(getStartedButtonEle);
         getStartedButtonEle.click();
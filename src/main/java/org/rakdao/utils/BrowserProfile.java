@@ -0,0 +1,62 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.util.Locale;
+
+/**
+ * Named launch settings for DriverFactory, selected with browser.profile (or -Dbrowser.profile=...).
+ * <ul>
+ *   <li>default: headed, maximized, normal page load, chrome.userDataDir profile</li>
+ *   <li>headless: headless-new, fresh temp profile per session, GPU and extensions off</li>
+ *   <li>fast: headless plus eager page load and CDP blocking of browser.blockedUrls
+ *       (images, fonts, third-party trackers)</li>
+ * </ul>
+ */
+public final class BrowserProfile {
+
+    public static final BrowserProfile DEFAULT = new BrowserProfile("default", false, PageLoadStrategy.NORMAL, false, false);
+    public static final BrowserProfile HEADLESS = new BrowserProfile("headless", true, PageLoadStrategy.NORMAL, false, true);
+    public static final BrowserProfile FAST = new BrowserProfile("fast", true, PageLoadStrategy.EAGER, true, true);
+
+    private final String name;
+    private final boolean headless;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean blockResources;
+    private final boolean lean; // temp profile dir, no GPU, no extensions
+
+    private BrowserProfile(String name, boolean headless, PageLoadStrategy pageLoadStrategy,
+                           boolean blockResources, boolean lean) {
+        this.name = name;
+        this.headless = headless;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.blockResources = blockResources;
+        this.lean = lean;
+    }
+
+    public static BrowserProfile named(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "", "default": return DEFAULT;
+            case "headless": return HEADLESS;
+            case "fast": return FAST;
+            default: throw new IllegalArgumentException("Unknown browser profile: " + name + " (use default, headless or fast)");
+        }
+    }
+
+    /** Same profile forced to run with or without a window (headless= / initDriver(browser, headless)). */
+    public BrowserProfile withHeadless(boolean headless) {
+        if (headless == this.headless) return this;
+        return new BrowserProfile(name + (headless ? "+headless" : "+headed"), headless, pageLoadStrategy, blockResources, lean);
+    }
+
+    public String getName() { return name; }
+    public boolean isHeadless() { return headless; }
+    public PageLoadStrategy getPageLoadStrategy() { return pageLoadStrategy; }
+    public boolean isBlockResources() { return blockResources; }
+    public boolean isLean() { return lean; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
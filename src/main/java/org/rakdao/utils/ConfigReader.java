@@ -2,35 +2,26 @@ package org.rakdao.utils;
 
 import org.slf4j.Logger;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.Properties;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Key lookups on the layered {@link TestConfig} (config.properties, profile file, environment,
+ * -D properties). Values are resolved and parsed once at startup; lookups do not log,
+ * except a single warning per key that is not configured.
+ */
 public class ConfigReader {
 
     private static final Logger log = LoggerUtil.getLogger(ConfigReader.class); // ✅ Logger instance
-    private static final Properties prop = new Properties();
-    private static final String CONFIG_PATH = System.getProperty("user.dir")+"/src/main/resources/config.properties";
-
-    static {
-        try (FileInputStream fis = new FileInputStream(CONFIG_PATH)) {
-            prop.load(fis);
-            log.info("Successfully loaded config properties from '{}'", CONFIG_PATH);
-        } catch (IOException e) {
-            log.error("Error loading config file from '{}'", CONFIG_PATH, e);
-            throw new RuntimeException("Failed to load config.properties file", e);
-        }
-    }
+    private static final Set<String> missingKeys = ConcurrentHashMap.newKeySet();
 
 
-     // Returns the string value for a given key from config.properties.
+     // Returns the string value for a given key, or null when it is not configured.
 
     public static String get(String key) {
-        String value = prop.getProperty(key);
-        if (value == null) {
+        String value = TestConfig.getInstance().get(key);
+        if (value == null && missingKeys.add(key)) {
             log.warn("Property '{}' not found in config file.", key);
-        } else {
-            log.debug("Property '{}' resolved to '{}'", key, value);
         }
         return value;
     }
@@ -39,21 +30,26 @@ public class ConfigReader {
      //Returns an integer value for a given key.
 
     public static int getInt(String key) {
-        String value = get(key);
         try {
-            return Integer.parseInt(value);
+            return TestConfig.getInstance().getInt(key);
         } catch (NumberFormatException e) {
-            log.error("Property '{}' is not a valid integer. Value: '{}'", key, value);
+            log.error("Property '{}' is not a valid integer. Value: '{}'", key, TestConfig.getInstance().get(key));
             throw e;
         }
     }
 
 
+     // Returns an integer value for a given key, or the default when the key is absent.
+
+    public static int getInt(String key, int defaultValue) {
+        return TestConfig.getInstance().contains(key) ? getInt(key) : defaultValue;
+    }
+
+
      // Returns a boolean value for a given key.
 
     public static boolean getBoolean(String key) {
         String value = get(key);
-        return Boolean.parseBoolean(value);
+        return Boolean.parseBoolean(value != null ? value.trim() : null);
     }
 }
-
@@ -1,35 +1,81 @@
 package org.rakdao.utils;
 
-import java.io.*;
+import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Unique, increasing counter shared by every JVM using the same counter file.
+ * IDs are reserved from the file in blocks (counter.blockSize, default 100) under an
+ * OS-level file lock, then handed out in-process from an AtomicLong, so most calls
+ * never touch the disk and forked or parallel runs never get the same number.
+ * Numbers left in a block when the JVM exits are skipped, not reused.
+ */
 public class CounterUtil {
-    private static final String COUNTER_FILE = "counter.txt";
+    private static final Logger log = LoggerUtil.getLogger(CounterUtil.class);
+    private static final Path COUNTER_FILE = Paths.get(System.getProperty("counter.file", "counter.txt"));
     private static final int START_COUNT = 1000;
+    private static final int BLOCK_SIZE = ConfigReader.getInt("counter.blockSize", 100);
 
-    public static synchronized int getNextCount() {
-        int count = START_COUNT;
+    private static volatile Block current = new Block(0, 0);
 
-        File file = new File(COUNTER_FILE);
+    /** The counter file (-Dcounter.file, default counter.txt), fixed when the class loads. */
+    public static Path getCounterFile() {
+        return COUNTER_FILE;
+    }
 
-        try {
-            if (file.exists()) {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                String line = reader.readLine();
-                if (line != null) {
-                    count = Integer.parseInt(line.trim());
+    public static int getNextCount() {
+        while (true) {
+            Block block = current;
+            long next = block.cursor.getAndIncrement();
+            if (next < block.end) {
+                return Math.toIntExact(next);
+            }
+            synchronized (CounterUtil.class) {
+                if (current == block) {
+                    current = reserveBlock(BLOCK_SIZE);
                 }
-                reader.close();
             }
+        }
+    }
 
-            // Write the next count back to file
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            writer.write(String.valueOf(count + 1));
-            writer.close();
+    /** Reads the next free value from the counter file and advances it by {@code size}. */
+    private static Block reserveBlock(int size) {
+        try (FileChannel channel = FileChannel.open(COUNTER_FILE, CREATE, READ, WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.allocate(32);
+            channel.read(buffer, 0);
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+            long start = text.isEmpty() ? START_COUNT : Long.parseLong(text);
+
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(String.valueOf(start + size).getBytes(StandardCharsets.UTF_8)), 0);
+            channel.force(false);
+
+            log.debug("Reserved counter block [{}, {}) from '{}'", start, start + size, COUNTER_FILE);
+            return new Block(start, start + size);
         } catch (IOException | NumberFormatException e) {
-            e.printStackTrace();
+            log.error("Failed to reserve counter block from '{}'", COUNTER_FILE, e);
+            throw new RuntimeException("Failed to reserve counter block from " + COUNTER_FILE, e);
         }
+    }
 
-        return count;
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
     }
 }
-
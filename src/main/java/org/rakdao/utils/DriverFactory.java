@@ -1,67 +1,197 @@
 package org.rakdao.utils;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Stream;
 
 public class DriverFactory {
 
     private static final Logger log = LoggerUtil.getLogger(DriverFactory.class);
     private static ThreadLocal<WebDriver> tlDriver = new ThreadLocal<>();
+    private static final Set<String> resolvedBinaries = ConcurrentHashMap.newKeySet();
+    private static volatile DriverPool pool;
+
+    // Chrome locks its user-data-dir, so each live session gets its own numbered copy
+    private static final Queue<Integer> freeProfileSlots = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger profileSlotCount = new AtomicInteger();
+    private static final Map<WebDriver, Integer> profileSlots = new ConcurrentHashMap<>();
+    // Throwaway profile directories of lean sessions, deleted on quit
+    private static final Map<WebDriver, Path> tempProfiles = new ConcurrentHashMap<>();
 
     /**
-     * Get current thread's driver
+     * Get current thread's driver (wrapped by StepTimingListener when timings.enabled)
      */
     public static WebDriver getDriver() {
         return tlDriver.get();
     }
 
     /**
-     * Initialize driver based on browser type
+     * The underlying browser driver of a decorated session, e.g. for ChromiumDriver-only CDP calls.
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        return driver instanceof WrapsDriver wrapper ? wrapper.getWrappedDriver() : driver;
+    }
+
+    /**
+     * Pre-launch a pool of warm sessions; initDriver then leases from it.
+     * @param browser chrome / edge / firefox
+     * @param size number of sessions to keep warm
+     * @param maxAge sessions older than this are evicted instead of reused
+     */
+    public static synchronized void startPool(String browser, int size, Duration maxAge) {
+        if (pool != null) {
+            log.warn("Driver pool already started, ignoring second start.");
+            return;
+        }
+        DriverPool newPool = new DriverPool(browser.toLowerCase(), size, maxAge);
+        newPool.warmUp();
+        pool = newPool;
+    }
+
+    public static synchronized void stopPool() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Initialize driver based on browser type.
+     * Leases a warm session when a pool for this browser is running.
      * @param browser chrome / edge / firefox
      */
     public static void initDriver(String browser) {
+        DriverPool activePool = pool;
+        WebDriver driver = activePool != null && activePool.getBrowser().equals(browser.toLowerCase())
+                ? activePool.lease()
+                : createDriver(browser);
+        bind(driver);
+        log.info("{} driver initialized and configured.", browser);
+    }
+
+    /**
+     * Initialize a dedicated (never pooled) driver with an explicit headless choice,
+     * e.g. for load generation. The rest of the configured browser.profile still applies.
+     */
+    public static void initDriver(String browser, boolean headless) {
+        initDriver(browser, configuredProfile().withHeadless(headless));
+    }
+
+    /**
+     * Initialize a dedicated (never pooled) driver with the given launch profile.
+     */
+    public static void initDriver(String browser, BrowserProfile profile) {
+        bind(createDriver(browser, profile));
+        log.info("{} driver initialized (profile={}).", browser, profile);
+    }
+
+    /**
+     * Launch and configure a new browser session with the configured browser.profile.
+     * @param browser chrome / edge / firefox
+     */
+    static WebDriver createDriver(String browser) {
+        BrowserProfile profile = configuredProfile();
+        return createDriver(browser, TestConfig.getInstance().isHeadless() ? profile.withHeadless(true) : profile);
+    }
+
+    static WebDriver createDriver(String browser, BrowserProfile profile) {
         WebDriver driver = null;
         switch (browser.toLowerCase()) {
 
             case "chrome":
                 log.info("Setting up ChromeDriver using WebDriverManager...");
-                WebDriverManager.chromedriver().setup();
+                if (resolvedBinaries.add("chrome")) WebDriverManager.chromedriver().setup();
                 ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--disable-notifications");// block notifications
-                chromeOptions.addArguments("user-data-dir=C:\\SeleniumChromeProfile");
+                applyChromiumOptions(chromeOptions, profile);
+                Path chromeTempDir = null;
+                Integer slot = null;
+                String userDataDir = setting("chrome.userDataDir").trim();
+                if (profile.isLean() || !usableProfileDir(userDataDir)) {
+                    chromeTempDir = createTempProfile("chrome");
+                    chromeOptions.addArguments("--user-data-dir=" + chromeTempDir);
+                } else if (!userDataDir.isEmpty()) {
+                    slot = acquireProfileSlot();
+                    chromeOptions.addArguments("user-data-dir=" + (slot == 0 ? userDataDir : userDataDir + "-" + slot));
+                }
 //                chromeOptions.addArguments("user-data-dir=C:\\Users\\Amol Aldar\\AppData\\Local\\Google\\Chrome\\User Data");
-                driver = new ChromeDriver(chromeOptions);
-                log.info("Chrome browser launched successfully.");
+                try {
+                    driver = new ChromeDriver(chromeOptions);
+                } catch (RuntimeException e) {
+                    if (slot != null) freeProfileSlots.offer(slot);
+                    if (chromeTempDir != null) deleteQuietly(chromeTempDir);
+                    throw e;
+                }
+                if (slot != null) profileSlots.put(driver, slot);
+                if (chromeTempDir != null) tempProfiles.put(driver, chromeTempDir);
+                log.info("Chrome browser launched successfully (profile={}).", profile);
                 break;
 
             case "edge":
                 log.info("Setting up EdgeDriver using WebDriverManager...");
-                WebDriverManager.edgedriver().setup();
+                if (resolvedBinaries.add("edge")) WebDriverManager.edgedriver().setup();
                 EdgeOptions edgeOptions = new EdgeOptions();
-                edgeOptions.addArguments("--disable-notifications"); // block notifications
-                driver = new EdgeDriver(edgeOptions);
-                log.info("Edge browser launched successfully.");
+                applyChromiumOptions(edgeOptions, profile);
+                Path edgeTempDir = profile.isLean() ? createTempProfile("edge") : null;
+                if (edgeTempDir != null) edgeOptions.addArguments("--user-data-dir=" + edgeTempDir);
+                try {
+                    driver = new EdgeDriver(edgeOptions);
+                } catch (RuntimeException e) {
+                    if (edgeTempDir != null) deleteQuietly(edgeTempDir);
+                    throw e;
+                }
+                if (edgeTempDir != null) tempProfiles.put(driver, edgeTempDir);
+                log.info("Edge browser launched successfully (profile={}).", profile);
                 break;
 
             case "firefox":
                 log.info("Setting up FirefoxDriver using WebDriverManager...");
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxProfile profile = new FirefoxProfile();
-                profile.setPreference("dom.webnotifications.enabled", false); // block notifications
+                if (resolvedBinaries.add("firefox")) WebDriverManager.firefoxdriver().setup();
+                FirefoxProfile firefoxProfile = new FirefoxProfile(); // always a fresh temp profile
+                firefoxProfile.setPreference("dom.webnotifications.enabled", false); // block notifications
+                if (profile.isBlockResources()) {
+                    // No CDP URL blocking in Firefox: fall back to prefs for images and web fonts
+                    firefoxProfile.setPreference("permissions.default.image", 2);
+                    firefoxProfile.setPreference("browser.display.use_document_fonts", 0);
+                }
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.setProfile(profile);
+                firefoxOptions.setProfile(firefoxProfile);
+                firefoxOptions.setPageLoadStrategy(profile.getPageLoadStrategy());
+                if (profile.isHeadless()) firefoxOptions.addArguments("-headless");
                 driver = new FirefoxDriver(firefoxOptions);
-                log.info("Firefox browser launched successfully.");
+                log.info("Firefox browser launched successfully (profile={}).", profile);
                 break;
 
             default:
@@ -69,22 +199,140 @@ public class DriverFactory {
                 throw new IllegalArgumentException("Unsupported browser: " + browser);
         }
 
-        driver.manage().window().maximize();
+        if (profile.isBlockResources() && driver instanceof ChromiumDriver chromium) {
+            blockUrls(chromium);
+        }
+        if (driver instanceof ChromiumDriver chromium) {
+            LightningReadiness.installOnNewDocument(chromium);
+        }
+        if (profile.isHeadless()) {
+            driver.manage().window().setSize(new Dimension(1920, 1080)); // maximize is a no-op without a window
+        } else {
+            driver.manage().window().maximize();
+        }
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        return driver;
+    }
 
-        tlDriver.set(driver);
-        log.info("{} driver initialized and configured.", browser);
+    /** Makes the session this thread's driver and tags the thread's log lines with its id (MDC "session"). */
+    private static void bind(WebDriver driver) {
+        tlDriver.set(instrument(driver));
+        if (driver instanceof RemoteWebDriver remote && remote.getSessionId() != null) {
+            MDC.put("session", remote.getSessionId().toString());
+        }
+    }
+
+    /** Wraps the session so every WebDriver call is timed per page-object step (see StepTimings). */
+    private static WebDriver instrument(WebDriver driver) {
+        StepTimings timings = StepTimings.getInstance();
+        return timings.isEnabled() ? new EventFiringDecorator<>(new StepTimingListener(timings)).decorate(driver) : driver;
+    }
+
+    private static BrowserProfile configuredProfile() {
+        return BrowserProfile.named(TestConfig.getInstance().getBrowserProfile());
+    }
+
+    private static void applyChromiumOptions(ChromiumOptions<?> options, BrowserProfile profile) {
+        options.addArguments("--disable-notifications"); // block notifications
+        // Keep the browser console so failure artefacts can include it
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.BROWSER, Level.ALL);
+        options.setCapability(options instanceof EdgeOptions ? EdgeOptions.LOGGING_PREFS : ChromeOptions.LOGGING_PREFS, logging);
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        if (profile.isHeadless()) options.addArguments("--headless=new");
+        if (profile.isLean()) options.addArguments("--disable-gpu", "--disable-extensions");
+    }
+
+    /** Blocks browser.blockedUrls (CDP wildcard patterns) for every request of the session. */
+    private static void blockUrls(ChromiumDriver driver) {
+        List<String> patterns = Arrays.stream(setting("browser.blockedUrls").split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .toList();
+        if (patterns.isEmpty()) return;
+        driver.executeCdpCommand("Network.enable", Map.of());
+        driver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+        log.debug("Blocking {} URL pattern(s) for this session.", patterns.size());
+    }
+
+    /** A Windows drive path (the checked-in default) cannot be used on Linux/macOS agents. */
+    private static boolean usableProfileDir(String userDataDir) {
+        boolean windowsPath = userDataDir.matches("^[A-Za-z]:[\\\\/].*");
+        boolean onWindows = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+        if (windowsPath && !onWindows) {
+            log.warn("chrome.userDataDir '{}' is a Windows path, using a temp profile instead.", userDataDir);
+            return false;
+        }
+        return true;
+    }
+
+    private static Path createTempProfile(String browser) {
+        try {
+            return Files.createTempDirectory("selenium-" + browser + "-" + Thread.currentThread().getId() + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create a temp browser profile", e);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Could not delete temp profile '{}': {}", dir, e.getMessage());
+        }
+    }
+
+
+    /** Quit a session and free (or delete) its browser profile directory. */
+    static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } finally {
+            Integer slot = profileSlots.remove(driver);
+            if (slot != null) freeProfileSlots.offer(slot);
+            Path tempProfile = tempProfiles.remove(driver);
+            if (tempProfile != null) deleteQuietly(tempProfile);
+        }
+    }
+
+    private static int acquireProfileSlot() {
+        Integer slot = freeProfileSlots.poll();
+        return slot != null ? slot : profileSlotCount.getAndIncrement();
     }
 
+    /** Layered value (TestConfig: -D and environment win over the files), "" when not set. */
+    private static String setting(String key) {
+        String value = ConfigReader.get(key);
+        return value != null ? value : "";
+    }
 
      //Quit driver and remove from ThreadLocal
 
     public static void quitDriver() {
-        if (tlDriver.get() != null) {
-            log.info("Quitting WebDriver...");
-            tlDriver.get().quit();
+        quitDriver(true);
+    }
+
+    /**
+     * Quit the current thread's driver, or hand it back to the pool when pooled.
+     * @param healthy false after a failed test so a pooled session is evicted instead of reused
+     */
+    public static void quitDriver(boolean healthy) {
+        WebDriver driver = tlDriver.get();
+        if (driver != null) {
+            StepTimingListener.closeSpans();
+            driver = unwrap(driver); // the pool and profile bookkeeping know the raw session
+            DriverPool activePool = pool;
+            if (activePool != null && activePool.owns(driver)) {
+                log.info("Returning WebDriver to pool...");
+                activePool.release(driver, healthy);
+            } else {
+                log.info("Quitting WebDriver...");
+                quit(driver);
+            }
             tlDriver.remove();
-            log.info("WebDriver quit and removed from ThreadLocal.");
+            log.info("WebDriver released and removed from ThreadLocal.");
+            MDC.remove("session");
         } else {
             log.warn("Attempted to quit WebDriver, but it was null.");
         }
@@ -0,0 +1,307 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a set of warm browser sessions so tests lease an already launched driver
+ * instead of paying a full browser start per test.
+ * Sessions are reset between leases and evicted once they are older than the
+ * configured max age or are released after a failed test.
+ */
+public class DriverPool {
+
+    private static final Logger log = LoggerUtil.getLogger(DriverPool.class);
+
+    private final String browser;
+    private final int size;
+    private final Duration maxAge;
+
+    private final BlockingQueue<PooledSession> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final ExecutorService replenisher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "driver-pool-replenisher");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean closed;
+
+    // Launch vs lease statistics
+    private final LongAdder launches = new LongAdder();
+    private final LongAdder launchNanos = new LongAdder();
+    private final LongAdder warmLeases = new LongAdder();
+    private final LongAdder warmLeaseNanos = new LongAdder();
+    private final LongAdder coldLeases = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DriverPool(String browser, int size, Duration maxAge) {
+        this.browser = browser;
+        this.size = size;
+        this.maxAge = maxAge;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean owns(WebDriver driver) {
+        return leased.containsKey(driver);
+    }
+
+    /**
+     * Launches all sessions in parallel and parks them as idle.
+     */
+    public void warmUp() {
+        log.info("[DriverPool] Warming up {} {} session(s)...", size, browser);
+        ExecutorService launcher = Executors.newFixedThreadPool(size);
+        try {
+            List<Future<PooledSession>> futures = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                futures.add(launcher.submit(this::launch));
+            }
+            for (Future<PooledSession> future : futures) {
+                try {
+                    idle.offer(future.get());
+                } catch (ExecutionException e) {
+                    log.error("[DriverPool] Failed to pre-launch a {} session", browser, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            launcher.shutdown();
+        }
+        log.info("[DriverPool] ✅ {} warm session(s) ready.", idle.size());
+    }
+
+    /**
+     * Hands out an idle session, or launches a new one when the pool is empty.
+     */
+    public WebDriver lease() {
+        long start = System.nanoTime();
+        PooledSession session;
+        while ((session = idle.poll()) != null && session.isExpired(maxAge)) {
+            evict(session, "max age reached");
+        }
+
+        if (session != null) {
+            warmLeases.increment();
+            warmLeaseNanos.add(System.nanoTime() - start);
+        } else {
+            log.warn("[DriverPool] No warm session available, launching a new {} session.", browser);
+            session = launch();
+            coldLeases.increment();
+        }
+
+        leased.put(session.driver, session);
+        return session.driver;
+    }
+
+    /**
+     * Returns a leased session to the pool.
+     * @param healthy false when the test failed; the session is then discarded
+     */
+    public void release(WebDriver driver, boolean healthy) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            log.warn("[DriverPool] Released driver was not leased from this pool, quitting it.");
+            quietQuit(driver);
+            return;
+        }
+
+        if (!healthy) {
+            evict(session, "released after failure");
+            return;
+        }
+        if (closed || session.isExpired(maxAge)) {
+            evict(session, closed ? "pool closed" : "max age reached");
+            return;
+        }
+
+        try {
+            reset(session.driver);
+        } catch (WebDriverException e) {
+            log.warn("[DriverPool] Session reset failed: {}", e.getMessage());
+            evict(session, "reset failed");
+            return;
+        }
+
+        if (idle.size() >= size) {
+            evict(session, "pool full");
+        } else {
+            idle.offer(session);
+        }
+    }
+
+    /**
+     * Quits every idle session and logs the launch/lease report.
+     * Sessions still leased are quit when released.
+     */
+    public void shutdown() {
+        closed = true;
+        replenisher.shutdownNow();
+        PooledSession session;
+        while ((session = idle.poll()) != null) {
+            quietQuit(session.driver);
+        }
+        log.info("[DriverPool] {}", report());
+    }
+
+    public String report() {
+        long launched = launches.sum();
+        long warm = warmLeases.sum();
+        return String.format(
+                "%s pool: %d launch(es), avg launch %.0f ms | %d warm lease(s), avg lease %.2f ms | %d cold lease(s) | %d eviction(s)",
+                browser,
+                launched, launched == 0 ? 0.0 : launchNanos.sum() / 1e6 / launched,
+                warm, warm == 0 ? 0.0 : warmLeaseNanos.sum() / 1e6 / warm,
+                coldLeases.sum(),
+                evictions.sum());
+    }
+
+    // ====== Internals ======
+
+    private PooledSession launch() {
+        long start = System.nanoTime();
+        WebDriver driver = DriverFactory.createDriver(browser);
+        long elapsed = System.nanoTime() - start;
+        launches.increment();
+        launchNanos.add(elapsed);
+        log.debug("[DriverPool] Launched {} session in {} ms", browser, elapsed / 1_000_000);
+        return new PooledSession(driver);
+    }
+
+    private void evict(PooledSession session, String reason) {
+        log.info("[DriverPool] Evicting session ({}), age {} s", reason, session.age().toSeconds());
+        evictions.increment();
+        quietQuit(session.driver);
+
+        // Keep the pool warm for the next lease
+        if (!closed) {
+            replenisher.submit(() -> {
+                if (!closed && idle.size() < size) {
+                    try {
+                        idle.offer(launch());
+                    } catch (WebDriverException e) {
+                        log.error("[DriverPool] Failed to replenish session", e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Swaps to a fresh tab (drops every origin's sessionStorage) and clears cookies and storage
+     * so the next lease starts clean. On Chromium, localStorage, IndexedDB, caches and service
+     * workers are cleared through CDP for every origin the session visited (tab histories and
+     * cookie domains); other browsers only get the localStorage of each tab's current origin cleared.
+     */
+    private void reset(WebDriver driver) {
+        ChromiumDriver chromium = driver instanceof ChromiumDriver c ? c : null;
+        Set<String> origins = new LinkedHashSet<>();
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (String handle : handles) {
+            driver.switchTo().window(handle);
+            if (chromium != null) {
+                origins.addAll(visitedOrigins(chromium));
+            }
+            try {
+                ((JavascriptExecutor) driver).executeScript("try { window.localStorage.clear(); } catch (e) {}");
+            } catch (WebDriverException ignored) {
+                // about:blank and some error pages have no storage
+            }
+        }
+
+        // sessionStorage belongs to the tab: a new tab has none for any origin
+        driver.switchTo().newWindow(WindowType.TAB);
+        String fresh = driver.getWindowHandle();
+        for (String handle : handles) {
+            driver.switchTo().window(handle);
+            driver.close();
+        }
+        driver.switchTo().window(fresh);
+
+        if (chromium != null) {
+            List<?> cookies = (List<?>) chromium.executeCdpCommand("Network.getAllCookies", Map.of()).get("cookies");
+            for (Object cookie : cookies == null ? List.of() : cookies) {
+                String domain = String.valueOf(((Map<?, ?>) cookie).get("domain"));
+                origins.add("https://" + (domain.startsWith(".") ? domain.substring(1) : domain));
+            }
+            for (String origin : origins) {
+                try {
+                    chromium.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin,
+                            "storageTypes", "local_storage,indexeddb,websql,cache_storage,service_workers,file_systems"));
+                } catch (WebDriverException e) {
+                    log.debug("[DriverPool] Could not clear storage of {}: {}", origin, e.getMessage());
+                }
+            }
+            // Clears cookies for every domain, not only the current one
+            chromium.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            log.debug("[DriverPool] Cleared storage of {} origin(s)", origins.size());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        driver.get("about:blank");
+    }
+
+    /** http(s) origins in the current tab's navigation history. */
+    private static Set<String> visitedOrigins(ChromiumDriver chromium) {
+        Set<String> origins = new LinkedHashSet<>();
+        try {
+            List<?> entries = (List<?>) chromium.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+            for (Object entry : entries == null ? List.of() : entries) {
+                String url = String.valueOf(((Map<?, ?>) entry).get("url"));
+                try {
+                    URI uri = URI.create(url);
+                    if (("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && uri.getHost() != null) {
+                        origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.debug("[DriverPool] Skipping unparsable history URL {}", url);
+                }
+            }
+        } catch (WebDriverException e) {
+            log.debug("[DriverPool] Could not read the navigation history: {}", e.getMessage());
+        }
+        return origins;
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        try {
+            DriverFactory.quit(driver);
+        } catch (WebDriverException e) {
+            log.warn("[DriverPool] Error while quitting session: {}", e.getMessage());
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private final long createdAt = System.nanoTime();
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        Duration age() {
+            return Duration.ofNanos(System.nanoTime() - createdAt);
+        }
+
+        boolean isExpired(Duration maxAge) {
+            return age().compareTo(maxAge) > 0;
+        }
+    }
+}
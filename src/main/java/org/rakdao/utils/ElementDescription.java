@@ -0,0 +1,68 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * Log argument describing an element without touching the browser. toString() on a
+ * PageFactory proxy first locates the element (a findElement round trip), so
+ * {@code log.info("Clicking {}", element)} costs a driver call on every action. This
+ * reads the proxy's By instead, and only when the message is actually formatted.
+ */
+public final class ElementDescription {
+
+    private static final Field HANDLER_LOCATOR = field(LocatingElementHandler.class, "locator");
+    private static final Field LOCATOR_BY = field(DefaultElementLocator.class, "by");
+
+    private final WebElement element;
+
+    private ElementDescription(WebElement element) {
+        this.element = element;
+    }
+
+    public static ElementDescription of(WebElement element) {
+        return new ElementDescription(element);
+    }
+
+    @Override
+    public String toString() {
+        return describe(element);
+    }
+
+    /** "By.xpath: ..." for PageFactory proxies; located elements describe themselves locally. */
+    public static String describe(WebElement element) {
+        if (element == null) return "null";
+        if (Proxy.isProxyClass(element.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(element);
+            if (handler instanceof LocatingElementHandler && HANDLER_LOCATOR != null) {
+                try {
+                    ElementLocator locator = (ElementLocator) HANDLER_LOCATOR.get(handler);
+                    if (locator instanceof DefaultElementLocator && LOCATOR_BY != null) {
+                        return String.valueOf(LOCATOR_BY.get(locator));
+                    }
+                    return locator.getClass().getSimpleName();
+                } catch (IllegalAccessException e) {
+                    return "PageFactory element";
+                }
+            }
+            return "proxy element";
+        }
+        return element.toString();
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Selenium internals changed: fall back to a generic description
+        }
+    }
+}
@@ -3,7 +3,9 @@ package org.rakdao.utils;
 
 import javax.mail.*;
 import javax.mail.search.FlagTerm;
+import java.time.Duration;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,6 +15,19 @@ public class EmailUtil {
     private static final String USERNAME = "your-test-email@gmail.com";
     private static final String PASSWORD = "your-app-password"; // Use App Password if Gmail/Outlook
 
+    /**
+     * OTP from the next mail sent to {@code recipient} (the test's own a.aldar+&lt;count&gt;@ address),
+     * pushed by the shared {@link MailboxWatcher} for the mail.* account in config.properties.
+     */
+    public static CompletableFuture<String> awaitOtp(String recipient, Duration timeout) {
+        return MailboxWatcher.fromConfig().awaitOtp(recipient, timeout);
+    }
+
+    /**
+     * @deprecated connects per call and takes the latest unread mail whoever it was sent to,
+     * so parallel tests can read each other's OTP; use {@link #awaitOtp(String, Duration)}.
+     */
+    @Deprecated
     public static String getLatestOtp() {
         String otp = null;
         try {
@@ -0,0 +1,187 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.*;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Waits for an element condition inside the page with a single executeAsyncScript call.
+ * The script checks the condition, then re-checks it on every DOM mutation (coalesced
+ * per animation frame, with a slow timer as backstop for hidden tabs) and calls back as
+ * soon as it holds or the timeout expires. No per-poll WebDriver round trips.
+ *
+ * <p>Latency of every wait is recorded per condition; see {@link #logStats()}.
+ */
+public class EventWaiter {
+
+    private static final Logger log = LoggerUtil.getLogger(EventWaiter.class);
+
+    public enum Condition { VISIBLE, CLICKABLE, INVISIBLE, TEXT }
+
+    /** Script outcome: the condition held, timed out, or the element could not be checked. */
+    enum Outcome { MET, TIMEOUT, STALE }
+
+    private static final String WAIT_SCRIPT =
+            "var condition = arguments[0], target = arguments[1], locator = arguments[2],\n" +
+            "    text = arguments[3], timeoutMs = arguments[4], done = arguments[arguments.length - 1];\n" +
+            "function resolve() {\n" +
+            "  if (!locator) return target;\n" +
+            "  switch (locator[0]) {\n" +
+            "    case 'id': return document.getElementById(locator[1]);\n" +
+            "    case 'name': return document.getElementsByName(locator[1])[0] || null;\n" +
+            "    case 'css': return document.querySelector(locator[1]);\n" +
+            "    case 'classname': return document.getElementsByClassName(locator[1])[0] || null;\n" +
+            "    case 'xpath': return document.evaluate(locator[1], document, null,\n" +
+            "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n" +
+            "function visible(el) {\n" +
+            "  if (!el || !el.isConnected) return false;\n" +
+            "  for (var n = el; n && n.nodeType === 1; n = n.parentElement || (n.getRootNode() && n.getRootNode().host)) {\n" +
+            "    var s = getComputedStyle(n);\n" +
+            "    if (s.display === 'none' || s.opacity === '0') return false;\n" +
+            "  }\n" +
+            "  var style = getComputedStyle(el);\n" +
+            "  if (style.visibility === 'hidden' || style.visibility === 'collapse') return false;\n" +
+            "  var r = el.getBoundingClientRect();\n" +
+            "  return r.width > 0 && r.height > 0;\n" +
+            "}\n" +
+            "function check() {\n" +
+            "  var el = resolve();\n" +
+            "  if (!locator && el && !el.isConnected && condition !== 'INVISIBLE') return 'STALE';\n" +
+            "  switch (condition) {\n" +
+            "    case 'VISIBLE': return visible(el) ? 'MET' : null;\n" +
+            "    case 'CLICKABLE': return visible(el) && !el.disabled ? 'MET' : null;\n" +
+            "    case 'INVISIBLE': return visible(el) ? null : 'MET';\n" +
+            "    case 'TEXT': return el && (el.innerText || el.textContent || '').indexOf(text) !== -1 ? 'MET' : null;\n" +
+            "  }\n" +
+            "  return 'STALE';\n" +
+            "}\n" +
+            "var first = check();\n" +
+            "if (first) { done(first); return; }\n" +
+            "var finished = false, scheduled = false, observer, backstop, timer;\n" +
+            "function finish(result) {\n" +
+            "  if (finished) return;\n" +
+            "  finished = true;\n" +
+            "  observer.disconnect(); clearInterval(backstop); clearTimeout(timer);\n" +
+            "  done(result);\n" +
+            "}\n" +
+            "function recheck() {\n" +
+            "  scheduled = false;\n" +
+            "  var result = check();\n" +
+            "  if (result) finish(result);\n" +
+            "}\n" +
+            "observer = new MutationObserver(function () {\n" +
+            "  if (!scheduled) { scheduled = true; requestAnimationFrame(recheck); }\n" +
+            "});\n" +
+            "observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});\n" +
+            "backstop = setInterval(recheck, 250);\n" +
+            "timer = setTimeout(function () { finish('TIMEOUT'); }, timeoutMs);";
+
+    private static final Map<Condition, Stats> STATS = new ConcurrentHashMap<>();
+    private static final boolean ENABLED = !"polling".equalsIgnoreCase(
+            Optional.ofNullable(ConfigReader.get("wait.engine")).orElse("event").trim());
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public EventWaiter(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /** True when wait.engine is not set to "polling". */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Blocks until the element meets the condition.
+     * @return MET or TIMEOUT; STALE if the element (or its lookup) cannot be checked in the
+     *         page and the caller should fall back to WebDriverWait polling
+     */
+    Outcome await(Condition condition, WebElement element, String text) {
+        return run(condition, element, null, text);
+    }
+
+    /** Same as {@link #await(Condition, WebElement, String)} for a locator re-evaluated on every check. */
+    Outcome await(Condition condition, By locator) {
+        List<String> scriptLocator = toScriptLocator(locator);
+        return scriptLocator == null ? Outcome.STALE : run(condition, null, scriptLocator, null);
+    }
+
+    private Outcome run(Condition condition, WebElement element, List<String> locator, String text) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            // Keep the in-page timeout below the driver's script timeout so the script always reports back
+            long scriptTimeoutMs = driver.manage().timeouts().getScriptTimeout().toMillis();
+            long timeoutMs = Math.min(timeout.toMillis(), Math.max(0, scriptTimeoutMs - 500));
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                    WAIT_SCRIPT, condition.name(), element, locator, text, timeoutMs);
+            outcome = Outcome.valueOf(String.valueOf(result));
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            // PageFactory proxy could not resolve the element yet
+            outcome = Outcome.STALE;
+        } catch (JavascriptException | IllegalArgumentException e) {
+            log.debug("Event wait script failed for {}: {}", condition, e.getMessage());
+            outcome = Outcome.STALE;
+        }
+        if (outcome != Outcome.STALE) {
+            record(condition, System.nanoTime() - start, outcome == Outcome.MET);
+        }
+        return outcome;
+    }
+
+    /** Records the latency of a wait done outside the script engine (polling fallback). */
+    static void record(Condition condition, long nanos, boolean met) {
+        Stats s = STATS.computeIfAbsent(condition, c -> new Stats());
+        s.count.increment();
+        s.totalNanos.add(nanos);
+        s.maxNanos.accumulate(nanos);
+        if (!met) s.timeouts.increment();
+    }
+
+    /** Logs count, average and max latency per wait condition. */
+    public static void logStats() {
+        if (STATS.isEmpty()) return;
+        new TreeMap<>(STATS).forEach((condition, s) -> {
+            long count = s.count.sum();
+            log.info("⏱️ Wait {}: {} call(s), avg {} ms, max {} ms, {} timeout(s)",
+                    condition, count, s.totalNanos.sum() / 1_000_000 / Math.max(count, 1),
+                    s.maxNanos.get() / 1_000_000, s.timeouts.sum());
+        });
+    }
+
+    /** Maps the By types the script understands; null for anything else. */
+    static List<String> toScriptLocator(By locator) {
+        String text = locator.toString();
+        int colon = text.indexOf(':');
+        if (colon < 0) return null;
+        String value = text.substring(colon + 1).trim();
+        switch (text.substring(0, colon)) {
+            case "By.id": return List.of("id", value);
+            case "By.name": return List.of("name", value);
+            case "By.cssSelector": return List.of("css", value);
+            case "By.className": return List.of("classname", value);
+            case "By.xpath": return List.of("xpath", value);
+            default: return null;
+        }
+    }
+
+    private static class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,213 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Failure artefacts (screenshot, DOM HTML, browser console log) for a failed test.
+ * The test thread only pulls them from the browser into memory; a single background
+ * writer with a bounded queue (artifacts.queueSize) writes them to test-output/failures:
+ * the PNG as is, HTML and console log gzipped, plus a small JSON manifest per failure.
+ * Identical screenshots (same SHA-256, e.g. the same "site down" page for many tests)
+ * are written once and referenced from later manifests.
+ * When the queue is full further artefacts are dropped rather than blocking tests.
+ */
+public class FailureArtifacts {
+
+    private static final Logger log = LoggerUtil.getLogger(FailureArtifacts.class);
+    private static final FailureArtifacts INSTANCE = new FailureArtifacts(
+            Paths.get(System.getProperty("user.dir"), "test-output", "failures"),
+            ConfigReader.getInt("artifacts.queueSize", 50));
+
+    private final Path dir;
+    private final ThreadPoolExecutor writer;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, String> screenshotsByHash = new ConcurrentHashMap<>();
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder captureNanos = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    FailureArtifacts(Path dir, int queueSize) {
+        this.dir = dir;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread t = new Thread(r, "failure-artifact-writer");
+            t.setDaemon(true);
+            return t;
+        }, (task, executor) -> {
+            dropped.increment();
+            log.warn("⚠️ Failure artefact queue full ({} pending), dropping artefacts", executor.getQueue().size());
+        });
+    }
+
+    public static FailureArtifacts getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Grabs the artefacts from the browser and queues them for writing; returns at once.
+     * @return base name of the files that will be written (without extension)
+     */
+    public String capture(WebDriver driver, String testName) {
+        long start = System.nanoTime();
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        // Thread id keeps parallel invocations of the same test from overwriting each other
+        String baseName = testName + "_" + timestamp + "_" + Thread.currentThread().getId();
+
+        Snapshot snapshot = new Snapshot(baseName, testName, Instant.now());
+        try {
+            snapshot.url = driver.getCurrentUrl();
+        } catch (RuntimeException e) {
+            log.debug("[capture] No URL for {}: {}", testName, e.getMessage());
+        }
+        try {
+            snapshot.screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (RuntimeException e) {
+            log.warn("[capture] Screenshot failed for {}: {}", testName, e.getMessage());
+        }
+        try {
+            snapshot.html = driver.getPageSource();
+        } catch (RuntimeException e) {
+            log.warn("[capture] Page source failed for {}: {}", testName, e.getMessage());
+        }
+        try {
+            StringBuilder console = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ')
+                        .append(entry.getLevel()).append(' ').append(entry.getMessage()).append('\n');
+            }
+            snapshot.console = console.toString();
+        } catch (RuntimeException e) {
+            // Firefox and sessions without loggingPrefs have no browser log
+            log.debug("[capture] Console log unavailable for {}: {}", testName, e.getMessage());
+        }
+
+        long elapsed = System.nanoTime() - start;
+        captured.increment();
+        captureNanos.add(elapsed);
+        writer.execute(() -> write(snapshot));
+        log.info("📸 Failure artefacts for {} captured in {} ms, writing in background as '{}'",
+                testName, elapsed / 1_000_000, dir.resolve(baseName));
+        return baseName;
+    }
+
+    /** Waits for queued artefacts to be written and logs capture/write statistics. */
+    public void drain(Duration timeout) {
+        if (captured.sum() == 0) return;
+        // Not shut down: a later suite in the same JVM may still fail tests
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (writer.getCompletedTaskCount() < writer.getTaskCount() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.getCompletedTaskCount() < writer.getTaskCount()) {
+            log.warn("⚠️ {} failure artefact(s) still queued after {} s", writer.getTaskCount() - writer.getCompletedTaskCount(), timeout.toSeconds());
+        }
+        long count = captured.sum();
+        long writes = written.sum();
+        log.info("📸 Failure artefacts: {} captured (avg {} ms on test thread), {} written (avg {} ms in background), "
+                        + "{} duplicate screenshot(s) skipped, {} dropped",
+                count, String.format("%.1f", captureNanos.sum() / 1e6 / count),
+                writes, writes == 0 ? "0.0" : String.format("%.1f", writeNanos.sum() / 1e6 / writes),
+                duplicates.sum(), dropped.sum());
+    }
+
+    // ====== Background writer ======
+
+    private void write(Snapshot s) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            ObjectNode manifest = mapper.createObjectNode();
+            manifest.put("test", s.testName);
+            manifest.put("capturedAt", s.capturedAt.toString());
+            manifest.put("url", s.url);
+
+            if (s.screenshot != null) {
+                String hash = sha256(s.screenshot);
+                String fileName = s.baseName + ".png";
+                String existing = screenshotsByHash.putIfAbsent(hash, fileName);
+                if (existing == null) {
+                    Files.write(dir.resolve(fileName), s.screenshot);
+                } else {
+                    duplicates.increment();
+                    fileName = existing;
+                }
+                manifest.put("screenshot", fileName);
+                manifest.put("screenshotSha256", hash);
+            }
+            if (s.html != null) {
+                manifest.put("html", gzip(s.baseName + ".html.gz", s.html));
+            }
+            if (s.console != null && !s.console.isEmpty()) {
+                manifest.put("console", gzip(s.baseName + ".console.log.gz", s.console));
+            }
+            mapper.writerWithDefaultPrettyPrinter().writeValue(dir.resolve(s.baseName + ".json").toFile(), manifest);
+            written.increment();
+            writeNanos.add(System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write failure artefacts for {}", s.testName, e);
+        }
+    }
+
+    private String gzip(String fileName, String text) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve(fileName)))) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return fileName;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Snapshot {
+        private final String baseName;
+        private final String testName;
+        private final Instant capturedAt;
+        private String url;
+        private byte[] screenshot;
+        private String html;
+        private String console;
+
+        Snapshot(String baseName, String testName, Instant capturedAt) {
+            this.baseName = baseName;
+            this.testName = testName;
+            this.capturedAt = capturedAt;
+        }
+    }
+}
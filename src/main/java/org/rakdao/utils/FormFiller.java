@@ -0,0 +1,166 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills a whole form in one executeAsyncScript call instead of clear() + sendKeys() per field.
+ * The script waits until every field has a visible match (hidden copies, e.g. templates, are
+ * skipped), sets each value through the native value
+ * setter (so React's value tracking notices) and dispatches input/change/blur (so LWC
+ * and React components commit it), then re-reads all values a frame later.
+ * Fields that are missing or hidden, disabled/read-only or don't keep their value are typed
+ * with sendKeys instead, into the first displayed match.
+ */
+public class FormFiller {
+
+    private static final Logger log = LoggerUtil.getLogger(FormFiller.class);
+
+    private static final String FILL_SCRIPT =
+            "var fields = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];\n" +
+            "function matches(f) {\n" +
+            "  switch (f[0]) {\n" +
+            "    case 'id': var el = document.getElementById(f[1]); return el ? [el] : [];\n" +
+            "    case 'name': return document.getElementsByName(f[1]);\n" +
+            "    case 'css': return document.querySelectorAll(f[1]);\n" +
+            "    case 'classname': return document.getElementsByClassName(f[1]);\n" +
+            "    case 'xpath':\n" +
+            "      var snapshot = document.evaluate(f[1], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), all = [];\n" +
+            "      for (var i = 0; i < snapshot.snapshotLength; i++) all.push(snapshot.snapshotItem(i));\n" +
+            "      return all;\n" +
+            "  }\n" +
+            "  return [];\n" +
+            "}\n" +
+            "// First rendered match: hidden template copies of a field have no client rects\n" +
+            "function resolve(f) {\n" +
+            "  var all = matches(f);\n" +
+            "  for (var i = 0; i < all.length; i++) {\n" +
+            "    if (all[i].getClientRects().length > 0 && getComputedStyle(all[i]).visibility !== 'hidden') return all[i];\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n" +
+            "function valueSetter(el) {\n" +
+            "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype\n" +
+            "      : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype\n" +
+            "      : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;\n" +
+            "  var d = proto && Object.getOwnPropertyDescriptor(proto, 'value');\n" +
+            "  return d && d.set;\n" +
+            "}\n" +
+            "function fill() {\n" +
+            "  var els = fields.map(resolve), status = [];\n" +
+            "  els.forEach(function (el, i) {\n" +
+            "    var setter = el && valueSetter(el);\n" +
+            "    if (!el) { status.push('MISSING'); return; }\n" +
+            "    if (!setter || el.disabled || el.readOnly) { status.push('REJECTED'); return; }\n" +
+            "    el.focus();\n" +
+            "    setter.call(el, fields[i][2]);\n" +
+            "    el.dispatchEvent(new Event('input', {bubbles: true, composed: true}));\n" +
+            "    el.dispatchEvent(new Event('change', {bubbles: true, composed: true}));\n" +
+            "    el.blur();\n" +
+            "    status.push(null);\n" +
+            "  });\n" +
+            "  // Verify after the frameworks had a frame to re-render (a controlled input may reset itself)\n" +
+            "  var verified = false;\n" +
+            "  function verify() {\n" +
+            "    if (verified) return;\n" +
+            "    verified = true;\n" +
+            "    done(status.map(function (s, i) {\n" +
+            "      if (s) return s;\n" +
+            "      var el = resolve(fields[i]);\n" +
+            "      return el && el.value === fields[i][2] ? 'OK' : 'MISMATCH';\n" +
+            "    }));\n" +
+            "  }\n" +
+            "  requestAnimationFrame(function () { setTimeout(verify, 0); });\n" +
+            "  setTimeout(verify, 100); // no animation frames in background tabs\n" +
+            "}\n" +
+            "var deadline = Date.now() + timeoutMs;\n" +
+            "(function waitForFields() {\n" +
+            "  if (fields.every(function (f) { return resolve(f); }) || Date.now() >= deadline) fill();\n" +
+            "  else setTimeout(waitForFields, 50);\n" +
+            "})();\n";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public FormFiller(WebDriver driver) {
+        this(driver, Duration.ofSeconds(15));
+    }
+
+    public FormFiller(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets every field (text inputs, textareas, selects by option value) in iteration
+     * order, so pass a LinkedHashMap when order matters.
+     * @throws RuntimeException when a field can't be filled even with sendKeys
+     */
+    public void fill(Map<By, String> fields) {
+        long start = System.nanoTime();
+        List<By> locators = new ArrayList<>(fields.keySet());
+        List<List<String>> scriptFields = new ArrayList<>();
+        for (By locator : locators) {
+            List<String> scriptLocator = EventWaiter.toScriptLocator(locator);
+            if (scriptLocator == null) {
+                // Locator type the script can't resolve: the whole form goes through sendKeys
+                scriptFields = null;
+                break;
+            }
+            List<String> field = new ArrayList<>(scriptLocator);
+            field.add(fields.get(locator));
+            scriptFields.add(field);
+        }
+
+        List<?> status = scriptFields == null ? null : runScript(scriptFields);
+        int fallbacks = 0;
+        for (int i = 0; i < locators.size(); i++) {
+            Object fieldStatus = status == null ? "UNSUPPORTED" : status.get(i);
+            if ("OK".equals(fieldStatus)) continue;
+            By locator = locators.get(i);
+            log.debug("[fill] Scripted fill of {} gave {}, typing instead", locator, fieldStatus);
+            typeInto(locator, fields.get(locator));
+            fallbacks++;
+        }
+        log.info("[fill] ✅ Filled {} field(s) in {} ms ({} via sendKeys fallback)",
+                locators.size(), (System.nanoTime() - start) / 1_000_000, fallbacks);
+    }
+
+    // ====== Internals ======
+
+    private List<?> runScript(List<List<String>> scriptFields) {
+        try {
+            // Keep the in-page wait below the driver's script timeout so the script always reports back
+            long scriptTimeoutMs = driver.manage().timeouts().getScriptTimeout().toMillis();
+            long timeoutMs = Math.min(timeout.toMillis(), Math.max(0, scriptTimeoutMs - 1000));
+            return (List<?>) ((JavascriptExecutor) driver).executeAsyncScript(FILL_SCRIPT, scriptFields, timeoutMs);
+        } catch (WebDriverException e) {
+            log.warn("[fill] Scripted fill failed, typing every field: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void typeInto(By locator, String value) {
+        try {
+            // First displayed match, not the first match: that may be a hidden template copy
+            WebElement element = new WebDriverWait(driver, timeout)
+                    .ignoring(StaleElementReferenceException.class)
+                    .until(d -> d.findElements(locator).stream().filter(WebElement::isDisplayed).findFirst().orElse(null));
+            element.clear();
+            element.sendKeys(value);
+            String actual = element.getDomProperty("value");
+            if (!value.equals(actual)) {
+                // Masked inputs (phone numbers) may legitimately reformat what was typed
+                log.warn("[fill] {} holds '{}' after typing '{}'", locator, actual, value);
+            }
+        } catch (WebDriverException e) {
+            throw new RuntimeException("Could not fill " + locator + " with '" + value + "'", e);
+        }
+    }
+}
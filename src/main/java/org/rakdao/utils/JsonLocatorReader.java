@@ -1,62 +1,92 @@
 package org.rakdao.utils;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.ScriptTimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
  * Utility to read locators from JSON file.
  * Supports primary + fallback locators.
+ * Locators are served from the shared {@link LocatorRegistry}, which parses every
+ * locator file once, so this class holds no mutable state of its own.
  */
 public class JsonLocatorReader {
 
-    private static JsonNode rootNode;
+    private static final Logger log = LoggerUtil.getLogger(JsonLocatorReader.class);
 
-    /** Load JSON file once before accessing elements */
+    /**
+     * Registers an additional locator file with the registry.
+     * Files under pageObjects/locators are already loaded, so this is only
+     * needed for locator files kept elsewhere.
+     */
     public static void load(String filePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        rootNode = mapper.readTree(new File(filePath));
+        LocatorRegistry.getInstance().loadFile(Paths.get(filePath));
     }
 
-    /** Retrieve WebElement directly using page + element name */
+    /**
+     * Retrieve WebElement directly using page + element name.
+     * With locator.resolution=script (default) all candidates are tried in one
+     * browser round trip; "sequential" tries them one findElement at a time.
+     */
     public static WebElement getElement(WebDriver driver, String pageName, String elementName) {
-        if (rootNode == null) throw new RuntimeException("JSON locators not loaded. Call load() first.");
-
-        JsonNode pageNode = rootNode.get(pageName);
-        if (pageNode == null || pageNode.get(elementName) == null)
-            throw new RuntimeException("Element not found in JSON: " + pageName + " -> " + elementName);
-
-        JsonNode elementNode = pageNode.get(elementName);
-
-        // Try primary locator first
-        try {
-            By by = getByFromJson(elementNode.get("locatorType").asText(), elementNode.get("locatorValue").asText());
-            return driver.findElement(by);
-        } catch (Exception e) {
-            // Try fallbacks if available
-            JsonNode fallbacks = elementNode.get("fallback");
-            if (fallbacks != null && fallbacks.isArray()) {
-                Iterator<JsonNode> iter = fallbacks.elements();
-                while (iter.hasNext()) {
-                    JsonNode fallback = iter.next();
-                    try {
-                        By by = getByFromJson(fallback.get("locatorType").asText(), fallback.get("locatorValue").asText());
-                        return driver.findElement(by);
-                    } catch (Exception ignored) {}
+        return resolve(driver, pageName, elementName).getElement();
+    }
+
+    /**
+     * Resolve an element and report which candidate locator matched.
+     * Candidates are tried in the order suggested by {@link LocatorStats}, and the
+     * outcome is recorded back so the ordering keeps adapting.
+     */
+    public static LocatorMatch resolve(WebDriver driver, String pageName, String elementName) {
+        LocatorStats stats = LocatorStats.getInstance();
+        List<LocatorCandidate> candidates = stats.order(pageName, elementName,
+                LocatorRegistry.getInstance().getCandidates(pageName, elementName));
+
+        if (!"sequential".equalsIgnoreCase(ConfigReader.get("locator.resolution"))) {
+            try {
+                long start = System.nanoTime();
+                LocatorMatch match = ScriptLocatorResolver.resolve(driver, candidates,
+                        TestConfig.getInstance().getLocatorTimeout());
+                long elapsed = System.nanoTime() - start;
+
+                int tried = match != null ? match.getCandidateIndex() : candidates.size();
+                for (LocatorCandidate missed : candidates.subList(0, tried)) {
+                    stats.recordMiss(pageName, elementName, missed);
+                }
+                if (match != null) {
+                    stats.recordHit(pageName, elementName, match.getCandidate(), elapsed);
+                    return match;
                 }
+                throw new RuntimeException("Unable to locate element: " + elementName);
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                log.warn("Script resolution failed for '{} -> {}', falling back to sequential lookup: {}",
+                        pageName, elementName, e.getMessage());
             }
-            throw new RuntimeException("Unable to locate element: " + elementName);
         }
+
+        for (int i = 0; i < candidates.size(); i++) {
+            LocatorCandidate candidate = candidates.get(i);
+            long start = System.nanoTime();
+            try {
+                WebElement element = driver.findElement(candidate.getBy());
+                stats.recordHit(pageName, elementName, candidate, System.nanoTime() - start);
+                return new LocatorMatch(element, candidate, i);
+            } catch (Exception ignored) {
+                stats.recordMiss(pageName, elementName, candidate);
+            }
+        }
+        throw new RuntimeException("Unable to locate element: " + elementName);
     }
 
     /** ✅ Converts locator type/value into By object */
-    private static By getByFromJson(String type, String value) {
+    static By getByFromJson(String type, String value) {
         switch (type.toLowerCase()) {
             case "id": return By.id(value);
             case "name": return By.name(value);
@@ -79,27 +109,18 @@ public class JsonLocatorReader {
      * Used by BasePage or page classes for building By lists.
      */
     public static Map<String, Object> getLocatorData(String pageName, String elementName) {
-        if (rootNode == null)
-            throw new RuntimeException("JSON locators not loaded. Call load() first.");
-
-        JsonNode pageNode = rootNode.get(pageName);
-        if (pageNode == null)
-            throw new RuntimeException("Page not found in JSON: " + pageName);
-
-        JsonNode elementNode = pageNode.get(elementName);
-        if (elementNode == null)
-            throw new RuntimeException("Element not found in page: " + elementName);
+        List<LocatorCandidate> candidates = LocatorRegistry.getInstance().getCandidates(pageName, elementName);
 
         Map<String, Object> data = new HashMap<>();
-        data.put("locatorType", elementNode.get("locatorType").asText());
-        data.put("locatorValue", elementNode.get("locatorValue").asText());
+        data.put("locatorType", candidates.get(0).getType());
+        data.put("locatorValue", candidates.get(0).getValue());
 
-        if (elementNode.has("fallback")) {
+        if (candidates.size() > 1) {
             List<Map<String, String>> fallbackList = new ArrayList<>();
-            for (JsonNode fb : elementNode.get("fallback")) {
+            for (LocatorCandidate fb : candidates.subList(1, candidates.size())) {
                 Map<String, String> fbMap = new HashMap<>();
-                fbMap.put("locatorType", fb.get("locatorType").asText());
-                fbMap.put("locatorValue", fb.get("locatorValue").asText());
+                fbMap.put("locatorType", fb.getType());
+                fbMap.put("locatorValue", fb.getValue());
                 fallbackList.add(fbMap);
             }
             data.put("fallback", fallbackList);
@@ -0,0 +1,104 @@
+package org.rakdao.utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds with HdrHistogram-style log-linear buckets:
+ * exact below 128 µs, then 64 sub-buckets per power of two (under 1.6% error) up to ~2^40 µs.
+ * Fixed bucket layout, so histograms from different runs can be merged count by count.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 128;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + 40 * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000);
+    }
+
+    /** Adds all counts of another histogram (e.g. the history of previous runs). */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        count.add(other.getCount());
+        sum.add(other.getSumMicros());
+        max.accumulate(other.getMaxMicros());
+    }
+
+    public long getCount() { return count.sum(); }
+    public long getSumMicros() { return sum.sum(); }
+    public long getMaxMicros() { return max.get(); }
+
+    /** Nearest-rank percentile, reported as the highest value of its bucket (capped at max). */
+    public long percentileMicros(double percentile) {
+        long total = getCount();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), getMaxMicros());
+        }
+        return getMaxMicros();
+    }
+
+    // ====== Persistence (bucket index -> count) ======
+
+    public Map<Integer, Long> getBuckets() {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) buckets.put(i, c);
+        }
+        return buckets;
+    }
+
+    public static LatencyHistogram of(Map<Integer, Long> buckets, long sumMicros, long maxMicros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        buckets.forEach((index, c) -> {
+            if (index >= 0 && index < BUCKETS) {
+                histogram.counts.addAndGet(index, c);
+                histogram.count.add(c);
+            }
+        });
+        histogram.sum.add(sumMicros);
+        histogram.max.accumulate(maxMicros);
+        return histogram;
+    }
+
+    // ====== Bucket layout ======
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 64 - Long.numberOfLeadingZeros(value) - 7;
+        int index = SUB_BUCKETS + (shift - 1) * HALF + (int) (value >> shift) - HALF;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,131 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects an option of a Lightning combobox (lightning-base-combobox: picklist buttons
+ * and filterable inputs) in one executeAsyncScript call. The script opens the dropdown,
+ * types the filter into filterable inputs, waits for the options to render, finds the
+ * option by normalized label (case, whitespace and accents ignored) inside the page,
+ * scrolls it into view and clicks it. No per-option getText() round trips, which
+ * matters for lists with hundreds of entries such as Nationality.
+ */
+public class LightningCombobox {
+
+    private static final Logger log = LoggerUtil.getLogger(LightningCombobox.class);
+
+    private static final String SELECT_SCRIPT =
+            "var trigger = arguments[0], wanted = arguments[1], filter = arguments[2], timeoutMs = arguments[3],\n" +
+            "    done = arguments[arguments.length - 1], start = Date.now();\n" +
+            "function norm(s) {\n" +
+            "  return (s || '').normalize('NFKD').replace(/[\\u0300-\\u036f]/g, '').replace(/\\s+/g, ' ').trim().toLowerCase();\n" +
+            "}\n" +
+            "var target = norm(wanted);\n" +
+            "function label(item) {\n" +
+            "  var titled = item.querySelector('[title]');\n" +
+            "  return titled ? titled.getAttribute('title') : (item.innerText || item.textContent);\n" +
+            "}\n" +
+            "function listbox() {\n" +
+            "  var id = trigger.getAttribute('aria-controls'), root = trigger.getRootNode(), box = null;\n" +
+            "  if (id) box = (root.getElementById ? root.getElementById(id) : null) || document.getElementById(id);\n" +
+            "  if (box) return box;\n" +
+            "  var container = trigger.closest('lightning-base-combobox, .slds-combobox, .slds-dropdown-trigger');\n" +
+            "  return container && container.querySelector('[role=listbox]');\n" +
+            "}\n" +
+            "function options(box) {\n" +
+            "  var items = box.querySelectorAll('[role=option]');\n" +
+            "  return items.length ? items : box.querySelectorAll('lightning-base-combobox-item');\n" +
+            "}\n" +
+            "function current() {\n" +
+            "  return norm(trigger.tagName === 'INPUT' ? trigger.value : trigger.innerText);\n" +
+            "}\n" +
+            "if (trigger.disabled) { done({status: 'DISABLED'}); return; }\n" +
+            "if (current() === target && trigger.getAttribute('aria-expanded') !== 'true') { done({status: 'ALREADY', ms: 0}); return; }\n" +
+            "trigger.scrollIntoView({block: 'center'});\n" +
+            "if (trigger.getAttribute('aria-expanded') !== 'true') trigger.click();\n" +
+            "if (filter && trigger.tagName === 'INPUT') {\n" +
+            "  // Filterable combobox / lookup: type the filter so only matching options get rendered\n" +
+            "  trigger.focus();\n" +
+            "  Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set.call(trigger, filter);\n" +
+            "  trigger.dispatchEvent(new Event('input', {bubbles: true, composed: true}));\n" +
+            "}\n" +
+            "var deadline = start + timeoutMs, lastCount = -1, stableSince = start;\n" +
+            "(function find() {\n" +
+            "  var box = listbox(), items = box ? options(box) : [], near = [];\n" +
+            "  if (items.length !== lastCount) { lastCount = items.length; stableSince = Date.now(); }\n" +
+            "  for (var i = 0; i < items.length; i++) {\n" +
+            "    var text = norm(label(items[i]));\n" +
+            "    if (text === target || norm(items[i].getAttribute('data-value')) === target) {\n" +
+            "      items[i].scrollIntoView({block: 'nearest'});\n" +
+            "      (items[i].querySelector('[title]') || items[i]).click();\n" +
+            "      done({status: 'SELECTED', index: i, count: items.length, ms: Date.now() - start});\n" +
+            "      return;\n" +
+            "    }\n" +
+            "    if (near.length < 10 && target && text.indexOf(target.substring(0, 3)) !== -1) near.push(label(items[i]));\n" +
+            "  }\n" +
+            "  // Options rendered but none matches: give up once the list stopped changing for a second\n" +
+            "  var settled = lastCount > 0 && Date.now() - stableSince >= 1000;\n" +
+            "  if (Date.now() < deadline && !settled) { setTimeout(find, 50); return; }\n" +
+            "  done({status: box ? 'NOT_FOUND' : 'NO_LISTBOX', count: lastCount, near: near, ms: Date.now() - start});\n" +
+            "})();\n";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public LightningCombobox(WebDriver driver) {
+        this(driver, Duration.ofSeconds(15));
+    }
+
+    public LightningCombobox(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /** Selects {@code value}; filterable inputs get the value itself typed as filter. */
+    public void select(By trigger, String value) {
+        select(new WebDriverWait(driver, timeout).until(ExpectedConditions.visibilityOfElementLocated(trigger)), value, value);
+    }
+
+    public void select(WebElement trigger, String value) {
+        select(trigger, value, value);
+    }
+
+    /**
+     * @param trigger the combobox button or input
+     * @param filter  text typed into a filterable input before searching (ignored for picklist buttons)
+     * @throws NoSuchElementException when no option matches {@code value}
+     */
+    public void select(WebElement trigger, String value, String filter) {
+        long start = System.nanoTime();
+        Map<?, ?> result;
+        try {
+            long scriptTimeoutMs = driver.manage().timeouts().getScriptTimeout().toMillis();
+            long timeoutMs = Math.min(timeout.toMillis(), Math.max(0, scriptTimeoutMs - 1000));
+            result = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(SELECT_SCRIPT, trigger, value, filter, timeoutMs);
+        } catch (WebDriverException e) {
+            throw new RuntimeException("Combobox selection of '" + value + "' failed", e);
+        }
+
+        String status = String.valueOf(result.get("status"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        switch (status) {
+            case "SELECTED" -> log.info("[combobox] ✅ Selected '{}' (option {} of {}) in {} ms",
+                    value, ((Number) result.get("index")).intValue() + 1, result.get("count"), elapsedMs);
+            case "ALREADY" -> log.info("[combobox] '{}' already selected", value);
+            case "DISABLED" -> throw new RuntimeException("Combobox for '" + value + "' is disabled");
+            case "NO_LISTBOX" -> throw new NoSuchElementException("No option list opened for combobox while selecting '" + value + "'");
+            default -> {
+                List<?> near = (List<?>) result.get("near");
+                throw new NoSuchElementException("Combobox option '" + value + "' not found among "
+                        + result.get("count") + " option(s)" + (near == null || near.isEmpty() ? "" : ", similar: " + near));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Waits until a Salesforce Lightning page is idle: no pending XHR/fetch requests, no
+ * in-flight Aura actions and no visible spinner, held for a short quiet window
+ * (readiness.quietMs) so chained requests are not mistaken for idle.
+ * Replaces fixed Thread.sleep calls between steps with an exact wait, in one
+ * executeAsyncScript call.
+ *
+ * <p>XHR/fetch are counted by hooks that Chromium sessions register at launch to run
+ * before any page script ({@link #installOnNewDocument}), so every request of every document
+ * is seen. Other browsers get the hooks on the first wait after a load; requests already in
+ * flight then are missed, so that wait holds the page busy for one extra quiet window.
+ */
+public class LightningReadiness {
+
+    private static final Logger log = LoggerUtil.getLogger(LightningReadiness.class);
+
+    private static final Duration TIMEOUT = TestConfig.getInstance().getReadinessTimeout();
+    private static final int QUIET_MS = (int) TestConfig.getInstance().getReadinessQuiet().toMillis();
+
+    /**
+     * Counts pending XHR/fetch requests in window.__rakdaoPending. Called with late=true when
+     * installed by the wait itself: requests already in flight are invisible then, so the page
+     * is held busy for settleMs after installation before the quiet window can start.
+     */
+    private static final String HOOK_SCRIPT =
+            "(function (late, settleMs) {\n" +
+            "  if (window.__rakdaoPending) return;\n" +
+            "  var pending = window.__rakdaoPending = {count: 0, settleUntil: late ? Date.now() + settleMs : 0};\n" +
+            "  var send = XMLHttpRequest.prototype.send;\n" +
+            "  XMLHttpRequest.prototype.send = function () {\n" +
+            "    pending.count++;\n" +
+            "    var settled = false;\n" +
+            "    this.addEventListener('loadend', function () { if (!settled) { settled = true; pending.count--; } });\n" +
+            "    try { return send.apply(this, arguments); }\n" +
+            "    catch (e) { if (!settled) { settled = true; pending.count--; } throw e; }\n" +
+            "  };\n" +
+            "  if (window.fetch) {\n" +
+            "    var fetch = window.fetch;\n" +
+            "    window.fetch = function () {\n" +
+            "      pending.count++;\n" +
+            "      return fetch.apply(this, arguments).finally(function () { pending.count--; });\n" +
+            "    };\n" +
+            "  }\n" +
+            "})";
+
+    private static final String IDLE_SCRIPT =
+            "var quietMs = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];\n" +
+            HOOK_SCRIPT + "(true, quietMs);\n" +
+            "function spinnerVisible() {\n" +
+            "  var spinners = document.querySelectorAll('lightning-spinner, .slds-spinner_container, .slds-spinner');\n" +
+            "  for (var i = 0; i < spinners.length; i++) {\n" +
+            "    var r = spinners[i].getBoundingClientRect();\n" +
+            "    if (r.width > 0 && r.height > 0 && getComputedStyle(spinners[i]).visibility !== 'hidden') return true;\n" +
+            "  }\n" +
+            "  return false;\n" +
+            "}\n" +
+            "function auraBusy() {\n" +
+            "  try {\n" +
+            "    var cs = window.$A && $A.clientService;\n" +
+            "    if (cs && typeof cs.inFlightXHRs === 'function') return cs.inFlightXHRs() > 0;\n" +
+            "  } catch (e) { /* Aura internals not accessible */ }\n" +
+            "  return false;\n" +
+            "}\n" +
+            "function busy() {\n" +
+            "  var pending = window.__rakdaoPending;\n" +
+            "  return document.readyState !== 'complete' || pending.count > 0 || Date.now() < pending.settleUntil\n" +
+            "      || auraBusy() || spinnerVisible();\n" +
+            "}\n" +
+            "var start = Date.now(), idleSince = null;\n" +
+            "(function poll() {\n" +
+            "  var now = Date.now();\n" +
+            "  if (busy()) { idleSince = null; } else if (idleSince === null) { idleSince = now; }\n" +
+            "  if (idleSince !== null && now - idleSince >= quietMs) { done(now - start); return; }\n" +
+            "  if (now - start >= timeoutMs) { done(-1); return; }\n" +
+            "  setTimeout(poll, 50);\n" +
+            "})();";
+
+    /** Registers the XHR/fetch hooks to run in every new document of the session, before page scripts. */
+    public static void installOnNewDocument(ChromiumDriver driver) {
+        try {
+            driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", HOOK_SCRIPT + "(false, 0);"));
+        } catch (WebDriverException e) {
+            log.warn("⚠️ [installOnNewDocument] Request hooks not registered, installing on first wait instead: {}", e.getMessage());
+        }
+    }
+
+    /** Waits with the configured timeout (readiness.timeoutSeconds, default 20). */
+    public static boolean awaitIdle(WebDriver driver) {
+        return awaitIdle(driver, TIMEOUT);
+    }
+
+    /**
+     * Blocks until the page is idle or the timeout expires.
+     * @return true if the page went idle; false on timeout (logged, never thrown, so a
+     *         busy background poll cannot fail a flow that a fixed sleep would have passed)
+     */
+    public static boolean awaitIdle(WebDriver driver, Duration timeout) {
+        try {
+            // Stay under the driver's script timeout so the script always reports back
+            long scriptTimeoutMs = driver.manage().timeouts().getScriptTimeout().toMillis();
+            long timeoutMs = Math.min(timeout.toMillis(), Math.max(0, scriptTimeoutMs - 500));
+
+            Number elapsed = (Number) ((JavascriptExecutor) driver)
+                    .executeAsyncScript(IDLE_SCRIPT, QUIET_MS, timeoutMs);
+            if (elapsed == null || elapsed.longValue() < 0) {
+                log.warn("⚠️ Page still busy after {} ms, continuing.", timeoutMs);
+                return false;
+            }
+            log.debug("[awaitIdle] Page idle after {} ms", elapsed.longValue());
+            return true;
+        } catch (WebDriverException e) {
+            log.warn("⚠️ Readiness check failed, continuing: {}", e.getMessage());
+            return false;
+        }
+    }
+}
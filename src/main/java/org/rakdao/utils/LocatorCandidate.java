@@ -0,0 +1,44 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.By;
+
+/**
+ * One locator (primary or fallback) for a page element, as declared in the JSON locator files.
+ * Keeps its declared position, since {@link LocatorStats} may try candidates in another order.
+ * Immutable, so instances can be shared across test threads.
+ */
+public final class LocatorCandidate {
+
+    private final String type;
+    private final String value;
+    private final By by;
+    private final int declaredIndex;
+
+    /** A primary locator. */
+    public LocatorCandidate(String type, String value) {
+        this(type, value, 0);
+    }
+
+    /** @param declaredIndex 0 for the primary locator, n for the n-th fallback */
+    public LocatorCandidate(String type, String value, int declaredIndex) {
+        this.type = type.toLowerCase();
+        this.value = value;
+        this.by = JsonLocatorReader.getByFromJson(type, value);
+        this.declaredIndex = declaredIndex;
+    }
+
+    public String getType() { return type; }
+    public String getValue() { return value; }
+    public By getBy() { return by; }
+    public int getDeclaredIndex() { return declaredIndex; }
+
+    /** "primary" or "fallback #n", as declared in the locator file. */
+    public String describe() {
+        return declaredIndex == 0 ? "primary" : "fallback #" + declaredIndex;
+    }
+
+    @Override
+    public String toString() {
+        return type + "=" + value;
+    }
+}
@@ -0,0 +1,24 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.WebElement;
+
+/**
+ * Result of resolving an element's candidate locators: the element found
+ * and which candidate matched it (index into the order the candidates were tried in).
+ */
+public final class LocatorMatch {
+
+    private final WebElement element;
+    private final LocatorCandidate candidate;
+    private final int candidateIndex;
+
+    public LocatorMatch(WebElement element, LocatorCandidate candidate, int candidateIndex) {
+        this.element = element;
+        this.candidate = candidate;
+        this.candidateIndex = candidateIndex;
+    }
+
+    public WebElement getElement() { return element; }
+    public LocatorCandidate getCandidate() { return candidate; }
+    public int getCandidateIndex() { return candidateIndex; }
+}
@@ -0,0 +1,191 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Parse-once registry of every JSON locator file under pageObjects/locators.
+ * Entries are keyed by page + element and hold immutable candidate lists
+ * (primary first, then fallbacks), so lookups are a map read and the registry
+ * can be shared by parallel test threads.
+ *
+ * Nested groups such as {@code LeadSalesPath -> tabs -> New} are flattened
+ * into dotted element names, e.g. page "LeadSalesPath", element "tabs.New".
+ */
+public final class LocatorRegistry {
+
+    private static final Logger log = LoggerUtil.getLogger(LocatorRegistry.class);
+    private static final String LOCATOR_DIR = "org/rakdao/pageObjects/locators";
+    private static final String SOURCE_DIR = System.getProperty("user.dir")
+            + "/src/main/java/" + LOCATOR_DIR;
+
+    private static final LocatorRegistry INSTANCE = new LocatorRegistry();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> loadedSources = ConcurrentHashMap.newKeySet();
+    private volatile Path bundledDirectory;
+
+    private LocatorRegistry() {
+        loadAll();
+    }
+
+    public static LocatorRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /** All candidates for an element, primary first. */
+    public List<LocatorCandidate> getCandidates(String pageName, String elementName) {
+        return entry(pageName, elementName).candidates;
+    }
+
+    /** Pre-built By list for an element, primary first. */
+    public List<By> getLocators(String pageName, String elementName) {
+        return entry(pageName, elementName).locators;
+    }
+
+    public boolean contains(String pageName, String elementName) {
+        return entries.containsKey(key(pageName, elementName));
+    }
+
+    /**
+     * Registers an extra locator file. Files already loaded are skipped,
+     * so calling this repeatedly costs a set lookup.
+     */
+    public void loadFile(Path file) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        String source = sourceKey(normalized);
+        if (!loadedSources.add(source)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(normalized)) {
+            register(mapper.readTree(in), normalized.toString());
+        } catch (IOException e) {
+            loadedSources.remove(source);
+            throw e;
+        }
+    }
+
+    /**
+     * Identity of a locator file: its absolute path, except that the classpath and source-tree
+     * copies of the bundled locator directory count as one file (keyed by the relative path).
+     */
+    private String sourceKey(Path normalized) {
+        for (Path root : new Path[]{bundledDirectory, Paths.get(SOURCE_DIR).toAbsolutePath().normalize()}) {
+            if (root != null && normalized.getFileSystem() == root.getFileSystem() && normalized.startsWith(root)) {
+                return "bundled:" + root.relativize(normalized).toString().replace('\\', '/');
+            }
+        }
+        return normalized.toUri().toString();
+    }
+
+    // ====== Loading ======
+
+    private void loadAll() {
+        long start = System.nanoTime();
+        try {
+            List<Path> files;
+            bundledDirectory = locatorDirectory().toAbsolutePath().normalize();
+            try (Stream<Path> listing = Files.list(bundledDirectory)) {
+                files = listing.filter(p -> p.toString().endsWith(".json")).sorted().toList();
+            }
+            for (Path file : files) {
+                loadFile(file);
+            }
+        } catch (IOException | URISyntaxException e) {
+            log.error("Failed to load JSON locators from '{}'", LOCATOR_DIR, e);
+            throw new RuntimeException("Failed to load JSON locators", e);
+        }
+        log.info("Loaded {} locator(s) from {} file(s) in {} ms",
+                entries.size(), loadedSources.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Locator directory on the classpath, or the source tree when running without packaged resources. */
+    private static Path locatorDirectory() throws IOException, URISyntaxException {
+        URL url = LocatorRegistry.class.getClassLoader().getResource(LOCATOR_DIR);
+        if (url == null) {
+            log.warn("Locators not found on classpath, falling back to '{}'", SOURCE_DIR);
+            return Paths.get(SOURCE_DIR);
+        }
+
+        URI uri = url.toURI();
+        if ("jar".equals(uri.getScheme())) {
+            FileSystem fs;
+            try {
+                fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+            } catch (FileSystemAlreadyExistsException e) {
+                fs = FileSystems.getFileSystem(uri);
+            }
+            return fs.getPath(LOCATOR_DIR);
+        }
+        return Paths.get(uri);
+    }
+
+    private void register(JsonNode root, String source) {
+        Iterator<Map.Entry<String, JsonNode>> pages = root.fields();
+        while (pages.hasNext()) {
+            Map.Entry<String, JsonNode> page = pages.next();
+            registerNode(page.getKey(), "", page.getValue(), source);
+        }
+    }
+
+    private void registerNode(String pageName, String path, JsonNode node, String source) {
+        if (node.has("locatorType") && node.has("locatorValue")) {
+            List<LocatorCandidate> candidates = new ArrayList<>();
+            candidates.add(new LocatorCandidate(node.get("locatorType").asText(), node.get("locatorValue").asText()));
+            JsonNode fallbacks = node.get("fallback");
+            if (fallbacks != null && fallbacks.isArray()) {
+                for (JsonNode fb : fallbacks) {
+                    candidates.add(new LocatorCandidate(fb.get("locatorType").asText(), fb.get("locatorValue").asText(),
+                            candidates.size()));
+                }
+            }
+            if (entries.put(key(pageName, path), new Entry(candidates)) != null) {
+                log.warn("Locator '{} -> {}' redefined by {}", pageName, path, source);
+            }
+            return;
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> children = node.fields();
+        while (children.hasNext()) {
+            Map.Entry<String, JsonNode> child = children.next();
+            if (child.getValue().isObject()) {
+                String childPath = path.isEmpty() ? child.getKey() : path + "." + child.getKey();
+                registerNode(pageName, childPath, child.getValue(), source);
+            }
+        }
+    }
+
+    private Entry entry(String pageName, String elementName) {
+        Entry entry = entries.get(key(pageName, elementName));
+        if (entry == null)
+            throw new RuntimeException("Element not found in JSON: " + pageName + " -> " + elementName);
+        return entry;
+    }
+
+    private static String key(String pageName, String elementName) {
+        return pageName + "." + elementName;
+    }
+
+    private static final class Entry {
+        private final List<LocatorCandidate> candidates;
+        private final List<By> locators;
+
+        Entry(List<LocatorCandidate> candidates) {
+            this.candidates = List.copyOf(candidates);
+            this.locators = candidates.stream().map(LocatorCandidate::getBy).toList();
+        }
+    }
+}
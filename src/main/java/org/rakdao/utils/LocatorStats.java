@@ -0,0 +1,191 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-locator hit/miss counts and lookup latency, persisted between runs in a small
+ * JSON file (locator.statsFile, default locator-stats.json).
+ * Used to try the historically fastest working candidate first and to report
+ * elements whose primary locator no longer matches anything.
+ */
+public class LocatorStats {
+
+    private static final Logger log = LoggerUtil.getLogger(LocatorStats.class);
+    private static final String REPORT_PATH = System.getProperty("user.dir") + "/target/dead-locators.txt";
+    private static final int REPROBE_EVERY = ConfigReader.getInt("locator.reprobeEvery", 20);
+
+    private static final LocatorStats INSTANCE = new LocatorStats(Paths.get(
+            Optional.ofNullable(ConfigReader.get("locator.statsFile")).orElse("locator-stats.json").trim()));
+
+    private final Path statsFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // "Page.element" -> "type=value" -> stats
+    private final Map<String, Map<String, CandidateStats>> stats = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> resolutions = new ConcurrentHashMap<>();
+
+    LocatorStats(Path statsFile) {
+        this.statsFile = statsFile;
+        load();
+    }
+
+    public static LocatorStats getInstance() {
+        return INSTANCE;
+    }
+
+    public void recordHit(String pageName, String elementName, LocatorCandidate candidate, long nanos) {
+        CandidateStats s = statsFor(pageName, elementName, candidate);
+        if (s.misses.sum() > s.hits.sum()) {
+            // Matching again (e.g. the page was fixed): earlier misses no longer demote it
+            s.misses.reset();
+        }
+        s.hits.increment();
+        s.hitNanos.add(nanos);
+    }
+
+    public void recordMiss(String pageName, String elementName, LocatorCandidate candidate) {
+        statsFor(pageName, elementName, candidate).misses.increment();
+    }
+
+    /**
+     * Candidates in the order they should be tried: reliable ones (hits >= misses) by
+     * average latency, then those without history in declared order, then unreliable ones.
+     * The sort is stable, so with no history the JSON order is kept. Every
+     * locator.reprobeEvery-th resolution of an element whose primary has been moved back
+     * uses the declared order instead, so a demoted primary is tried again and can recover.
+     */
+    public List<LocatorCandidate> order(String pageName, String elementName, List<LocatorCandidate> candidates) {
+        Map<String, CandidateStats> element = stats.get(key(pageName, elementName));
+        if (element == null || candidates.size() < 2) {
+            return candidates;
+        }
+
+        List<LocatorCandidate> ordered = new ArrayList<>(candidates);
+        ordered.sort(Comparator
+                .comparingInt((LocatorCandidate c) -> rank(element.get(c.toString())))
+                .thenComparingDouble(c -> averageMillis(element.get(c.toString()))));
+        if (ordered.get(0) != candidates.get(0) && REPROBE_EVERY > 0
+                && resolutions.computeIfAbsent(key(pageName, elementName), k -> new AtomicInteger())
+                        .incrementAndGet() % REPROBE_EVERY == 0) {
+            return candidates;
+        }
+        return ordered;
+    }
+
+    /** Writes the current counts back to the stats file. */
+    public synchronized void save() {
+        ObjectNode root = mapper.createObjectNode();
+        new TreeMap<>(stats).forEach((element, candidates) -> {
+            ObjectNode elementNode = root.putObject(element);
+            candidates.forEach((candidate, s) -> {
+                ObjectNode node = elementNode.putObject(candidate);
+                node.put("hits", s.hits.sum());
+                node.put("misses", s.misses.sum());
+                node.put("hitNanos", s.hitNanos.sum());
+            });
+        });
+        try {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(statsFile.toFile(), root);
+            log.info("Locator stats saved to '{}'", statsFile);
+        } catch (IOException e) {
+            log.error("Failed to save locator stats to '{}'", statsFile, e);
+        }
+    }
+
+    /**
+     * Lists elements whose primary locator has never matched while a fallback has,
+     * logs them and writes them to target/dead-locators.txt.
+     */
+    public List<String> reportDeadPrimaries() {
+        List<String> dead = new ArrayList<>();
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+
+        new TreeMap<>(stats).forEach((element, candidates) -> {
+            int dot = element.indexOf('.');
+            String page = element.substring(0, dot);
+            String name = element.substring(dot + 1);
+            if (!registry.contains(page, name)) return;
+
+            List<LocatorCandidate> declared = registry.getCandidates(page, name);
+            CandidateStats primary = candidates.get(declared.get(0).toString());
+            boolean fallbackWorks = declared.stream().skip(1)
+                    .map(c -> candidates.get(c.toString()))
+                    .anyMatch(s -> s != null && s.hits.sum() > 0);
+
+            if (primary != null && primary.hits.sum() == 0 && primary.misses.sum() > 0 && fallbackWorks) {
+                dead.add(String.format("%s -> %s: primary '%s' missed %d time(s), never matched",
+                        page, name, declared.get(0), primary.misses.sum()));
+            }
+        });
+
+        if (dead.isEmpty()) {
+            log.info("No dead primary locators detected.");
+        } else {
+            dead.forEach(line -> log.warn("⚠️ Dead primary locator: {}", line));
+        }
+        try {
+            Files.createDirectories(Paths.get(REPORT_PATH).getParent());
+            Files.write(Paths.get(REPORT_PATH), dead);
+        } catch (IOException e) {
+            log.error("Failed to write dead locator report to '{}'", REPORT_PATH, e);
+        }
+        return dead;
+    }
+
+    // ====== Internals ======
+
+    private void load() {
+        File file = statsFile.toFile();
+        if (!file.exists()) return;
+        try {
+            JsonNode root = mapper.readTree(file);
+            root.fields().forEachRemaining(element -> element.getValue().fields().forEachRemaining(candidate -> {
+                CandidateStats s = new CandidateStats();
+                s.hits.add(candidate.getValue().path("hits").asLong());
+                s.misses.add(candidate.getValue().path("misses").asLong());
+                s.hitNanos.add(candidate.getValue().path("hitNanos").asLong());
+                stats.computeIfAbsent(element.getKey(), k -> new ConcurrentHashMap<>()).put(candidate.getKey(), s);
+            }));
+            log.info("Loaded locator stats for {} element(s) from '{}'", stats.size(), statsFile);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable locator stats file '{}': {}", statsFile, e.getMessage());
+        }
+    }
+
+    private CandidateStats statsFor(String pageName, String elementName, LocatorCandidate candidate) {
+        return stats.computeIfAbsent(key(pageName, elementName), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(candidate.toString(), k -> new CandidateStats());
+    }
+
+    private static int rank(CandidateStats s) {
+        if (s == null || s.hits.sum() + s.misses.sum() == 0) return 1;
+        return s.hits.sum() >= s.misses.sum() ? 0 : 2;
+    }
+
+    private static double averageMillis(CandidateStats s) {
+        if (s == null || s.hits.sum() == 0) return Double.MAX_VALUE;
+        return s.hitNanos.sum() / 1e6 / s.hits.sum();
+    }
+
+    private static String key(String pageName, String elementName) {
+        return pageName + "." + elementName;
+    }
+
+    private static class CandidateStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder hitNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,404 @@
+package org.rakdao.utils;
+
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.IMAPStore;
+import org.slf4j.Logger;
+
+import javax.mail.*;
+import javax.mail.event.MessageCountAdapter;
+import javax.mail.event.MessageCountEvent;
+import javax.mail.internet.InternetAddress;
+import javax.mail.search.FlagTerm;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One authenticated IMAP connection per mailbox account, watched by a background thread.
+ * The thread waits in IMAP IDLE (or polls every mail.pollIntervalMs when the server has
+ * no IDLE or mail.idle=false), reads each new unseen message, extracts the 6-digit OTP and
+ * hands it to whoever awaits the message's recipient address. Tests use their own
+ * plus-address (a.aldar+&lt;count&gt;@...), so concurrent tests never take each other's OTP.
+ * An OTP that arrives before anyone awaits it is kept until claimed.
+ * IDLE is re-issued every mail.idleRefreshSeconds (servers drop it after ~30 min), or every
+ * poll interval while someone awaits an OTP in case a notification got lost, and a
+ * dropped connection is re-opened with backoff.
+ */
+public class MailboxWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerUtil.getLogger(MailboxWatcher.class);
+    private static final Pattern OTP_PATTERN = Pattern.compile("\\b\\d{6}\\b");
+    private static final Map<String, MailboxWatcher> WATCHERS = new ConcurrentHashMap<>();
+    private static final long IDLE_REFRESH_MS = ConfigReader.getInt("mail.idleRefreshSeconds", 240) * 1000L;
+
+    private final String accountKey;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String user;
+    private final String password;
+    private final Duration pollInterval;
+    private final boolean useIdle;
+    private final Session session;
+    private final Thread thread;
+
+    private final Object claimLock = new Object();
+    private final Map<String, Queue<CompletableFuture<String>>> waiters = new ConcurrentHashMap<>();
+    private final Map<String, String> unclaimed = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+
+    private volatile boolean running = true;
+    private volatile IMAPStore store;
+    private volatile IMAPFolder inbox;
+    private volatile boolean idling;
+    private volatile boolean pending;  // new mail announced since the last scan
+    private boolean idleSupported;     // watcher thread only
+    private int scanned;               // watcher thread only: messages already looked at
+
+    private MailboxWatcher(String accountKey, String protocol, String host, int port, String user, String password,
+                           Duration pollInterval, boolean useIdle) {
+        this.accountKey = accountKey;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.user = user;
+        this.password = password;
+        this.pollInterval = pollInterval;
+        this.useIdle = useIdle;
+
+        Properties props = new Properties();
+        props.put("mail.store.protocol", protocol);
+        props.put("mail." + protocol + ".connectiontimeout", "15000");
+        // No read timeout: the connection legitimately stays silent while in IDLE
+        this.session = Session.getInstance(props);
+        this.thread = new Thread(this::watch, "mailbox-watcher-" + user);
+        this.thread.setDaemon(true);
+    }
+
+    /** Watcher for the account in config.properties (mail.* keys). */
+    public static MailboxWatcher fromConfig() {
+        return connect(ConfigReader.get("mail.protocol").trim(), ConfigReader.get("mail.host").trim(),
+                ConfigReader.getInt("mail.port"), ConfigReader.get("mail.user").trim(), ConfigReader.get("mail.password"),
+                Duration.ofMillis(ConfigReader.getInt("mail.pollIntervalMs", 2000)),
+                !"false".equalsIgnoreCase(String.valueOf(ConfigReader.get("mail.idle")).trim()));
+    }
+
+    /**
+     * Shared watcher for the account, started on first use.
+     * @param protocol     "imaps" or "imap"
+     * @param pollInterval how often to check for mail when IDLE is not used
+     * @param useIdle      false forces polling even if the server supports IDLE
+     */
+    public static MailboxWatcher connect(String protocol, String host, int port, String user, String password,
+                                         Duration pollInterval, boolean useIdle) {
+        String key = protocol + "://" + user + "@" + host + ":" + port;
+        return WATCHERS.computeIfAbsent(key, k -> {
+            MailboxWatcher watcher = new MailboxWatcher(k, protocol, host, port, user, password, pollInterval, useIdle);
+            watcher.thread.start();
+            return watcher;
+        });
+    }
+
+    /** Stops every watcher (end of suite). */
+    public static void closeAll() {
+        new ArrayList<>(WATCHERS.values()).forEach(MailboxWatcher::close);
+    }
+
+    /**
+     * Completes with the OTP of the next message addressed to {@code recipient}, or at once
+     * when one already arrived unclaimed. Completes exceptionally with a TimeoutException
+     * after {@code timeout}.
+     */
+    public CompletableFuture<String> awaitOtp(String recipient, Duration timeout) {
+        String key = normalize(recipient);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        synchronized (claimLock) {
+            String otp = unclaimed.remove(key);
+            if (otp != null) {
+                log.info("[awaitOtp] ✅ OTP for {} was already in the mailbox", recipient);
+                return CompletableFuture.completedFuture(otp);
+            }
+            waiters.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(future);
+        }
+        endIdle(inbox); // rescan now and re-enter IDLE with the short refresh while this waiter waits
+        CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() ->
+                future.completeExceptionally(new TimeoutException(
+                        "No OTP for " + recipient + " within " + timeout.toMillis() + " ms")));
+        future.whenComplete((otp, error) -> {
+            Queue<CompletableFuture<String>> queue = waiters.get(key);
+            if (queue != null) queue.remove(future);
+        });
+        return future;
+    }
+
+    /**
+     * Waits until the watcher has opened the inbox and scanned the mail already in it.
+     * @return false when that did not happen within {@code timeout}
+     */
+    public boolean awaitConnected(Duration timeout) throws InterruptedException {
+        try {
+            connected.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    /** True when an OTP for {@code recipient} has been read but nobody has awaited it yet. */
+    public boolean hasUnclaimedOtp(String recipient) {
+        return unclaimed.containsKey(normalize(recipient));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        WATCHERS.remove(accountKey, this);
+        // Closing the store from here aborts a pending IDLE on the watcher thread
+        IMAPStore current = store;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (MessagingException e) {
+                log.debug("[close] Closing store for {}: {}", user, e.getMessage());
+            }
+        }
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        waiters.values().forEach(queue -> queue.forEach(f -> f.completeExceptionally(
+                new IllegalStateException("Mailbox watcher for " + user + " closed"))));
+        log.info("📪 Mailbox watcher for {} stopped", user);
+    }
+
+    // ====== Watcher thread ======
+
+    private void watch() {
+        long backoffMs = 500;
+        while (running) {
+            try {
+                if (inbox == null || !inbox.isOpen()) {
+                    open();
+                }
+                pending = false;
+                scanNewMessages();
+                backoffMs = 500;
+                if (idleSupported) {
+                    idle();
+                } else {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (MessagingException | IllegalStateException e) {
+                if (!running) break;
+                log.warn("⚠️ [watch] Mailbox {} connection lost ({}), reconnecting in {} ms", user, e.getMessage(), backoffMs);
+                closeQuietly();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+        closeQuietly();
+    }
+
+    private void open() throws MessagingException {
+        long start = System.nanoTime();
+        IMAPStore newStore = (IMAPStore) session.getStore(protocol);
+        newStore.connect(host, port, user, password);
+        store = newStore;
+        if (!running) {
+            throw new IllegalStateException("closed while connecting");
+        }
+        IMAPFolder folder = (IMAPFolder) newStore.getFolder("INBOX");
+        folder.open(Folder.READ_WRITE);
+        // EXISTS received while IDLE is being started updates the count without ending the IDLE
+        folder.addMessageCountListener(new MessageCountAdapter() {
+            @Override
+            public void messagesAdded(MessageCountEvent e) {
+                pending = true;
+                endIdle(folder);
+            }
+        });
+        inbox = folder;
+        idleSupported = useIdle && newStore.hasCapability("IDLE");
+
+        // Unseen mail already in the box (e.g. sent before the watcher started), then only new arrivals
+        int count = inbox.getMessageCount();
+        Message[] unseen = inbox.search(new FlagTerm(new Flags(Flags.Flag.SEEN), false));
+        process(Arrays.stream(unseen).filter(m -> m.getMessageNumber() <= count).toArray(Message[]::new));
+        scanned = count;
+        connected.complete(null);
+        log.info("📬 [open] Watching {} on {}:{} via {} in {} ms ({} message(s), {} unseen)", user, host, port,
+                idleSupported ? "IDLE" : "polling every " + pollInterval.toMillis() + " ms",
+                (System.nanoTime() - start) / 1_000_000, count, unseen.length);
+    }
+
+    /**
+     * IDLE until the first server notification (new mail, flags, ...) or the refresh interval.
+     * Returns at once when mail arrived since the last scan: idling is set before that check,
+     * so mail announced after it ends the IDLE through the listener instead of being missed.
+     */
+    private void idle() throws MessagingException {
+        IMAPFolder folder = inbox;
+        idling = true;
+        try {
+            // Mail that arrived while processing is not always announced once IDLE starts
+            if (!folder.isOpen() || folder.getMessageCount() != scanned || pending) return;
+            boolean awaited = waiters.values().stream().anyMatch(queue -> !queue.isEmpty());
+            long refreshMs = awaited ? pollInterval.toMillis() : IDLE_REFRESH_MS;
+            CompletableFuture.delayedExecutor(refreshMs, TimeUnit.MILLISECONDS).execute(() -> endIdle(folder));
+            folder.idle(true);
+        } finally {
+            idling = false;
+        }
+    }
+
+    /** Any command from another thread ends a running IDLE; the watcher then rescans. */
+    private void endIdle(IMAPFolder folder) {
+        if (!idling || folder != inbox) return;
+        try {
+            folder.doCommand(protocol -> {
+                protocol.simpleCommand("NOOP", null);
+                return null;
+            });
+        } catch (MessagingException | IllegalStateException e) {
+            log.debug("[endIdle] NOOP for {}: {}", user, e.getMessage());
+        }
+    }
+
+    private void scanNewMessages() throws MessagingException {
+        int count = inbox.getMessageCount(); // NOOP on an open folder, picks up new mail when polling
+        if (count < scanned) {
+            scanned = count; // messages expunged meanwhile
+        }
+        if (count > scanned) {
+            process(inbox.getMessages(scanned + 1, count));
+            scanned = count;
+        }
+    }
+
+    private void process(Message[] messages) throws MessagingException {
+        if (messages.length == 0) return;
+        FetchProfile profile = new FetchProfile();
+        profile.add(FetchProfile.Item.ENVELOPE);
+        profile.add(FetchProfile.Item.FLAGS);
+        profile.add(FetchProfile.Item.CONTENT_INFO);
+        profile.add("Delivered-To");
+        inbox.fetch(messages, profile);
+
+        for (Message message : messages) {
+            if (message.isSet(Flags.Flag.SEEN)) continue;
+            String otp = extractOtp(message);
+            if (!message.isSet(Flags.Flag.SEEN)) {
+                message.setFlag(Flags.Flag.SEEN, true); // reading the body usually sets it already
+            }
+            if (otp == null) {
+                log.debug("[process] No OTP in '{}'", message.getSubject());
+                continue;
+            }
+            for (String recipient : recipients(message)) {
+                deliver(recipient, otp);
+            }
+        }
+    }
+
+    private void deliver(String recipient, String otp) {
+        synchronized (claimLock) {
+            Queue<CompletableFuture<String>> queue = waiters.get(recipient);
+            CompletableFuture<String> waiter;
+            while (queue != null && (waiter = queue.poll()) != null) {
+                if (waiter.complete(otp)) {
+                    log.info("[deliver] ✅ OTP delivered to waiter for {}", recipient);
+                    return;
+                }
+            }
+            unclaimed.put(recipient, otp);
+            log.debug("[deliver] OTP for {} kept until claimed", recipient);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (inbox != null && inbox.isOpen()) inbox.close(false);
+        } catch (MessagingException | IllegalStateException e) {
+            log.debug("[closeQuietly] Closing INBOX: {}", e.getMessage());
+        }
+        try {
+            if (store != null) store.close();
+        } catch (MessagingException e) {
+            log.debug("[closeQuietly] Closing store: {}", e.getMessage());
+        }
+        inbox = null;
+    }
+
+    // ====== Message parsing ======
+
+    private static Set<String> recipients(Message message) throws MessagingException {
+        Set<String> recipients = new HashSet<>();
+        for (Message.RecipientType type : new Message.RecipientType[]{Message.RecipientType.TO, Message.RecipientType.CC, Message.RecipientType.BCC}) {
+            Address[] addresses = message.getRecipients(type); // from the fetched envelope
+            if (addresses == null) continue;
+            for (Address address : addresses) {
+                if (address instanceof InternetAddress) {
+                    recipients.add(normalize(((InternetAddress) address).getAddress()));
+                }
+            }
+        }
+        // Forwarding and Bcc: the plus-address may only be in the delivery header
+        String[] deliveredTo = message.getHeader("Delivered-To");
+        if (deliveredTo != null) {
+            for (String address : deliveredTo) recipients.add(normalize(address));
+        }
+        return recipients;
+    }
+
+    static String extractOtp(Message message) throws MessagingException {
+        try {
+            String otp = find(text(message));
+            return otp != null ? otp : find(message.getSubject());
+        } catch (IOException e) {
+            throw new MessagingException("Could not read message content", e);
+        }
+    }
+
+    private static String text(Part part) throws MessagingException, IOException {
+        Object content = part.getContent();
+        if (content instanceof String) {
+            String text = (String) content;
+            return part.isMimeType("text/html") ? text.replaceAll("<[^>]+>", " ") : text;
+        }
+        if (content instanceof Multipart) {
+            Multipart multipart = (Multipart) content;
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                text.append(text(multipart.getBodyPart(i))).append('\n');
+            }
+            return text.toString();
+        }
+        return "";
+    }
+
+    private static String find(String text) {
+        if (text == null) return null;
+        Matcher matcher = OTP_PATTERN.matcher(text);
+        return matcher.find() ? matcher.group() : null;
+    }
+
+    private static String normalize(String address) {
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+}
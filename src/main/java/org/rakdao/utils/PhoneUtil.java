@@ -1,11 +1,17 @@
 package org.rakdao.utils;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class PhoneUtil {
 
+    private static final long SEED = TestConfig.getInstance().getTestDataSeed();
+
+    /**
+     * Random digits after the prefix: may repeat across tests, which Salesforce duplicate rules
+     * reject. Prefer {@link #uniquePhone(String, long)} with the test's CounterUtil count.
+     */
     public static String generateRandomPhone(String prefix) {
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         StringBuilder phone = new StringBuilder(prefix);
 
         // Generate 7 random digits after prefix
@@ -15,4 +21,35 @@ public class PhoneUtil {
 
         return phone.toString();
     }
+
+    /** Prefix + 7 digits derived from a unique counter value; see {@link #permutedDigits}. */
+    public static String uniquePhone(String prefix, long count) {
+        return prefix + permutedDigits(count, 7, SEED);
+    }
+
+    /**
+     * {@code digits} random-looking digits that are a bijection of {@code count}: the affine map
+     * (a * count + b) mod 10^digits with a coprime to 10, both taken from the seed. Distinct
+     * counts below 10^digits therefore never share a number, and the same seed and count
+     * always give the same number.
+     */
+    public static String permutedDigits(long count, int digits, long seed) {
+        long modulus = 1;
+        for (int i = 0; i < digits; i++) modulus *= 10;
+        long a = Math.floorMod(mix(seed), modulus);
+        if (a % 2 == 0) a++;
+        if (a % 5 == 0) a += 2;
+        long b = Math.floorMod(mix(seed + 1), modulus);
+        // Both factors are below 10^digits, so the product fits in a long for up to 9 digits
+        long value = Math.floorMod(Math.floorMod(count, modulus) * a + b, modulus);
+        String text = Long.toString(value);
+        return "0".repeat(digits - text.length()) + text;
+    }
+
+    /** SplitMix64 finaliser: spreads nearby seeds over the whole range. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -0,0 +1,26 @@
+package org.rakdao.utils;
+
+import org.slf4j.Logger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Re-runs a failed test up to flow.maxRetries times. Flows built on StagedFlow resume
+ * from their last checkpoint on the retry instead of starting over.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+
+    private static final Logger log = LoggerUtil.getLogger(RetryAnalyzer.class);
+    private static final int MAX_RETRIES = ConfigReader.getInt("flow.maxRetries", 1);
+
+    private int retries;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (retries >= MAX_RETRIES) return false;
+        retries++;
+        log.warn("🔁 Retrying {} ({}/{}) after: {}", result.getMethod().getMethodName(), retries, MAX_RETRIES,
+                result.getThrowable() != null ? result.getThrowable().toString() : "failure");
+        return true;
+    }
+}
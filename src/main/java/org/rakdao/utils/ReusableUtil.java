@@ -9,11 +9,13 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 public class ReusableUtil {
 
     private WebDriver driver;
     protected WebDriverWait wait;
+    private final EventWaiter events;
     private static final Logger logger = LoggerFactory.getLogger(ReusableUtil.class);
 
     @FindBy(xpath="//lightning-spinner[@alternative-text='Loading']")
@@ -22,6 +24,7 @@ public class ReusableUtil {
     public ReusableUtil(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        this.events = new EventWaiter(driver, Duration.ofSeconds(15));
     }
 
     public void scrollDownByPixel(int pixels) {
@@ -30,30 +33,48 @@ public class ReusableUtil {
 
     // ✅ Wait for visibility
     public WebElement waitForVisibility(WebElement element) {
-        logger.info("Waiting for visibility of element: {}", element);
-        return wait.until(ExpectedConditions.visibilityOf(element));
+        logger.info("Waiting for visibility of element: {}", ElementDescription.of(element));
+        return awaitElement(EventWaiter.Condition.VISIBLE, element, null, ExpectedConditions.visibilityOf(element));
     }
 
     // ✅ Wait for clickability
     public WebElement waitForClickability(WebElement element) {
-        logger.info("Waiting for element to be clickable: {}", element);
-        return wait.until(ExpectedConditions.elementToBeClickable(element));
+        logger.info("Waiting for element to be clickable: {}", ElementDescription.of(element));
+        return awaitElement(EventWaiter.Condition.CLICKABLE, element, null, ExpectedConditions.elementToBeClickable(element));
+    }
+
+    // ✅ Wait for text
+    public WebElement waitForText(WebElement element, String text) {
+        logger.info("Waiting for text '{}' in element: {}", text, ElementDescription.of(element));
+        return awaitElement(EventWaiter.Condition.TEXT, element, text,
+                d -> ExpectedConditions.textToBePresentInElement(element, text).apply(d) ? element : null);
+    }
+
+    // ✅ Wait for Lightning to settle (no pending requests, Aura actions or spinner)
+    public boolean waitForPageIdle() {
+        return LightningReadiness.awaitIdle(driver);
     }
 
     // ✅ Generic click
     public void click(WebElement element) {
-        logger.info("Clicking on element: {}", element);
+        logger.info("Clicking on element: {}", ElementDescription.of(element));
         waitForClickability(element).click();
     }
 
     // ✅ Type text
     public void type(WebElement element, String text) {
-        logger.info("Typing '{}' into element: {}", text, element);
+        logger.info("Typing '{}' into element: {}", text, ElementDescription.of(element));
         WebElement visibleElement = waitForVisibility(element);
         visibleElement.clear();
         visibleElement.sendKeys(text);
     }
 
+    // ✅ Fill several fields in one script call (sendKeys fallback per field)
+    public void fillForm(Map<By, String> fields) {
+        logger.info("Filling {} field(s): {}", fields.size(), fields.keySet());
+        new FormFiller(driver).fill(fields);
+    }
+
     // ✅ Get text
     public String getText(WebElement element) {
         String text = waitForVisibility(element).getText();
@@ -68,21 +89,21 @@ public class ReusableUtil {
             logger.info("Element displayed: {}", displayed);
             return displayed;
         } catch (TimeoutException | NoSuchElementException e) {
-            logger.warn("Element not displayed: {}", element);
+            logger.warn("Element not displayed: {}", ElementDescription.of(element));
             return false;
         }
     }
 
     // ✅ Page-wide scroll
     public void scrollToElement(WebElement element) {
-        logger.info("Scrolling page to element: {}", element);
+        logger.info("Scrolling page to element: {}", ElementDescription.of(element));
         ((JavascriptExecutor) driver).executeScript(
                 "arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", element);
     }
 
     // ✅ 🔹 Modal-specific scroll
     public void scrollInModal(WebElement modalContainer, WebElement targetElement) {
-        logger.info("Scrolling inside modal to element: {}", targetElement);
+        logger.info("Scrolling inside modal to element: {}", ElementDescription.of(targetElement));
         ((JavascriptExecutor) driver).executeScript(
                 "arguments[0].scrollTop = arguments[1].offsetTop;", modalContainer, targetElement);
     }
@@ -92,20 +113,22 @@ public class ReusableUtil {
     public void selectDropdownValue(String dropdownItemsXpath, String value) {
         logger.info("Selecting dropdown value '{}' from '{}'", value, dropdownItemsXpath);
 
-        // Wait for all dropdown options to be visible
-        List<WebElement> options = wait.until(ExpectedConditions
-                .visibilityOfAllElementsLocatedBy(By.xpath(dropdownItemsXpath)));
-
-        // Find the option that matches the value
-        WebElement option = options.stream()
-                .filter(el -> el.getText().equalsIgnoreCase(value))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchElementException(
-                        "Dropdown value '" + value + "' not found using XPath: " + dropdownItemsXpath
-                ));
-
-        // Scroll into view
-        scrollToElement(option);
+        // Match the option text inside the page: one round trip per poll instead of one per option
+        WebElement option;
+        try {
+            option = wait.until(d -> (WebElement) ((JavascriptExecutor) d).executeScript(
+                    "var items = document.evaluate(arguments[0], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+                    "for (var i = 0; i < items.snapshotLength; i++) {" +
+                    "  var el = items.snapshotItem(i);" +
+                    "  if ((el.innerText || el.textContent).trim().toLowerCase() === arguments[1].toLowerCase()) {" +
+                    "    el.scrollIntoView({block: 'center'}); return el;" +
+                    "  }" +
+                    "}" +
+                    "return null;", dropdownItemsXpath, value.trim()));
+        } catch (TimeoutException e) {
+            throw new NoSuchElementException(
+                    "Dropdown value '" + value + "' not found using XPath: " + dropdownItemsXpath);
+        }
 
         // Try normal click, fallback to JS click if intercepted
         try {
@@ -118,6 +141,17 @@ public class ReusableUtil {
         logger.info("Dropdown value '{}' selected successfully.", value);
     }
 
+    // ✅ Lightning combobox: open, find the option by label and click it in one script call
+    public void selectComboboxOption(By combobox, String value) {
+        logger.info("Selecting combobox option '{}' from '{}'", value, combobox);
+        new LightningCombobox(driver).select(combobox, value);
+    }
+
+    public void selectComboboxOption(WebElement combobox, String value) {
+        logger.info("Selecting combobox option '{}' from '{}'", value, ElementDescription.of(combobox));
+        new LightningCombobox(driver).select(waitForVisibility(combobox), value);
+    }
+
 
 
     public WebElement scrollUntilElementInModal(By modalLocator, By elementLocator, int maxScrolls) {
@@ -148,8 +182,15 @@ public class ReusableUtil {
     // ✅ Wait for invisibility
     public boolean waitForInvisibility(By locator) {
         logger.info("Waiting for invisibility of element located by: {}", locator);
+        if (EventWaiter.isEnabled()) {
+            EventWaiter.Outcome outcome = events.await(EventWaiter.Condition.INVISIBLE, locator);
+            if (outcome != EventWaiter.Outcome.STALE) {
+                if (outcome == EventWaiter.Outcome.TIMEOUT) logger.warn("Element did not become invisible: {}", locator);
+                return outcome == EventWaiter.Outcome.MET;
+            }
+        }
         try {
-            return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            return pollAndRecord(EventWaiter.Condition.INVISIBLE, ExpectedConditions.invisibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.warn("Element did not become invisible: {}", locator);
             return false;
@@ -158,15 +199,50 @@ public class ReusableUtil {
 
     // Overload for WebElement directly
     public boolean waitForInvisibility(WebElement element) {
-        logger.info("Waiting for invisibility of element: {}", element);
+        logger.info("Waiting for invisibility of element: {}", ElementDescription.of(element));
+        if (EventWaiter.isEnabled()) {
+            EventWaiter.Outcome outcome = events.await(EventWaiter.Condition.INVISIBLE, element, null);
+            if (outcome != EventWaiter.Outcome.STALE) {
+                if (outcome == EventWaiter.Outcome.TIMEOUT) logger.warn("Element did not become invisible: {}", ElementDescription.of(element));
+                return outcome == EventWaiter.Outcome.MET;
+            }
+        }
         try {
-            return wait.until(ExpectedConditions.invisibilityOf(element));
+            return pollAndRecord(EventWaiter.Condition.INVISIBLE, ExpectedConditions.invisibilityOf(element));
         } catch (TimeoutException e) {
-            logger.warn("Element did not become invisible: {}", element);
+            logger.warn("Element did not become invisible: {}", ElementDescription.of(element));
             return false;
         }
     }
 
+    /**
+     * Event-driven wait (one executeAsyncScript call, see {@link EventWaiter}); falls back to
+     * WebDriverWait polling when disabled via wait.engine=polling or the element cannot be
+     * checked in the page (e.g. not attached yet).
+     */
+    private WebElement awaitElement(EventWaiter.Condition condition, WebElement element, String text,
+                                    ExpectedCondition<WebElement> fallback) {
+        if (EventWaiter.isEnabled()) {
+            EventWaiter.Outcome outcome = events.await(condition, element, text);
+            if (outcome == EventWaiter.Outcome.MET) return element;
+            if (outcome == EventWaiter.Outcome.TIMEOUT)
+                throw new TimeoutException("Timed out waiting for " + condition + " of element: " + ElementDescription.describe(element));
+        }
+        return pollAndRecord(condition, fallback);
+    }
+
+    private <T> T pollAndRecord(EventWaiter.Condition condition, ExpectedCondition<T> expected) {
+        long start = System.nanoTime();
+        boolean met = false;
+        try {
+            T result = wait.until(expected);
+            met = true;
+            return result;
+        } finally {
+            EventWaiter.record(condition, System.nanoTime() - start, met);
+        }
+    }
+
     // ✅ Find element inside Shadow DOM
     public WebElement findElementInShadowDom(By hostSelector, String shadowSelector) {
         logger.info("Finding element in Shadow DOM. Host selector: {}, Shadow selector: {}", hostSelector, shadowSelector);
@@ -196,7 +272,7 @@ public class ReusableUtil {
     protected void clickElementWithJSFallback(BasePage page, String elementKey, WebDriverWait wait) {
         try {
             WebElement element = page.getElement(elementKey);
-            wait.until(ExpectedConditions.elementToBeClickable(element)).click();
+            waitForClickability(element).click();
             System.out.println("✅ Clicked " + elementKey + " button");
         } catch (Exception e) {
             try {
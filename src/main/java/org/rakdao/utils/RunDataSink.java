@@ -0,0 +1,142 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only sink for run data rows.
+ * Rows from any thread go into a lock-free queue and are flushed in batches to a
+ * JSON-lines journal (one JSON array per row), so recording a row never rewrites
+ * the report. {@link #finish()} streams the journal into the final .xlsx once.
+ */
+public class RunDataSink {
+
+    private static final Logger log = LoggerUtil.getLogger(RunDataSink.class);
+
+    private final Path journal;
+    private final Path workbook;
+    private final String[] header;
+    private final int batchSize;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Queue<String[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public RunDataSink(Path journal, Path workbook, String[] header, int batchSize) {
+        this.journal = journal;
+        this.workbook = workbook;
+        this.header = header.clone();
+        this.batchSize = batchSize;
+    }
+
+    /** Queue a row; triggers a batch flush once enough rows are pending. */
+    public void append(String... values) {
+        pending.offer(values);
+        if (pendingCount.incrementAndGet() >= batchSize && flushLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /** Write all pending rows to the journal. */
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Flush pending rows and build the .xlsx from the whole journal. */
+    public void finish() {
+        flushLock.lock();
+        try {
+            drain();
+            if (!Files.exists(journal)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            int rowCount = 0;
+            SXSSFWorkbook book = new SXSSFWorkbook(100); // keep 100 rows in memory, spill the rest
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8);
+                 OutputStream out = Files.newOutputStream(workbook)) {
+                Sheet sheet = book.createSheet("RunData");
+                writeRow(sheet.createRow(0), header);
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    writeRow(sheet.createRow(++rowCount), mapper.readValue(line, String[].class));
+                }
+                book.write(out);
+            } finally {
+                book.dispose();
+                book.close();
+            }
+            log.info("Run data workbook written: {} row(s) to '{}' in {} ms",
+                    rowCount, workbook, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to write run data workbook '{}'", workbook, e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ====== Internals ======
+
+    /**
+     * Caller must hold flushLock. Rows leave the queue only once their batch is written, so a
+     * failed write keeps them for the next flush (only the flushing thread removes rows).
+     */
+    private void drain() {
+        if (pending.isEmpty()) return;
+        StringBuilder batch = new StringBuilder();
+        int rows = 0;
+        try {
+            for (String[] row : pending) {
+                batch.append(mapper.writeValueAsString(row)).append(System.lineSeparator());
+                rows++;
+            }
+            Files.createDirectories(journal.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(batch.toString());
+            }
+        } catch (IOException e) {
+            log.error("Failed to append {} run data row(s) to '{}', keeping them for the next flush", rows, journal, e);
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            pending.poll();
+        }
+        pendingCount.addAndGet(-rows);
+    }
+
+    private static void writeRow(Row row, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resolves all candidate locators of an element (primary + fallbacks) inside the
+ * browser with a single executeAsyncScript call. The script re-checks every
+ * candidate until one matches or the timeout expires, so a dead primary costs
+ * nothing extra and the whole lookup is one WebDriver command.
+ */
+public class ScriptLocatorResolver {
+
+    private static final Logger log = LoggerUtil.getLogger(ScriptLocatorResolver.class);
+
+    private static final String RESOLVE_SCRIPT =
+            "var candidates = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];\n" +
+            "function find(c) {\n" +
+            "  switch (c[0]) {\n" +
+            "    case 'id': return document.getElementById(c[1]);\n" +
+            "    case 'name': return document.getElementsByName(c[1])[0] || null;\n" +
+            "    case 'css': return document.querySelector(c[1]);\n" +
+            "    case 'xpath': return document.evaluate(c[1], document, null,\n" +
+            "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "    case 'classname': return document.getElementsByClassName(c[1])[0] || null;\n" +
+            "    case 'tagname': return document.getElementsByTagName(c[1])[0] || null;\n" +
+            "    case 'linktext': case 'partiallinktext':\n" +
+            "      var links = document.getElementsByTagName('a');\n" +
+            "      for (var i = 0; i < links.length; i++) {\n" +
+            "        var text = (links[i].innerText || links[i].textContent || '').trim();\n" +
+            "        if (c[0] === 'linktext' ? text === c[1] : text.indexOf(c[1]) !== -1) return links[i];\n" +
+            "      }\n" +
+            "      return null;\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n" +
+            "var deadline = Date.now() + timeoutMs;\n" +
+            "(function attempt() {\n" +
+            "  for (var i = 0; i < candidates.length; i++) {\n" +
+            "    var el = null;\n" +
+            "    try { el = find(candidates[i]); } catch (e) { /* invalid selector for this page */ }\n" +
+            "    if (el) { done([el, i]); return; }\n" +
+            "  }\n" +
+            "  if (Date.now() >= deadline) { done(null); return; }\n" +
+            "  setTimeout(attempt, 100);\n" +
+            "})();";
+
+    /**
+     * @return the first candidate that matches, or null if none matched before the timeout
+     */
+    public static LocatorMatch resolve(WebDriver driver, List<LocatorCandidate> candidates, Duration timeout) {
+        List<List<String>> payload = candidates.stream()
+                .map(c -> List.of(c.getType(), c.getValue()))
+                .toList();
+
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(RESOLVE_SCRIPT, payload, timeout.toMillis());
+        if (!(result instanceof List<?> match)) {
+            return null;
+        }
+
+        int index = ((Number) match.get(1)).intValue();
+        LocatorCandidate winner = candidates.get(index);
+        if (index > 0) {
+            // Candidates come in LocatorStats order: report the declared position, not the tried one
+            log.debug("{} candidate(s) tried first missed, {} locator matched: {}", index, winner.describe(), winner);
+        }
+        return new LocatorMatch((WebElement) match.get(0), winner, index);
+    }
+}
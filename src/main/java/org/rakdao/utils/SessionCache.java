@@ -0,0 +1,300 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.rakdao.pageObjects.LoginPage;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs in to Salesforce once and reuses that session in every other browser.
+ * After a UI login the cookies of all domains and the Lightning origin's local and
+ * session storage are captured; new or pooled drivers get them restored before
+ * opening baseUrl, so they land on Lightning already authenticated.
+ * A snapshot older than session.maxAgeMinutes, or one the org rejects (redirect to
+ * the login page), triggers a fresh UI login that replaces it.
+ *
+ * <p>Cookie and storage restore use CDP on Chromium browsers; other browsers only get
+ * the cookies of the baseUrl domain.
+ */
+public class SessionCache {
+
+    private static final Logger log = LoggerUtil.getLogger(SessionCache.class);
+
+    private static final SessionCache INSTANCE = new SessionCache();
+
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            Optional.ofNullable(ConfigReader.get("session.cache")).orElse("true").trim());
+    private static final Duration MAX_AGE = Duration.ofMinutes(ConfigReader.getInt("session.maxAgeMinutes", 60));
+    private static final Duration LANDING_TIMEOUT = Duration.ofSeconds(60);
+    private static final Path REPORT_PATH = Paths.get(System.getProperty("user.dir"), "target", "session-cache.json");
+
+    // Which page the browser ended up on: the Lightning app or the login form
+    private static final String LANDING_SCRIPT =
+            "if (document.getElementById('username') && document.getElementById('password')) return 'login';\n" +
+            "if (location.pathname.indexOf('/lightning/') === 0 && document.readyState === 'complete') return 'app';\n" +
+            "return null;";
+
+    // Runs before any page script; fills storage once per tab for the captured origin
+    private static final String STORAGE_RESTORE_SCRIPT =
+            "(function (origin, local, session) {\n" +
+            "  if (location.origin !== origin || sessionStorage.getItem('__rakdaoRestored')) return;\n" +
+            "  Object.keys(local).forEach(function (k) { localStorage.setItem(k, local[k]); });\n" +
+            "  Object.keys(session).forEach(function (k) { sessionStorage.setItem(k, session[k]); });\n" +
+            "  sessionStorage.setItem('__rakdaoRestored', '1');\n" +
+            "})(%s, %s, %s);";
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i);" +
+            " if (k !== '__rakdaoRestored') o[k] = s.getItem(k); } return JSON.stringify(o); }\n" +
+            "return [location.origin, dump(localStorage), dump(sessionStorage)];";
+
+    private static final List<String> COOKIE_PARAM_KEYS = List.of(
+            "name", "value", "domain", "path", "secure", "httpOnly", "sameSite", "expires",
+            "priority", "sourceScheme", "sourcePort");
+
+    private volatile Snapshot snapshot;
+
+    // Time saved report
+    private volatile long loginNanos;
+    private final LongAdder uiLogins = new LongAdder();
+    private final LongAdder restores = new LongAdder();
+    private final LongAdder restoreNanos = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    // Test -> time saved by restoring instead of logging in
+    private final Map<String, Long> savedNanos = new ConcurrentHashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private SessionCache() {
+    }
+
+    public static SessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Opens baseUrl authenticated: restores the cached session when there is a usable one,
+     * otherwise logs in through the UI (and caches that session for the next tests).
+     * With session.cache=false every call is a plain UI login.
+     */
+    public void openAuthenticated(WebDriver driver, String baseUrl, String username, String password) {
+        if (!ENABLED) {
+            uiLogin(driver, baseUrl, username, password);
+            return;
+        }
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired()) {
+            long start = System.nanoTime();
+            if (restore(driver, current, baseUrl)) {
+                long elapsed = recordRestore(start);
+                log.info("🔓 Session restored in {} ms (UI login takes ~{} ms, saved ~{} ms)",
+                        elapsed / 1_000_000, loginNanos / 1_000_000, Math.max(0, loginNanos - elapsed) / 1_000_000);
+                return;
+            }
+            log.warn("⚠️ Cached session was rejected by the org, logging in again.");
+            expired.increment();
+            invalidate(current);
+        } else if (current != null) {
+            log.info("Cached session is older than {} min, logging in again.", MAX_AGE.toMinutes());
+            expired.increment();
+            invalidate(current);
+        }
+        loginAndCapture(driver, baseUrl, username, password);
+    }
+
+    /**
+     * Suite report next to the step timings: UI logins, restores and time saved in total and
+     * per test (0 for tests that did the UI login), logged and written to target/session-cache.json.
+     */
+    public void report() {
+        long restored = restores.sum();
+        if (restored + uiLogins.sum() == 0) return;
+        long avgRestore = restored == 0 ? 0 : restoreNanos.sum() / restored;
+        long savedMs = savedNanos.values().stream().mapToLong(Long::longValue).sum() / 1_000_000;
+        log.info("🔐 Session cache: {} UI login(s) (~{} ms each), {} restore(s) (avg {} ms), {} expiry/re-login(s), ~{} s saved",
+                uiLogins.sum(), loginNanos / 1_000_000, restored, avgRestore / 1_000_000, expired.sum(), savedMs / 1000);
+
+        ObjectNode root = mapper.createObjectNode();
+        root.put("uiLogins", uiLogins.sum());
+        root.put("uiLoginMs", loginNanos / 1_000_000);
+        root.put("restores", restored);
+        root.put("avgRestoreMs", avgRestore / 1_000_000);
+        root.put("expiredOrRejected", expired.sum());
+        root.put("savedMs", savedMs);
+        ObjectNode perTest = root.putObject("savedMsPerTest");
+        new TreeMap<>(savedNanos).forEach((test, nanos) -> {
+            perTest.put(test, nanos / 1_000_000);
+            log.info(String.format("   %-70s %8d ms saved", test, nanos / 1_000_000));
+        });
+        try {
+            Files.createDirectories(REPORT_PATH.getParent());
+            mapper.writerWithDefaultPrettyPrinter().writeValue(REPORT_PATH.toFile(), root);
+        } catch (IOException e) {
+            log.error("Failed to write session cache report to '{}'", REPORT_PATH, e);
+        }
+    }
+
+    // ====== Internals ======
+
+    /** One UI login at a time; other workers waiting here reuse the fresh snapshot instead. */
+    private synchronized void loginAndCapture(WebDriver driver, String baseUrl, String username, String password) {
+        Snapshot fresh = snapshot;
+        long start = System.nanoTime();
+        if (fresh != null && !fresh.isExpired() && restore(driver, fresh, baseUrl)) {
+            recordRestore(start);
+            log.info("🔓 Session restored from a login made by another worker.");
+            return;
+        }
+
+        uiLogin(driver, baseUrl, username, password);
+        snapshot = capture(driver);
+    }
+
+    private void uiLogin(WebDriver driver, String baseUrl, String username, String password) {
+        long start = System.nanoTime();
+        driver.get(baseUrl);
+        if ("login".equals(awaitLanding(driver))) {
+            LoginPage loginPage = new LoginPage(driver);
+            loginPage.enterUsername(username);
+            loginPage.enterPassword(password);
+            loginPage.clickLogin();
+            try {
+                new WebDriverWait(driver, LANDING_TIMEOUT)
+                        .until(d -> "app".equals(((JavascriptExecutor) d).executeScript(LANDING_SCRIPT)));
+            } catch (TimeoutException e) {
+                throw new RuntimeException("Login did not reach Lightning, still on " + driver.getCurrentUrl(), e);
+            }
+        }
+        LightningReadiness.awaitIdle(driver);
+        loginNanos = System.nanoTime() - start;
+        uiLogins.increment();
+        savedNanos.merge(currentTest(), 0L, Long::sum);
+        log.info("✅ UI login completed in {} ms", loginNanos / 1_000_000);
+    }
+
+    /** Counts a restore that started at {@code start} and books the time saved to the current test. */
+    private long recordRestore(long start) {
+        long elapsed = System.nanoTime() - start;
+        restores.increment();
+        restoreNanos.add(elapsed);
+        savedNanos.merge(currentTest(), Math.max(0, loginNanos - elapsed), Long::sum);
+        return elapsed;
+    }
+
+    /** Test of this thread (MDC "test", set by BaseClass.setUp and TestListener). */
+    private static String currentTest() {
+        return Optional.ofNullable(MDC.get("test")).orElse(Thread.currentThread().getName());
+    }
+
+    private synchronized void invalidate(Snapshot stale) {
+        if (snapshot == stale) snapshot = null;
+    }
+
+    private Snapshot capture(WebDriver driver) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        if (DriverFactory.unwrap(driver) instanceof ChromiumDriver chromium) {
+            Object all = chromium.executeCdpCommand("Network.getAllCookies", Map.of()).get("cookies");
+            for (Object cookie : (List<?>) all) {
+                Map<String, Object> param = new HashMap<>();
+                ((Map<?, ?>) cookie).forEach((k, v) -> {
+                    if (COOKIE_PARAM_KEYS.contains(String.valueOf(k))) param.put(String.valueOf(k), v);
+                });
+                if (Boolean.TRUE.equals(((Map<?, ?>) cookie).get("session"))) param.remove("expires");
+                cookies.add(param);
+            }
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                cookies.add(Map.of("name", cookie.getName(), "value", cookie.getValue(),
+                        "domain", cookie.getDomain(), "path", cookie.getPath()));
+            }
+        }
+
+        List<?> storage = (List<?>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        log.debug("[capture] {} cookie(s), storage for origin {}", cookies.size(), storage.get(0));
+        return new Snapshot(cookies, (String) storage.get(0), (String) storage.get(1), (String) storage.get(2));
+    }
+
+    /** @return true if the browser landed on Lightning with the restored session */
+    private boolean restore(WebDriver driver, Snapshot s, String baseUrl) {
+        String storageScriptId = null;
+        if (DriverFactory.unwrap(driver) instanceof ChromiumDriver chromium) {
+            chromium.executeCdpCommand("Network.setCookies", Map.of("cookies", s.cookies));
+            String script = String.format(STORAGE_RESTORE_SCRIPT, quote(s.origin), s.localStorage, s.sessionStorage);
+            storageScriptId = (String) chromium.executeCdpCommand(
+                    "Page.addScriptToEvaluateOnNewDocument", Map.of("source", script)).get("identifier");
+        } else {
+            // Cookies can only be added for the domain currently open
+            driver.get(originOf(baseUrl) + "/favicon.ico");
+            String host = URI.create(baseUrl).getHost();
+            for (Map<String, Object> c : s.cookies) {
+                String domain = String.valueOf(c.get("domain"));
+                if (host.endsWith(domain.startsWith(".") ? domain.substring(1) : domain)) {
+                    driver.manage().addCookie(new Cookie(String.valueOf(c.get("name")), String.valueOf(c.get("value")),
+                            String.valueOf(c.get("path"))));
+                }
+            }
+        }
+
+        try {
+            driver.get(baseUrl);
+            boolean onApp = "app".equals(awaitLanding(driver));
+            if (onApp) LightningReadiness.awaitIdle(driver);
+            return onApp;
+        } finally {
+            if (storageScriptId != null) {
+                // Pooled sessions outlive this test; don't keep seeding storage on later leases
+                ((ChromiumDriver) DriverFactory.unwrap(driver)).executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                        Map.of("identifier", storageScriptId));
+            }
+        }
+    }
+
+    private static String awaitLanding(WebDriver driver) {
+        return new WebDriverWait(driver, LANDING_TIMEOUT)
+                .until(d -> (String) ((JavascriptExecutor) d).executeScript(LANDING_SCRIPT));
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static String quote(String text) {
+        return "'" + text.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static final class Snapshot {
+        private final List<Map<String, Object>> cookies;
+        private final String origin;
+        private final String localStorage;   // JSON object
+        private final String sessionStorage; // JSON object
+        private final long capturedAt = System.nanoTime();
+
+        Snapshot(List<Map<String, Object>> cookies, String origin, String localStorage, String sessionStorage) {
+            this.cookies = List.copyOf(cookies);
+            this.origin = origin;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+        }
+
+        boolean isExpired() {
+            return Duration.ofNanos(System.nanoTime() - capturedAt).compareTo(MAX_AGE) > 0;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.MDC;
+
+import java.lang.StackWalker.StackFrame;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Times every WebDriver call of a decorated session and attributes it, by walking the
+ * call stack, to the page-object method and ReusableUtil helper that issued it.
+ * A step lasts from the start of its first driver call to the end of its last one, so
+ * Java-only work before the first call is not counted; consecutive invocations from the
+ * same call site with no other step in between are merged into one span.
+ * The open page-object step is also the thread's MDC "step" for structured logs.
+ */
+public class StepTimingListener implements WebDriverListener {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String PAGE_PACKAGE = "org.rakdao.pageObjects.";
+    private static final String HELPER_CLASS = ReusableUtil.class.getName();
+
+    private static final ThreadLocal<Deque<Long>> callStarts = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Span[]> openSpans = ThreadLocal.withInitial(() -> new Span[2]);
+
+    private final StepTimings timings;
+
+    public StepTimingListener(StepTimings timings) {
+        this.timings = timings;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (ignored(method)) return;
+        long now = System.nanoTime();
+        List<StackFrame> frames = WALKER.walk(s -> s
+                .filter(f -> f.getClassName().startsWith("org.rakdao.") && !f.getClassName().equals(StepTimingListener.class.getName()))
+                .collect(Collectors.toList()));
+
+        int page = -1;
+        int helper = -1;
+        for (int i = 0; i < frames.size(); i++) {
+            String className = frames.get(i).getClassName();
+            if (className.startsWith(PAGE_PACKAGE)) page = i; // outermost wins
+            if (helper < 0 && className.equals(HELPER_CLASS)) helper = i; // innermost wins
+        }
+        Span[] spans = openSpans.get();
+        switchSpan(spans, 0, "page", frames, page, now);
+        switchSpan(spans, 1, "helper", frames, helper, now);
+        callStarts.get().push(now);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (!ignored(method)) finishCall(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (!ignored(method)) finishCall(method);
+    }
+
+    /** Records the current thread's open page/helper spans; call at the end of a test or session. */
+    public static void closeSpans() {
+        Span[] spans = openSpans.get();
+        for (int i = 0; i < spans.length; i++) {
+            if (spans[i] != null) {
+                spans[i].record();
+                spans[i] = null;
+            }
+        }
+        callStarts.get().clear();
+        MDC.remove("step");
+    }
+
+    // ====== Internals ======
+
+    private void finishCall(Method method) {
+        Long start = callStarts.get().poll();
+        if (start == null) return;
+        long now = System.nanoTime();
+        timings.record("command", method.getDeclaringClass().getSimpleName() + "." + method.getName(), now - start);
+        for (Span span : openSpans.get()) {
+            if (span != null) span.lastEnd = now;
+        }
+    }
+
+    private void switchSpan(Span[] spans, int slot, String level, List<StackFrame> frames, int index, long now) {
+        String identity = null;
+        String name = null;
+        if (index >= 0) {
+            StackFrame frame = frames.get(index);
+            name = stepName(frame);
+            int callerBci = index + 1 < frames.size() ? frames.get(index + 1).getByteCodeIndex() : -1;
+            identity = name + "#" + (frames.size() - index) + "@" + callerBci;
+        }
+        Span current = spans[slot];
+        if (current != null && current.identity.equals(identity)) return;
+        if (current != null) current.record();
+        spans[slot] = identity == null ? null : new Span(level, name, identity, now);
+        if (slot == 0) {
+            if (name == null) MDC.remove("step");
+            else MDC.put("step", name);
+        }
+    }
+
+    private static String stepName(StackFrame frame) {
+        String className = frame.getClassName();
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        int inner = simple.indexOf('$');
+        if (inner > 0) simple = simple.substring(0, inner);
+        String methodName = frame.getMethodName();
+        if (methodName.startsWith("lambda$")) {
+            methodName = methodName.substring("lambda$".length(), methodName.lastIndexOf('$'));
+        }
+        return simple + "." + methodName;
+    }
+
+    private static boolean ignored(Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        return declaring == Object.class || declaring == WrapsDriver.class
+                || declaring == WrapsElement.class || declaring == Decorated.class;
+    }
+
+    private final class Span {
+        private final String level;
+        private final String name;
+        private final String identity;
+        private final long start;
+        private long lastEnd;
+
+        Span(String level, String name, String identity, long start) {
+            this.level = level;
+            this.name = name;
+            this.identity = identity;
+            this.start = start;
+            this.lastEnd = start;
+        }
+
+        void record() {
+            timings.record(level, name, lastEnd - start);
+        }
+    }
+}
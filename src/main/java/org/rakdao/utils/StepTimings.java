@@ -0,0 +1,167 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms per step, fed by {@link StepTimingListener}:
+ * <ul>
+ *   <li>page: page-object methods (OpportunityPage.addProduct, LeadPage.enterLeadDetails, ...)</li>
+ *   <li>helper: ReusableUtil actions (click, type, selectDropdownValue, ...)</li>
+ *   <li>command: individual WebDriver calls (WebElement.click, JavascriptExecutor.executeScript, ...)</li>
+ * </ul>
+ * The suite report (p50/p95/p99) goes to the log and target/step-timings.json; histograms
+ * are also merged into timings.historyFile so percentiles cover all previous runs too.
+ */
+public class StepTimings {
+
+    private static final Logger log = LoggerUtil.getLogger(StepTimings.class);
+    private static final Path REPORT_PATH = Paths.get(System.getProperty("user.dir"), "target", "step-timings.json");
+    private static final String[] LEVELS = {"page", "helper", "command"};
+
+    private static final StepTimings INSTANCE = new StepTimings(
+            Boolean.parseBoolean(Optional.ofNullable(ConfigReader.get("timings.enabled")).orElse("true").trim()),
+            Optional.ofNullable(ConfigReader.get("timings.historyFile")).map(String::trim).orElse(""));
+
+    private final boolean enabled;
+    private final String historyFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // level -> step name -> histogram
+    private final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    StepTimings(boolean enabled, String historyFile) {
+        this.enabled = enabled;
+        this.historyFile = historyFile;
+    }
+
+    public static StepTimings getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void record(String level, String step, long nanos) {
+        histograms.computeIfAbsent(level, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(step, s -> new LatencyHistogram())
+                .recordNanos(nanos);
+    }
+
+    /** Histogram of one step in this run, or null when it never ran. */
+    public LatencyHistogram get(String level, String step) {
+        return histograms.getOrDefault(level, Map.of()).get(step);
+    }
+
+    /**
+     * Logs p50/p95/p99 per step (slowest total first), writes target/step-timings.json
+     * and merges this run into the history file.
+     */
+    public synchronized void report() {
+        if (histograms.isEmpty()) {
+            log.info("No step timings recorded.");
+            return;
+        }
+        Map<String, Map<String, LatencyHistogram>> history = loadHistory();
+
+        for (String level : LEVELS) {
+            Map<String, LatencyHistogram> steps = histograms.getOrDefault(level, Map.of());
+            if (steps.isEmpty()) continue;
+            log.info("⏱️ Step timings [{}] (ms):", level);
+            log.info(String.format("   %-55s %7s %9s %9s %9s %9s %10s %14s", "step", "count", "p50", "p95", "p99", "max", "total", "p95 all runs"));
+            steps.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getSumMicros()).reversed())
+                    .forEach(e -> {
+                        LatencyHistogram h = e.getValue();
+                        LatencyHistogram all = history.getOrDefault(level, Map.of()).get(e.getKey());
+                        log.info(String.format("   %-55s %7d %9.1f %9.1f %9.1f %9.1f %10.0f %14s",
+                                e.getKey(), h.getCount(), ms(h.percentileMicros(50)), ms(h.percentileMicros(95)),
+                                ms(h.percentileMicros(99)), ms(h.getMaxMicros()), ms(h.getSumMicros()),
+                                all == null ? "-" : String.format("%.1f", ms(mergedWith(all, h).percentileMicros(95)))));
+                    });
+        }
+
+        write(REPORT_PATH, histograms, true);
+        if (!historyFile.isEmpty()) {
+            history.forEach((level, steps) -> steps.forEach((step, h) -> histograms
+                    .computeIfAbsent(level, l -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(step, s -> new LatencyHistogram())
+                    .add(h)));
+            write(Paths.get(historyFile), histograms, false);
+            histograms.clear(); // merged with history; a second report in this JVM must not count twice
+        }
+    }
+
+    // ====== Internals ======
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static LatencyHistogram mergedWith(LatencyHistogram history, LatencyHistogram run) {
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(history);
+        merged.add(run);
+        return merged;
+    }
+
+    private void write(Path file, Map<String, Map<String, LatencyHistogram>> data, boolean withPercentiles) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("unit", "us");
+        data.forEach((level, steps) -> {
+            ObjectNode levelNode = root.putObject(level);
+            new TreeMap<>(steps).forEach((step, h) -> {
+                ObjectNode node = levelNode.putObject(step);
+                node.put("count", h.getCount());
+                if (withPercentiles) {
+                    node.put("p50", h.percentileMicros(50));
+                    node.put("p95", h.percentileMicros(95));
+                    node.put("p99", h.percentileMicros(99));
+                }
+                node.put("max", h.getMaxMicros());
+                node.put("sum", h.getSumMicros());
+                ObjectNode buckets = node.putObject("buckets");
+                h.getBuckets().forEach((index, c) -> buckets.put(String.valueOf(index), c));
+            });
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+            log.info("Step timings written to '{}'", file);
+        } catch (IOException e) {
+            log.error("Failed to write step timings to '{}'", file, e);
+        }
+    }
+
+    private Map<String, Map<String, LatencyHistogram>> loadHistory() {
+        Map<String, Map<String, LatencyHistogram>> history = new HashMap<>();
+        if (historyFile.isEmpty() || !Files.exists(Paths.get(historyFile))) return history;
+        try {
+            JsonNode root = mapper.readTree(Paths.get(historyFile).toFile());
+            for (String level : LEVELS) {
+                JsonNode levelNode = root.path(level);
+                levelNode.fieldNames().forEachRemaining(step -> {
+                    JsonNode node = levelNode.get(step);
+                    Map<Integer, Long> buckets = new HashMap<>();
+                    node.path("buckets").fields().forEachRemaining(b -> buckets.put(Integer.parseInt(b.getKey()), b.getValue().asLong()));
+                    history.computeIfAbsent(level, l -> new HashMap<>())
+                            .put(step, LatencyHistogram.of(buckets, node.path("sum").asLong(), node.path("max").asLong()));
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read step timing history '{}', starting fresh: {}", historyFile, e.getMessage());
+            history.clear();
+        }
+        return history;
+    }
+}
@@ -0,0 +1,153 @@
+package org.rakdao.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of a Lightning {@code slds-table}: headers plus every cell's text and
+ * title, captured with one executeScript call instead of several WebDriver commands per row.
+ * Rows are searched locally; only the final action (e.g. ticking a row checkbox) goes
+ * back to the browser.
+ */
+public class TableSnapshot {
+
+    private static final String CAPTURE_SCRIPT =
+            "var table = arguments[0];\n" +
+            "function clean(s) { return (s || '').replace(/\\s+/g, ' ').trim(); }\n" +
+            "var headers = Array.prototype.map.call(table.querySelectorAll('thead th'),\n" +
+            "    function (th) { return clean(th.innerText); });\n" +
+            "var rows = Array.prototype.map.call(table.querySelectorAll('tbody > tr'), function (tr) {\n" +
+            "  return Array.prototype.map.call(tr.querySelectorAll(':scope > th, :scope > td'), function (cell) {\n" +
+            "    var titled = cell.querySelector('div[title]') || cell.querySelector('[title]');\n" +
+            "    return [clean(cell.innerText), titled ? clean(titled.getAttribute('title')) : null];\n" +
+            "  });\n" +
+            "});\n" +
+            "return [headers, rows];";
+
+    private static final String CLICK_ROW_SCRIPT =
+            "var row = arguments[0].querySelectorAll('tbody > tr')[arguments[1]];\n" +
+            "var target = row && row.querySelector(arguments[2]);\n" +
+            "if (!target) return false;\n" +
+            "target.scrollIntoView({block: 'center'});\n" +
+            "target.click();\n" +
+            "return true;";
+
+    private final WebDriver driver;
+    private final WebElement table;
+    private final List<String> headers;
+    private final List<Row> rows;
+    private final Map<String, Integer> headerIndex = new HashMap<>();
+
+    private TableSnapshot(WebDriver driver, WebElement table, List<String> headers, List<Row> rows) {
+        this.driver = driver;
+        this.table = table;
+        this.headers = headers;
+        this.rows = rows;
+        for (int i = 0; i < headers.size(); i++) {
+            headerIndex.putIfAbsent(headers.get(i).toUpperCase(), i);
+        }
+    }
+
+    /** Capture headers and all cell values of the table in a single round trip. */
+    @SuppressWarnings("unchecked")
+    public static TableSnapshot capture(WebDriver driver, WebElement table) {
+        List<Object> result = (List<Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT, table);
+
+        List<String> headers = List.copyOf((List<String>) result.get(0));
+        List<Row> rows = new ArrayList<>();
+        List<List<List<String>>> rawRows = (List<List<List<String>>>) result.get(1);
+        for (int r = 0; r < rawRows.size(); r++) {
+            List<Cell> cells = new ArrayList<>();
+            for (List<String> rawCell : rawRows.get(r)) {
+                cells.add(new Cell(rawCell.get(0), rawCell.get(1)));
+            }
+            rows.add(new Row(r, List.copyOf(cells)));
+        }
+        return new TableSnapshot(driver, table, headers, List.copyOf(rows));
+    }
+
+    public List<String> getHeaders() { return headers; }
+    public List<Row> getRows() { return rows; }
+
+    /**
+     * 0-based index of the column with the given header (case-insensitive).
+     * @throws NoSuchElementException if the header is not present
+     */
+    public int columnIndex(String headerName) {
+        Integer index = headerIndex.get(headerName.trim().toUpperCase());
+        if (index == null)
+            throw new NoSuchElementException("Header '" + headerName + "' not found in table.");
+        return index;
+    }
+
+    /** First row whose value in the given column matches the predicate. */
+    public Optional<Row> findRow(String headerName, Predicate<String> valueMatcher) {
+        int column = columnIndex(headerName);
+        return rows.stream()
+                .filter(row -> column < row.getCells().size() && valueMatcher.test(row.getCells().get(column).getValue()))
+                .findFirst();
+    }
+
+    /** Compact fingerprint of all cell values, used to detect that the table content changed. */
+    public String signature() {
+        StringBuilder sb = new StringBuilder();
+        for (Row row : rows) {
+            for (Cell cell : row.getCells()) {
+                sb.append(cell.getValue()).append('\u001f');
+            }
+            sb.append('\u001e');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Scroll to and click the first element matching the CSS selector inside the given row,
+     * in one script call.
+     * @return false if the row has no such element
+     */
+    public boolean clickInRow(Row row, String cssSelector) {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver)
+                .executeScript(CLICK_ROW_SCRIPT, table, row.getIndex(), cssSelector));
+    }
+
+    public static final class Row {
+        private final int index;
+        private final List<Cell> cells;
+
+        Row(int index, List<Cell> cells) {
+            this.index = index;
+            this.cells = cells;
+        }
+
+        /** 0-based position within tbody. */
+        public int getIndex() { return index; }
+        public List<Cell> getCells() { return cells; }
+
+        public String value(int column) {
+            return cells.get(column).getValue();
+        }
+    }
+
+    public static final class Cell {
+        private final String text;
+        private final String title;
+
+        Cell(String text, String title) {
+            this.text = text;
+            this.title = title;
+        }
+
+        public String getText() { return text; }
+        public String getTitle() { return title; }
+
+        /** Title when present (Lightning puts the full value there), otherwise the visible text. */
+        public String getValue() {
+            return title != null ? title : text;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.rakdao.utils;
+
+import org.slf4j.Logger;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Run configuration, resolved once and immutable afterwards. Layers, later ones win:
+ * <ol>
+ *   <li>config.properties from the classpath (src/main/resources)</li>
+ *   <li>config-&lt;profile&gt;.properties for -Dconfig.profile / RAKDAO_CONFIG_PROFILE (e.g. ci)</li>
+ *   <li>environment variables named after the key: driverPool.size -&gt; RAKDAO_DRIVER_POOL_SIZE
+ *       (prefixed so variables such as BROWSER, set by desktop environments, do not leak in)</li>
+ *   <li>-Dkey=value system properties</li>
+ * </ol>
+ * Environment and -D overrides apply to keys defined in one of the files. The common
+ * settings are bound to typed getters; everything else is available through
+ * {@link #get(String)} and {@link #getInt(String, int)} without parsing per call.
+ */
+public final class TestConfig {
+
+    private static final Logger log = LoggerUtil.getLogger(TestConfig.class);
+    private static final String BASE_FILE = "config.properties";
+    private static final String ENV_PREFIX = "RAKDAO_";
+
+    private static volatile TestConfig instance;
+
+    private final String profile;
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints;
+
+    private final String browser;
+    private final String browserProfile;
+    private final boolean headless;
+    private final String baseUrl;
+    private final String adminUserName;
+    private final String adminPassword;
+    private final int driverPoolSize;
+    private final Duration driverPoolMaxSessionAge;
+    private final int threads;
+    private final Duration locatorTimeout;
+    private final Duration readinessTimeout;
+    private final Duration readinessQuiet;
+    private final long testDataSeed;
+    private final int testDataPoolSize;
+    private final String testDataExportFile;
+
+    private TestConfig(String profile, Map<String, String> values) {
+        this.profile = profile;
+        this.values = Collections.unmodifiableMap(values);
+        Map<String, Integer> parsed = new HashMap<>();
+        values.forEach((key, value) -> {
+            try {
+                parsed.put(key, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException ignored) {
+                // not a number; getInt reports it if asked
+            }
+        });
+        this.ints = Collections.unmodifiableMap(parsed);
+
+        this.browser = require("browser").trim().toLowerCase(Locale.ROOT);
+        this.browserProfile = get("browser.profile", "default");
+        this.headless = Boolean.parseBoolean(get("headless", "false"));
+        this.baseUrl = require("baseUrl").trim();
+        this.adminUserName = get("adminUserName", "");
+        this.adminPassword = values.getOrDefault("adminPassword", "");
+        this.driverPoolSize = getInt("driverPool.size", 0);
+        this.driverPoolMaxSessionAge = Duration.ofMinutes(getInt("driverPool.maxSessionAgeMinutes", 30));
+        this.threads = Math.max(1, getInt("threads", 1));
+        this.locatorTimeout = Duration.ofSeconds(getInt("locator.timeoutSeconds", 10));
+        this.readinessTimeout = Duration.ofSeconds(getInt("readiness.timeoutSeconds", 20));
+        this.readinessQuiet = Duration.ofMillis(getInt("readiness.quietMs", 300));
+        this.testDataSeed = Long.parseLong(get("testData.seed", "0"));
+        this.testDataPoolSize = Math.max(1, getInt("testData.poolSize", 50));
+        this.testDataExportFile = get("testData.exportFile", "target/issued-users.json");
+    }
+
+    public static TestConfig getInstance() {
+        TestConfig config = instance;
+        if (config == null) {
+            synchronized (TestConfig.class) {
+                config = instance;
+                if (config == null) {
+                    config = load(System.getenv(), System.getProperties());
+                    instance = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    /** Resolves the layers against the given environment and system properties. */
+    static TestConfig load(Map<String, String> env, Properties system) {
+        Map<String, String> values = new LinkedHashMap<>();
+        read(BASE_FILE, true).forEach((k, v) -> values.put((String) k, (String) v));
+
+        String profile = system.getProperty("config.profile",
+                env.getOrDefault(envName("config.profile"), values.getOrDefault("config.profile", ""))).trim();
+        if (!profile.isEmpty()) {
+            Properties overlay = read("config-" + profile + ".properties", false);
+            if (overlay.isEmpty()) {
+                throw new RuntimeException("Config profile '" + profile + "' has no config-" + profile + ".properties");
+            }
+            overlay.forEach((k, v) -> values.put((String) k, (String) v));
+        }
+
+        // Names only: values may be secrets
+        List<String> fromEnv = new ArrayList<>();
+        List<String> fromSystem = new ArrayList<>();
+        for (String key : new ArrayList<>(values.keySet())) {
+            String envValue = env.get(envName(key));
+            if (envValue != null) {
+                values.put(key, envValue);
+                fromEnv.add(key);
+            }
+            String systemValue = system.getProperty(key);
+            if (systemValue != null) {
+                values.put(key, systemValue);
+                fromSystem.add(key);
+            }
+        }
+
+        TestConfig config = new TestConfig(profile.isEmpty() ? "default" : profile, values);
+        log.info("⚙️ Config loaded: profile '{}', {} key(s), env overrides {}, -D overrides {}",
+                config.profile, values.size(), fromEnv, fromSystem);
+        return config;
+    }
+
+    /** Environment variable for a key: driverPool.size -&gt; RAKDAO_DRIVER_POOL_SIZE. */
+    static String envName(String key) {
+        return ENV_PREFIX + key.replaceAll("([a-z0-9])([A-Z])", "$1_$2").replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT);
+    }
+
+    private static Properties read(String name, boolean required) {
+        Properties props = new Properties();
+        try (InputStream in = open(name)) {
+            if (in != null) {
+                props.load(in);
+            } else if (required) {
+                throw new RuntimeException("Failed to load " + name + ": not on the classpath or in src/main/resources");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load " + name, e);
+        }
+        return props;
+    }
+
+    private static InputStream open(String name) throws IOException {
+        InputStream in = TestConfig.class.getClassLoader().getResourceAsStream(name);
+        if (in != null) return in;
+        // Fallback for runs without the resources on the classpath (e.g. an IDE run configuration)
+        Path file = Paths.get(System.getProperty("user.dir"), "src", "main", "resources", name);
+        return Files.exists(file) ? new FileInputStream(file.toFile()) : null;
+    }
+
+    // ====== Raw lookups ======
+
+    /** Value as configured (untrimmed), or null when the key is not defined in any layer. */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /** Trimmed value, or the default when the key is absent or blank. */
+    public String get(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /** Integer value; NumberFormatException when absent or not a number. */
+    public int getInt(String key) {
+        Integer value = ints.get(key);
+        if (value == null) {
+            throw new NumberFormatException("Property '" + key + "' is not a valid integer. Value: '" + values.get(key) + "'");
+        }
+        return value;
+    }
+
+    /** Integer value, or the default when the key is absent. */
+    public int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? getInt(key) : defaultValue;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    private String require(String key) {
+        String value = values.get(key);
+        if (value == null || value.isBlank()) {
+            throw new RuntimeException("Missing required config key '" + key + "'");
+        }
+        return value;
+    }
+
+    // ====== Typed settings ======
+
+    /** Active profile name ("default" when none). */
+    public String getProfile() { return profile; }
+    /** chrome / edge / firefox, lower case. */
+    public String getBrowser() { return browser; }
+    /** Launch profile name for {@link BrowserProfile#named(String)}. */
+    public String getBrowserProfile() { return browserProfile; }
+    public boolean isHeadless() { return headless; }
+    public String getBaseUrl() { return baseUrl; }
+    public String getAdminUserName() { return adminUserName; }
+    public String getAdminPassword() { return adminPassword; }
+    /** Warm sessions to keep; 0 launches a browser per test. */
+    public int getDriverPoolSize() { return driverPoolSize; }
+    public Duration getDriverPoolMaxSessionAge() { return driverPoolMaxSessionAge; }
+    /** Parallel test threads of this run (the parallel maven profile passes -Dthreads). */
+    public int getThreads() { return threads; }
+    public Duration getLocatorTimeout() { return locatorTimeout; }
+    public Duration getReadinessTimeout() { return readinessTimeout; }
+    public Duration getReadinessQuiet() { return readinessQuiet; }
+    /** Seed of the generated users and phones; keep it fixed so counter values never map to the same mobile. */
+    public long getTestDataSeed() { return testDataSeed; }
+    /** Users kept pre-generated by {@link UserPool}. */
+    public int getTestDataPoolSize() { return testDataPoolSize; }
+    public String getTestDataExportFile() { return testDataExportFile; }
+
+    @Override
+    public String toString() {
+        return String.format("profile=%s, browser=%s (%s%s), threads=%d, driverPool.size=%d, baseUrl=%s",
+                profile, browser, browserProfile, headless ? ", headless" : "", threads, driverPoolSize, baseUrl);
+    }
+}
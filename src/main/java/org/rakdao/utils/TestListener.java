@@ -3,8 +3,11 @@ package org.rakdao.utils;
 import org.openqa.selenium.WebDriver;
 import org.testng.*;
 
+import java.time.Duration;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 public class TestListener implements ITestListener, ISuiteListener {
 
@@ -18,16 +21,24 @@ public class TestListener implements ITestListener, ISuiteListener {
     @Override
     public void onFinish(ISuite suite) {
         log.info("Suite finished: {}", suite.getName());
+        FailureArtifacts.getInstance().drain(Duration.ofSeconds(60));
+        StepTimings.getInstance().report();
+        SessionCache.getInstance().report();
+        UserPool.exportIssued();
     }
 
     @Override
     public void onTestStart(ITestResult result) {
+        // Every log line of this test's thread carries the test (JSON log "mdc" field)
+        MDC.put("test", result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName());
         log.info("Test started: {}", result.getMethod().getMethodName());
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         log.info("Test passed: {}", result.getMethod().getMethodName());
+        StepTimingListener.closeSpans();
+        MDC.remove("test");
     }
 
     @Override
@@ -35,20 +46,27 @@ public class TestListener implements ITestListener, ISuiteListener {
         log.error("Test failed: {}", result.getMethod().getMethodName());
 
         try {
-            Object testClass = result.getInstance();
-            WebDriver driver = (WebDriver) testClass.getClass().getDeclaredField("driver").get(testClass);
-            String path = ScreenshotUtil.captureFailure(driver, result.getMethod().getMethodName());
-            if (path != null) {
-                log.info("Screenshot stored at: {}", path);
+            // Listener runs on the test's own thread, so this is the session that just failed
+            WebDriver driver = DriverFactory.getDriver();
+            if (driver == null) {
+                log.warn("No WebDriver on this thread, skipping failure artefacts for: {}", result.getMethod().getMethodName());
+                return;
             }
+            // Only grabs screenshot/DOM/console into memory; files are written in the background
+            FailureArtifacts.getInstance().capture(driver, result.getMethod().getMethodName());
         } catch (Exception e) {
-            log.error("Could not capture screenshot for test: {}", result.getMethod().getMethodName(), e);
+            log.error("Could not capture failure artefacts for test: {}", result.getMethod().getMethodName(), e);
+        } finally {
+            StepTimingListener.closeSpans();
+            MDC.remove("test");
         }
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
         log.warn("Test skipped: {}", result.getMethod().getMethodName());
+        StepTimingListener.closeSpans();
+        MDC.remove("test");
     }
 
     @Override
@@ -59,7 +77,7 @@ public class TestListener implements ITestListener, ISuiteListener {
     @Override
     public void onTestFailedWithTimeout(ITestResult result) {
         log.error("Test failed due to timeout: {}", result.getMethod().getMethodName());
-        onTestFailure(result); // capture screenshot too
+        onTestFailure(result); // capture failure artefacts too
     }
 
     @Override
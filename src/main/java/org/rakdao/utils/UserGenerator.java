@@ -1,6 +1,6 @@
 package org.rakdao.utils;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class UserGenerator {
     private static final String[] FIRST_NAMES = {
@@ -40,27 +40,25 @@ public class UserGenerator {
             "NeoWare", "InnoByte", "OptiTech", "CoreFusion", "CyberNest"
     };
 
+    /** Next unique user, taken from the pre-generated {@link UserPool}. */
     public static User generateUser() {
-        Random random = new Random();
+        return UserPool.getInstance().take();
+    }
+
+    /**
+     * User number {@code count} (a CounterUtil value) for {@code seed}: the same pair always
+     * gives the same user, and the mobile is a permutation of the count, so two counts never
+     * share a mobile and the email a.aldar+count@ is unique as well.
+     */
+    public static User createUser(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + count);
 
         String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
         String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
         String companyName = COMPANY_NAMES[random.nextInt(COMPANY_NAMES.length)];
-        String mobileNumber = generateRandomMobileNumber();
-
-        int count = CounterUtil.getNextCount();
+        String mobileNumber = "05" + PhoneUtil.permutedDigits(count, 8, seed);
         String email = "a.aldar+" + count + "@innovationcity.com";
 
         return new User(firstName, lastName, companyName, mobileNumber, email);
     }
-
-    private static String generateRandomMobileNumber() {
-        Random random = new Random();
-        StringBuilder mobile = new StringBuilder("05");
-        for (int i = 0; i < 8; i++) {
-            mobile.append(random.nextInt(10));
-        }
-        return mobile.toString();
-    }
 }
-
@@ -0,0 +1,160 @@
+package org.rakdao.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Test users generated ahead of time. A daemon thread keeps up to testData.poolSize users
+ * ready (see {@link UserGenerator#createUser(long, int)}: unique counter, email and mobile,
+ * reproducible from testData.seed); test threads take them from a lock-free queue and only
+ * generate inline when the queue has run dry. Every issued user is remembered so the run
+ * can export them (testData.exportFile) for cleanup of the leads it created.
+ */
+public class UserPool {
+
+    private static final Logger log = LoggerUtil.getLogger(UserPool.class);
+
+    private static volatile UserPool instance;
+
+    private final long seed;
+    private final int capacity;
+    private final Path exportFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Queue<User> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readyCount = new AtomicInteger();
+    private final Queue<User> issued = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger misses = new AtomicInteger();
+    // True while the filler runs or has been woken; takers unpark it only on the false -> true edge
+    private final AtomicBoolean filling = new AtomicBoolean(true);
+    private final Thread filler;
+
+    /** Separate pool, e.g. for a verification run; tests take their users from {@link #getInstance()}. */
+    public UserPool(long seed, int capacity, Path exportFile) {
+        this.seed = seed;
+        this.capacity = capacity;
+        this.exportFile = exportFile;
+        this.filler = new Thread(this::fill, "user-pool-filler");
+        filler.setDaemon(true);
+        filler.start();
+    }
+
+    public static UserPool getInstance() {
+        UserPool pool = instance;
+        if (pool == null) {
+            synchronized (UserPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    TestConfig config = TestConfig.getInstance();
+                    pool = new UserPool(config.getTestDataSeed(), config.getTestDataPoolSize(),
+                            Paths.get(config.getTestDataExportFile()));
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /** Next unused user; never blocks on the filler thread. */
+    public User take() {
+        User user = ready.poll();
+        if (user != null) {
+            if (readyCount.decrementAndGet() <= capacity / 2) {
+                wakeFiller();
+            }
+        } else {
+            misses.incrementAndGet();
+            user = UserGenerator.createUser(seed, CounterUtil.getNextCount());
+            wakeFiller();
+        }
+        issued.add(user);
+        return user;
+    }
+
+    private void wakeFiller() {
+        if (!filling.get() && filling.compareAndSet(false, true)) {
+            LockSupport.unpark(filler);
+        }
+    }
+
+    /** Users ready in the queue right now. */
+    public int getReadyCount() {
+        return readyCount.get();
+    }
+
+    /** Users generated inline because the queue had run dry. */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /** Users handed out so far, in order of issue. */
+    public List<User> getIssued() {
+        return new ArrayList<>(issued);
+    }
+
+    /** Writes the issued users of this JVM, if any, as a JSON array to testData.exportFile. */
+    public static void exportIssued() {
+        UserPool pool = instance;
+        if (pool == null || pool.issued.isEmpty()) return;
+        pool.export();
+    }
+
+    /** Writes the users issued by this pool as a JSON array to its export file. */
+    public void export() {
+        List<User> users = getIssued();
+        try {
+            Path parent = exportFile.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(exportFile.toFile(), users);
+            log.info("👥 Exported {} issued test user(s) to '{}' ({} generated inline on an empty pool)",
+                    users.size(), exportFile, misses.get());
+        } catch (IOException e) {
+            log.error("❌ Failed to export issued test users to '{}'", exportFile, e);
+        }
+    }
+
+    /**
+     * Tops the queue up to capacity, then sleeps until a taker drains it below half.
+     * After a failure it retries with a doubling delay (up to 30 s) instead of spinning.
+     */
+    private void fill() {
+        long backoffMs = 0;
+        while (true) {
+            try {
+                while (readyCount.get() < capacity) {
+                    ready.add(UserGenerator.createUser(seed, CounterUtil.getNextCount()));
+                    readyCount.incrementAndGet();
+                }
+                if (backoffMs > 0) {
+                    log.info("[fill] User pool generating users again");
+                    backoffMs = 0;
+                }
+            } catch (RuntimeException e) {
+                // Counter file unavailable: takers generate inline and report the error themselves
+                if (backoffMs == 0) {
+                    log.warn("⚠️ [fill] User pool could not generate users, retrying with backoff: {}", e.getMessage());
+                }
+                backoffMs = backoffMs == 0 ? 500 : Math.min(backoffMs * 2, 30_000);
+                // filling stays set, so takers don't wake the filler before the delay is over
+                LockSupport.parkNanos(this, backoffMs * 1_000_000);
+                continue;
+            }
+            filling.set(false);
+            // A taker may have drained the queue before the flag was cleared: check once more before sleeping
+            if (readyCount.get() > capacity / 2 || !filling.compareAndSet(false, true)) {
+                LockSupport.park(this);
+            }
+        }
+    }
+}
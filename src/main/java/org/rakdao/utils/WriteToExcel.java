@@ -1,17 +1,32 @@
 package org.rakdao.utils;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Records lead submissions to target/LeadRunData.xlsx (directory overridable with -DrunData.dir).
+ * Rows are buffered by a {@link RunDataSink} and journaled to target/LeadRunData.jsonl;
+ * the workbook is produced once by {@link #finish()} (or at JVM exit).
+ */
+public class WriteToExcel {
 
-import java.io.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+    private static final Path TARGET_DIR = Paths.get(System.getProperty("runData.dir",
+            Paths.get(System.getProperty("user.dir"), "target").toString()));
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-public class WriteToExcel {
+    private static final RunDataSink SINK = new RunDataSink(
+            TARGET_DIR.resolve("LeadRunData.jsonl"),
+            TARGET_DIR.resolve("LeadRunData.xlsx"),
+            new String[]{"Timestamp", "URL", "Enquiry Type", "First Name", "Last Name", "Email", "Mobile", "Status"},
+            ConfigReader.getInt("runData.batchSize", 50));
 
-    private static final String FILE_PATH = System.getProperty("user.dir") + "/target/LeadRunData.xlsx";
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SINK::finish, "run-data-finish"));
+    }
 
-    public static synchronized void writeRunData(
+    public static void writeRunData(
             String url,
             String enquiryType,
             String firstName,
@@ -20,54 +35,14 @@ public class WriteToExcel {
             String mobile,
             boolean status
     ) {
-        try {
-            File file = new File(FILE_PATH);
-            Workbook workbook;
-            Sheet sheet;
-
-            if (file.exists()) {
-                FileInputStream fis = new FileInputStream(file);
-                workbook = new XSSFWorkbook(fis);
-                sheet = workbook.getSheetAt(0);
-                fis.close();
-            } else {
-                workbook = new XSSFWorkbook();
-                sheet = workbook.createSheet("RunData");
-
-                // Create header row
-                Row header = sheet.createRow(0);
-                header.createCell(0).setCellValue("Timestamp");
-                header.createCell(1).setCellValue("URL");
-                header.createCell(2).setCellValue("Enquiry Type");
-                header.createCell(3).setCellValue("First Name");
-                header.createCell(4).setCellValue("Last Name");
-                header.createCell(5).setCellValue("Email");
-                header.createCell(6).setCellValue("Mobile");
-                header.createCell(7).setCellValue("Status");
-            }
-
-            // Append new row
-            int lastRow = sheet.getLastRowNum();
-            Row row = sheet.createRow(lastRow + 1);
-
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-            row.createCell(0).setCellValue(timestamp);
-            row.createCell(1).setCellValue(url);
-            row.createCell(2).setCellValue(enquiryType);
-            row.createCell(3).setCellValue(firstName);
-            row.createCell(4).setCellValue(lastName);
-            row.createCell(5).setCellValue(email);
-            row.createCell(6).setCellValue(mobile);
-            row.createCell(7).setCellValue(status ? "SUCCESS" : "FAIL");
-
-            // Write file
-            FileOutputStream fos = new FileOutputStream(FILE_PATH);
-            workbook.write(fos);
-            fos.close();
-            workbook.close();
+        SINK.append(
+                LocalDateTime.now().format(TIMESTAMP),
+                url, enquiryType, firstName, lastName, email, mobile,
+                status ? "SUCCESS" : "FAIL");
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    /** Flush buffered rows and (re)build the workbook. Safe to call more than once. */
+    public static void finish() {
+        SINK.finish();
     }
 }
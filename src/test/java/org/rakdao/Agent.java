@@ -1,11 +1,10 @@
 package org.rakdao;
 
+import org.openqa.selenium.WebDriver;
 import org.rakdao.base.BaseClass;
 import org.rakdao.pageObjects.HomePage;
 import org.rakdao.pageObjects.LeadPage;
-import org.rakdao.pageObjects.LoginPage;
 import org.rakdao.pageObjects.OpportunityPage;
-import org.rakdao.utils.ConfigReader;
 import org.rakdao.utils.LoggerUtil;
 import org.rakdao.utils.User;
 import org.rakdao.utils.UserGenerator;
@@ -17,11 +16,6 @@ import java.io.IOException;
 public class Agent extends BaseClass {
     private static final Logger log = LoggerUtil.getLogger(Agent.class);
 
-    private LoginPage loginPage;
-    private HomePage homePage;
-    private LeadPage leadPage;
-    private OpportunityPage opportunityPage;
-
     @Test
     public void newStandardIncorporate() throws IOException, InterruptedException {
         try {
@@ -31,18 +25,14 @@ public class Agent extends BaseClass {
             User user = UserGenerator.generateUser();
             log.info("Generated test user: {} {}", user.getFirstName(), user.getLastName());
 
-            // 🔐 Login
-            loginPage = new LoginPage(driver);
-            loginPage.enterUsername(ConfigReader.get("adminUserName"));
-            loginPage.enterPassword(ConfigReader.get("adminPassword"));
-            loginPage.clickLogin();
-            log.info("✅ Login successful.");
+            // 🔐 Already logged in by BaseClass (cached session or UI login)
+            WebDriver driver = getDriver();
 
             // 🏠 Navigate to Leads tab
-            homePage = new HomePage(driver);
+            HomePage homePage = new HomePage(driver);
             homePage.clickNavigationTab("leads");  // from NavigationBar.json
             homePage.clickNewLeadButton();                // opens Lead modal
-            leadPage = homePage.goToLeadPage();     // switch control to LeadPage
+            LeadPage leadPage = homePage.goToLeadPage();     // switch control to LeadPage
 
             // 🧾 Lead creation steps
             leadPage.selectRecordType("Channel Partner");
@@ -68,14 +58,14 @@ public class Agent extends BaseClass {
             log.info("✅ Lead converted successfully.");
 
             // 💼 Open opportunity and continue
-            opportunityPage = leadPage.goToAccountContactOpportunity("Opportunity");
+            OpportunityPage opportunityPage = leadPage.goToAccountContactOpportunity("Opportunity");
             opportunityPage.clickAddProduct();
             opportunityPage.goToProductListingModal("Save");
             opportunityPage.chooseProductFromStandardBook("Standard Company / 1 visa / 1 year");
             opportunityPage.clickOnCta("Next");
-            Thread.sleep(2000);
+            opportunityPage.waitForPageIdle();
             opportunityPage.clickEditProductModalCta("Save");
-            Thread.sleep(2000);
+            opportunityPage.waitForPageIdle();
             opportunityPage.clickAddInventoryButton();
 
             // 🏢 Inventory selection logic
@@ -91,7 +81,7 @@ public class Agent extends BaseClass {
             opportunityPage.clickOpportunityCompleteButton();
             log.info("✅ Product selection & Opportunity completion done.");
 
-            Thread.sleep(3000);
+            opportunityPage.waitForPageIdle();
             log.info("=== 🎉 Standard Incorporate Test Completed Successfully ===");
 
         } catch (Exception e) {
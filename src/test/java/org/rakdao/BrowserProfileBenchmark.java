@@ -0,0 +1,182 @@
+package org.rakdao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.rakdao.fixture.LocalFixtureServer;
+import org.rakdao.utils.BrowserProfile;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.DriverFactory;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares the browser profiles on the fixture landing page (fixture/media.html: images,
+ * web fonts, analytics): launch time, page-load time and memory per session.
+ * Each profile gets SESSIONS fresh sessions, each loading the page LOADS times.
+ * Writes target/browser-profile-benchmark.json.
+ * Run with: mvn test -Dtest=BrowserProfileBenchmark [-Dbenchmark.profiles=headless,fast]
+ * (the default profile opens a window, so leave it out on agents without a display).
+ */
+public class BrowserProfileBenchmark {
+
+    private static final Logger log = LoggerUtil.getLogger(BrowserProfileBenchmark.class);
+    private static final int SESSIONS = 3;
+    private static final int LOADS = 5;
+
+    private LocalFixtureServer server;
+    private final Map<String, ObjectNode> results = new LinkedHashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalFixtureServer().start();
+    }
+
+    @DataProvider
+    public Object[][] profiles() {
+        return Arrays.stream(System.getProperty("benchmark.profiles", "default,headless,fast").split(","))
+                .map(name -> new Object[]{BrowserProfile.named(name)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "profiles")
+    public void measureProfile(BrowserProfile profile) {
+        String browser = TestConfig.getInstance().getBrowser();
+        List<Double> launchMs = new ArrayList<>();
+        List<Double> getMs = new ArrayList<>();
+        List<Double> domReadyMs = new ArrayList<>();
+        List<Double> heapMb = new ArrayList<>();
+        List<Double> rssMb = new ArrayList<>();
+        server.resetAssetHits();
+
+        for (int session = 0; session < SESSIONS; session++) {
+            long start = System.nanoTime();
+            DriverFactory.initDriver(browser, profile);
+            launchMs.add((System.nanoTime() - start) / 1e6);
+            WebDriver driver = DriverFactory.getDriver();
+            try {
+                for (int load = 0; load < LOADS; load++) {
+                    start = System.nanoTime();
+                    driver.get(server.baseUrl() + "/media?load=" + load);
+                    getMs.add((System.nanoTime() - start) / 1e6);
+                    Assert.assertTrue(driver.findElement(By.id("firstName")).isDisplayed(), "Form not rendered");
+                    domReadyMs.add(((Number) ((JavascriptExecutor) driver).executeScript(
+                            "return performance.getEntriesByType('navigation')[0].domContentLoadedEventEnd;")).doubleValue());
+                }
+                heapMb.add(jsHeapBytes(driver) / 1e6);
+                long rss = rssBytes(driver);
+                if (rss > 0) rssMb.add(rss / 1e6);
+            } finally {
+                DriverFactory.quitDriver(true);
+            }
+        }
+
+        Map<String, Long> hits = server.getAssetHits();
+        ObjectNode node = mapper.createObjectNode();
+        node.put("sessions", SESSIONS);
+        node.put("loadsPerSession", LOADS);
+        node.put("launchMs", median(launchMs));
+        node.put("pageLoadMs", median(getMs));
+        node.put("domContentLoadedMs", median(domReadyMs));
+        node.put("jsHeapMb", median(heapMb));
+        node.put("rssMb", rssMb.isEmpty() ? -1 : median(rssMb));
+        node.set("assetRequests", mapper.valueToTree(hits));
+        results.put(profile.getName(), node);
+
+        if (profile.isBlockResources() && !browser.equalsIgnoreCase("firefox")) {
+            Assert.assertEquals(hits.getOrDefault("png", 0L) + hits.getOrDefault("woff2", 0L) + hits.getOrDefault("js", 0L), 0L,
+                    "Blocked URL patterns still reached the server: " + hits);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void report() throws IOException {
+        server.close();
+        log.info("📊 Browser profile comparison ({} session(s) x {} load(s), medians):", SESSIONS, LOADS);
+        log.info(String.format("%-10s %10s %12s %12s %10s %10s  %s", "profile", "launch ms", "page load ms", "DCL ms", "heap MB", "RSS MB", "asset requests"));
+        ArrayNode rows = mapper.createArrayNode();
+        results.forEach((name, node) -> {
+            log.info(String.format("%-10s %10.0f %12.0f %12.0f %10.1f %10s  %s", name,
+                    node.get("launchMs").asDouble(), node.get("pageLoadMs").asDouble(), node.get("domContentLoadedMs").asDouble(),
+                    node.get("jsHeapMb").asDouble(),
+                    node.get("rssMb").asDouble() < 0 ? "n/a" : String.format("%.0f", node.get("rssMb").asDouble()),
+                    node.get("assetRequests")));
+            rows.add(mapper.createObjectNode().put("profile", name).setAll(node));
+        });
+        Path file = Paths.get(System.getProperty("user.dir"), "target", "browser-profile-benchmark.json");
+        Files.createDirectories(file.getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), rows);
+        log.info("Benchmark written to '{}'", file);
+    }
+
+    // ====== Measurements ======
+
+    private static double jsHeapBytes(WebDriver driver) {
+        if (DriverFactory.unwrap(driver) instanceof ChromiumDriver chromium) {
+            chromium.executeCdpCommand("Performance.enable", Map.of());
+            Object metrics = chromium.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+            for (Object metric : (List<?>) metrics) {
+                Map<?, ?> m = (Map<?, ?>) metric;
+                if ("JSHeapUsedSize".equals(m.get("name"))) return ((Number) m.get("value")).doubleValue();
+            }
+        }
+        Object used = ((JavascriptExecutor) driver).executeScript(
+                "return performance.memory ? performance.memory.usedJSHeapSize : 0;");
+        return ((Number) used).doubleValue();
+    }
+
+    /**
+     * Resident memory of all browser processes of the session (Linux only), found by the
+     * session's user-data-dir on their command line. Shared pages are counted per process,
+     * so this over-states absolute usage but is comparable between profiles.
+     */
+    private static long rssBytes(WebDriver driver) {
+        if (!(DriverFactory.unwrap(driver) instanceof RemoteWebDriver remote) || !Files.isDirectory(Paths.get("/proc"))) return -1;
+        Object chrome = remote.getCapabilities().getCapability("chrome");
+        if (chrome == null) chrome = remote.getCapabilities().getCapability("msedge");
+        if (!(chrome instanceof Map<?, ?> info) || info.get("userDataDir") == null) return -1;
+        String userDataDir = info.get("userDataDir").toString();
+
+        return ProcessHandle.allProcesses()
+                .filter(p -> p.info().commandLine().map(cmd -> cmd.contains(userDataDir)).orElse(false))
+                .mapToLong(p -> vmRssBytes(p.pid()))
+                .sum();
+    }
+
+    private static long vmRssBytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+            // process exited meanwhile
+        }
+        return 0;
+    }
+
+    private static double median(List<Double> values) {
+        if (values.isEmpty()) return 0;
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,79 @@
+package org.rakdao;
+
+import org.rakdao.api.LeadApiClient;
+import org.rakdao.api.OpportunityApiClient;
+import org.rakdao.api.SalesforceApi;
+import org.rakdao.fixture.SalesforceStubServer;
+import org.rakdao.utils.ConfigReader;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lead → conversion → product setup through the API only.
+ * Runs offline against {@link SalesforceStubServer} by default; -Dapi.live=true uses the
+ * org configured in config.properties (api.* keys).
+ * Run with: mvn test -Dtest=LeadApiFlow
+ */
+public class LeadApiFlow {
+
+    private static final Logger log = LoggerUtil.getLogger(LeadApiFlow.class);
+
+    private SalesforceStubServer stub;
+    private SalesforceApi api;
+
+    @BeforeClass
+    public void connect() {
+        if (Boolean.getBoolean("api.live")) {
+            api = SalesforceApi.fromConfig();
+        } else {
+            stub = new SalesforceStubServer().start();
+            api = SalesforceApi.login(stub.baseUrl(), "stub-client", "stub-secret",
+                    ConfigReader.get("adminUserName"), ConfigReader.get("adminPassword"), ConfigReader.get("api.version").trim());
+        }
+    }
+
+    @Test
+    public void prepareOpportunityWithProduct() {
+        long start = System.nanoTime();
+        LeadApiClient leads = new LeadApiClient(api);
+        OpportunityApiClient opportunities = new OpportunityApiClient(api);
+
+        User user = UserGenerator.generateUser();
+        String leadId = leads.createLead(user, "Customer", Map.of());
+        LeadApiClient.ConvertedLead converted = leads.convertLead(leadId, "Converted");
+        Assert.assertNotNull(converted.getOpportunityId(), "Conversion should create an Opportunity");
+
+        String lineItemId = opportunities.addProduct(converted.getOpportunityId(),
+                SalesforceStubServer.PRICEBOOK, SalesforceStubServer.PRODUCT, 1);
+
+        List<Map<String, Object>> lineItems = opportunities.getLineItems(converted.getOpportunityId());
+        Assert.assertEquals(lineItems.size(), 1);
+        Assert.assertEquals(lineItems.get(0).get("Id"), lineItemId);
+        Assert.assertNotNull(opportunities.getOpportunity(converted.getOpportunityId()).get("Pricebook2Id"),
+                "Opportunity should be linked to the price book");
+
+        log.info("✅ Opportunity {} prepared via API in {} ms", converted.getOpportunityId(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = ".*HTTP 401.*")
+    public void rejectsInvalidToken() {
+        // Same instance as the working session (stub or live org), with a token it never issued
+        SalesforceApi expired = SalesforceApi.withToken(api.getInstanceUrl(), "00Dexpired!invalid-token", api.getVersion());
+        new OpportunityApiClient(expired).getOpportunity("006000000000000");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (stub != null) stub.close();
+    }
+}
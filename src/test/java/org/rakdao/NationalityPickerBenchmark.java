@@ -0,0 +1,161 @@
+package org.rakdao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.rakdao.fixture.LocalFixtureServer;
+import org.rakdao.utils.BrowserProfile;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.DriverFactory;
+import org.rakdao.utils.LightningCombobox;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Times picking "India" from the 189-option Nationality picklist on the fixture page
+ * (fixture/combobox.html, Lightning markup) with the previous per-element approaches and
+ * with {@link LightningCombobox}. Reports the median wall time and WebDriver commands
+ * (each one an HTTP round trip to the driver) per selection and writes
+ * target/nationality-picker-benchmark.json. Commands are counted on a separate, untimed
+ * selection: the counting decorator proxies every returned element, which would dominate
+ * the getText-per-option timings. Timed selections run on the unwrapped session.
+ * Run with: mvn test -Dtest=NationalityPickerBenchmark [-Dbenchmark.profile=headless]
+ */
+public class NationalityPickerBenchmark {
+
+    private static final Logger log = LoggerUtil.getLogger(NationalityPickerBenchmark.class);
+    private static final int ITERATIONS = 10;
+    private static final String VALUE = "India";
+    private static final By NATIONALITY = By.xpath("//button[@name='Nationality' or @aria-label='Nationality']");
+    private static final String ITEMS_XPATH = "//lightning-base-combobox-item//span/span";
+
+    private LocalFixtureServer server;
+    private WebDriver driver;
+    private WebDriver counted;
+    private final AtomicInteger commands = new AtomicInteger();
+    private final Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+
+    @BeforeClass
+    public void start() {
+        server = new LocalFixtureServer().start();
+        DriverFactory.initDriver(TestConfig.getInstance().getBrowser(),
+                BrowserProfile.named(System.getProperty("benchmark.profile", "headless")));
+        WebDriverListener counter = new WebDriverListener() {
+            @Override
+            public void beforeAnyCall(Object target, Method method, Object[] args) {
+                commands.incrementAndGet();
+            }
+        };
+        // Raw session: with timings.enabled the StepTimingListener decorator proxies every element too
+        driver = DriverFactory.unwrap(DriverFactory.getDriver());
+        counted = new EventFiringDecorator<>(counter).decorate(driver);
+    }
+
+    @DataProvider
+    public Object[][] approaches() {
+        Map<String, BiConsumer<WebDriver, String>> approaches = new LinkedHashMap<>();
+        approaches.put("xpath-wait (previous LeadPage)", NationalityPickerBenchmark::selectByItemXpath);
+        approaches.put("getText-per-option (previous ReusableUtil)", NationalityPickerBenchmark::selectByOptionText);
+        approaches.put("LightningCombobox", (d, value) -> new LightningCombobox(d).select(NATIONALITY, value));
+        return approaches.entrySet().stream().map(e -> new Object[]{e.getKey(), e.getValue()}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "approaches")
+    public void measure(String name, BiConsumer<WebDriver, String> approach) {
+        // Untimed selection through the counting decorator, also warms up the page and the approach
+        counted.get(server.baseUrl() + "/combobox?run=counted");
+        commands.set(0);
+        approach.accept(counted, VALUE);
+        int calls = commands.get();
+        assertSelected(name);
+
+        List<Double> millis = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            driver.get(server.baseUrl() + "/combobox?run=" + i);
+            long start = System.nanoTime();
+            approach.accept(driver, VALUE);
+            millis.add((System.nanoTime() - start) / 1e6);
+            assertSelected(name);
+        }
+        Collections.sort(millis);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("medianMs", millis.get(millis.size() / 2));
+        result.put("maxMs", millis.get(millis.size() - 1));
+        result.put("webDriverCommands", calls);
+        results.put(name, result);
+    }
+
+    private void assertSelected(String name) {
+        Assert.assertEquals(driver.findElement(NATIONALITY).getAttribute("data-value"), VALUE, name + " did not select " + VALUE);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void report() throws IOException {
+        DriverFactory.quitDriver(true);
+        server.close();
+        log.info("📊 Nationality picker, '{}' ({} selection(s) each, medians):", VALUE, ITERATIONS);
+        log.info(String.format("%-45s %10s %10s %10s", "approach", "ms", "max ms", "commands"));
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode rows = mapper.createArrayNode();
+        results.forEach((name, r) -> {
+            log.info(String.format("%-45s %10.0f %10.0f %10d", name, r.get("medianMs"), r.get("maxMs"), r.get("webDriverCommands")));
+            rows.add(mapper.createObjectNode().put("approach", name).setAll((ObjectNode) mapper.valueToTree(r)));
+        });
+        Path file = Paths.get(System.getProperty("user.dir"), "target", "nationality-picker-benchmark.json");
+        Files.createDirectories(file.getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), rows);
+        log.info("Benchmark written to '{}'", file);
+    }
+
+    // ====== Previous implementations, kept here as the baseline ======
+
+    /** LeadPage.selectDropdownValue before LightningCombobox: click, wait for the option by XPath, click. */
+    private static void selectByItemXpath(WebDriver driver, String value) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        WebElement button = wait.until(ExpectedConditions.elementToBeClickable(driver.findElement(NATIONALITY)));
+        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", button);
+        button.click();
+        wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.xpath(ITEMS_XPATH)));
+        WebElement item = wait.until(ExpectedConditions.visibilityOfElementLocated(
+                By.xpath(String.format("%s[normalize-space(text())='%s']", ITEMS_XPATH, value))));
+        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", item);
+        item.click();
+    }
+
+    /** ReusableUtil.selectDropdownValue before the change: wait for all options, getText() on each. */
+    private static void selectByOptionText(WebDriver driver, String value) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        wait.until(ExpectedConditions.elementToBeClickable(NATIONALITY)).click();
+        List<WebElement> options = wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(By.xpath(ITEMS_XPATH)));
+        WebElement option = options.stream()
+                .filter(el -> el.getText().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("Option not found: " + value));
+        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", option);
+        option.click();
+    }
+}
@@ -0,0 +1,170 @@
+package org.rakdao;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.MailboxWatcher;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Checks {@link MailboxWatcher} against an embedded GreenMail IMAP server: every OTP mail
+ * lands in one inbox addressed to a different a.aldar+&lt;count&gt;@ plus-address, like the
+ * real shared test mailbox. Verifies concurrent waiters each get their own OTP, mail that
+ * arrives before the wait is kept, unknown recipients time out and the polling fallback
+ * works, and logs the delivery latency of IDLE and polling. Waits on the watcher's own
+ * signals (connected, OTP buffered) rather than fixed sleeps.
+ * Run with: mvn test -Dtest=OtpMailboxVerification
+ */
+public class OtpMailboxVerification {
+
+    private static final Logger log = LoggerUtil.getLogger(OtpMailboxVerification.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "secret";
+
+    private final AtomicInteger counter = new AtomicInteger(1000);
+    private final Session session = Session.getInstance(new Properties());
+    private GreenMail greenMail;
+
+    @BeforeClass
+    public void start() {
+        greenMail = new GreenMail(ServerSetupTest.IMAP.dynamicPort());
+        greenMail.start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stop() {
+        MailboxWatcher.closeAll();
+        greenMail.stop();
+    }
+
+    @Test
+    public void concurrentWaitersGetTheirOwnOtp() throws Exception {
+        GreenMailUser inbox = greenMail.setUser("idle@innovationcity.com", "idle", PASSWORD);
+        MailboxWatcher watcher = watcher("idle", true);
+
+        Map<String, String> sent = new LinkedHashMap<>();
+        Map<String, CompletableFuture<String>> awaited = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            String recipient = plusAddress();
+            sent.put(recipient, String.valueOf(100000 + i * 11111));
+            awaited.put(recipient, watcher.awaitOtp(recipient, TIMEOUT));
+        }
+        // Deliver in reverse order so the match cannot depend on arrival order
+        List<String> recipients = new ArrayList<>(sent.keySet());
+        Collections.reverse(recipients);
+        for (String recipient : recipients) {
+            inbox.deliver(otpMail(recipient, sent.get(recipient)));
+        }
+        for (String recipient : sent.keySet()) {
+            Assert.assertEquals(awaited.get(recipient).get(TIMEOUT.toSeconds(), TimeUnit.SECONDS), sent.get(recipient),
+                    "Wrong OTP for " + recipient);
+        }
+    }
+
+    @Test
+    public void otpSentBeforeTheWaitIsKept() throws Exception {
+        GreenMailUser inbox = greenMail.setUser("early@innovationcity.com", "early", PASSWORD);
+        String recipient = plusAddress();
+        inbox.deliver(otpMail(recipient, "246810"));
+        MailboxWatcher watcher = watcher("early", true);
+
+        // Mail that was already unread when the watcher connected
+        Assert.assertEquals(watcher.awaitOtp(recipient, TIMEOUT).get(TIMEOUT.toSeconds(), TimeUnit.SECONDS), "246810");
+
+        // Mail that arrives while nobody waits for it
+        String later = plusAddress();
+        inbox.deliver(otpMail(later, "135791"));
+        waitUntil(() -> watcher.hasUnclaimedOtp(later), "OTP for " + later + " to be buffered");
+        CompletableFuture<String> otp = watcher.awaitOtp(later.toUpperCase(), TIMEOUT);
+        Assert.assertTrue(otp.isDone(), "Buffered OTP should be returned at once");
+        Assert.assertEquals(otp.get(), "135791");
+    }
+
+    @Test
+    public void unknownRecipientTimesOut() throws Exception {
+        greenMail.setUser("quiet@innovationcity.com", "quiet", PASSWORD);
+        CompletableFuture<String> otp = watcher("quiet", true).awaitOtp(plusAddress(), Duration.ofMillis(500));
+        try {
+            otp.get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected a timeout");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException, "Unexpected failure: " + e.getCause());
+        }
+    }
+
+    @Test
+    public void deliveryLatencyIdleVersusPolling() throws Exception {
+        GreenMailUser idleInbox = greenMail.setUser("push@innovationcity.com", "push", PASSWORD);
+        GreenMailUser pollInbox = greenMail.setUser("poll@innovationcity.com", "poll", PASSWORD);
+        long idleMs = latency(idleInbox, watcher("push", true));
+        long pollMs = latency(pollInbox, watcher("poll", false));
+        // Wall-clock numbers depend on the machine: logged, not asserted
+        log.info("📊 OTP delivery latency (median of 5): IDLE {} ms, polling every 2000 ms {} ms", idleMs, pollMs);
+    }
+
+    private long latency(GreenMailUser inbox, MailboxWatcher watcher) throws Exception {
+        Assert.assertTrue(watcher.awaitConnected(TIMEOUT), "Watcher did not connect within " + TIMEOUT.toMillis() + " ms");
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String recipient = plusAddress();
+            String code = String.valueOf(900000 + i);
+            CompletableFuture<String> otp = watcher.awaitOtp(recipient, TIMEOUT);
+            long start = System.nanoTime();
+            inbox.deliver(otpMail(recipient, code));
+            Assert.assertEquals(otp.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS), code);
+            millis.add((System.nanoTime() - start) / 1_000_000);
+        }
+        Collections.sort(millis);
+        return millis.get(millis.size() / 2);
+    }
+
+    private static void waitUntil(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) Assert.fail("Timed out waiting for " + what);
+            Thread.sleep(20);
+        }
+    }
+
+    private MailboxWatcher watcher(String login, boolean idle) {
+        return MailboxWatcher.connect("imap", "127.0.0.1", greenMail.getImap().getPort(), login, PASSWORD,
+                Duration.ofSeconds(2), idle);
+    }
+
+    private String plusAddress() {
+        return "a.aldar+" + counter.incrementAndGet() + "@innovationcity.com";
+    }
+
+    private MimeMessage otpMail(String recipient, String otp) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@innovationcity.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(recipient));
+        message.setSubject("Verify your email");
+        message.setText("Your verification code is " + otp + ". It expires in 10 minutes.");
+        return message;
+    }
+}
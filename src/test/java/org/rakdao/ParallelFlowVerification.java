@@ -0,0 +1,102 @@
+package org.rakdao;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.rakdao.fixture.LocalFixtureServer;
+import org.rakdao.pageObjects.website.WebLeadFormPageObjects;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.DriverFactory;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs 8 lead-form flows at once against {@link LocalFixtureServer} and checks that no
+ * flow sees another flow's browser, page objects or data.
+ * Run with: mvn test -Pparallel -Dsuite=src/test/resources/testng-parallel-verification.xml -Dheadless=true
+ */
+public class ParallelFlowVerification {
+
+    private static final Logger log = LoggerUtil.getLogger(ParallelFlowVerification.class);
+    private static final int FLOWS = 8;
+    private static final int ENQUIRY_TYPES = 2; // options in fixture/contact.html, "Select" excluded
+
+    private LocalFixtureServer server;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalFixtureServer().start();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        DriverFactory.initDriver(TestConfig.getInstance().getBrowser());
+    }
+
+    @Test(dataProvider = "flows")
+    public void leadFlowIsIsolated(int flow) {
+        WebDriver driver = DriverFactory.getDriver();
+        sessions.add(((RemoteWebDriver) DriverFactory.unwrap(driver)).getSessionId().toString());
+        threads.add(Thread.currentThread().getName());
+
+        User user = UserGenerator.generateUser();
+        String lastName = "Flow" + flow;
+        driver.get(server.baseUrl() + "/contact?flow=" + flow);
+
+        WebLeadFormPageObjects leadFormPage = new WebLeadFormPageObjects(driver);
+        Assert.assertTrue(leadFormPage.submitLeadForAllEnquiryTypes(user.getFirstName(), lastName),
+                "Flow " + flow + " had failed submissions");
+
+        Assert.assertSame(DriverFactory.getDriver(), driver, "Flow " + flow + " lost its driver mid-test");
+        List<Map<String, String>> mine = server.getSubmissions().stream()
+                .filter(s -> lastName.equals(s.get("lastName")))
+                .collect(Collectors.toList());
+        Assert.assertEquals(mine.size(), ENQUIRY_TYPES, "Flow " + flow + " submission count");
+        for (Map<String, String> submission : mine) {
+            Assert.assertEquals(submission.get("flow"), String.valueOf(flow),
+                    "Flow " + flow + " typed into another flow's page: " + submission);
+            Assert.assertEquals(submission.get("firstName"), user.getFirstName(),
+                    "Flow " + flow + " submitted another flow's data: " + submission);
+        }
+        log.info("✅ Flow {} isolated on thread {}", flow, Thread.currentThread().getName());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        DriverFactory.quitDriver(result.isSuccess());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void verifyConcurrency() {
+        try {
+            log.info("Parallel verification used {} browser session(s) on {} thread(s)", sessions.size(), threads.size());
+            Assert.assertEquals(sessions.size(), FLOWS, "Each flow should get its own browser session");
+            Assert.assertEquals(server.getSubmissions().size(), FLOWS * ENQUIRY_TYPES, "Total submissions");
+            Set<String> emails = server.getSubmissions().stream().map(s -> s.get("email")).collect(Collectors.toSet());
+            Assert.assertEquals(emails.size(), FLOWS * ENQUIRY_TYPES, "Emails from CounterUtil must be unique");
+        } finally {
+            server.close();
+        }
+    }
+
+    @DataProvider(name = "flows", parallel = true)
+    public Object[][] flows() {
+        Object[][] flows = new Object[FLOWS][];
+        for (int i = 0; i < FLOWS; i++) {
+            flows[i] = new Object[]{i + 1};
+        }
+        return flows;
+    }
+}
@@ -1,96 +1,43 @@
 package org.rakdao;
 
+import org.rakdao.api.LeadApiClient;
+import org.rakdao.api.SalesforceApi;
 import org.rakdao.base.BaseClass;
+import org.rakdao.flow.FlowContext;
+import org.rakdao.flow.StagedFlow;
 import org.rakdao.pageObjects.*;
-import org.rakdao.utils.ConfigReader;
 import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.RetryAnalyzer;
 import org.rakdao.utils.User;
 import org.rakdao.utils.UserGenerator;
 import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
-import java.io.IOException;
+import java.util.Map;
 
 public class StandardIncorporate extends BaseClass {
     private static final Logger log = LoggerUtil.getLogger(StandardIncorporate.class);
 
-    private LoginPage loginPage;
-    private HomePage homePage;
-    private LeadPage leadPage;
-    private OpportunityPage opportunityPage;
-
-    @Test
-    public void newStandardIncorporate() throws IOException, InterruptedException {
+    /**
+     * Lead → Opportunity → products → inventory → closing, as checkpointed stages.
+     * A retry resumes at the failed stage on the same Lead/Opportunity instead of creating new ones.
+     */
+    @Test(retryAnalyzer = RetryAnalyzer.class)
+    public void newStandardIncorporate() throws Exception {
         try {
             log.info("=== 🚀 Starting Standard Incorporate Test ===");
 
-            // 🧩 Generate random test data
-            User user = UserGenerator.generateUser();
-            log.info("Generated test user: {} {}", user.getFirstName(), user.getLastName());
-
-            // 🔐 Login
-            loginPage = new LoginPage(driver);
-            loginPage.enterUsername(ConfigReader.get("adminUserName"));
-            loginPage.enterPassword(ConfigReader.get("adminPassword"));
-            loginPage.clickLogin();
-            log.info("✅ Login successful.");
-
-            // 🏠 Navigate to Leads tab
-            homePage = new HomePage(driver);
-            homePage.clickNavigationTab("leads");  // from NavigationBar.json
-            homePage.clickNewLeadButton();                // opens Lead modal
-            leadPage = homePage.goToLeadPage();     // switch control to LeadPage
-
-            // 🧾 Lead creation steps
-            leadPage.selectRecordType("Customer");
-            leadPage.clickNext("Next");
-            leadPage.enterLeadDetails(
-                    user.getFirstName(),
-                    user.getLastName(),
-                    user.getCompany(),
-                    user.getEmail(),
-                    user.getMobile()
-            );
-            leadPage.selectEntityType("Standard Company");
-            leadPage.selectActivityGroup("Blockchain Development, DLT services & Software");
-            leadPage.selectNationality("India");
-
-            leadPage.clickRibbonCta("Save");
-            log.info("✅ Lead details entered and saved.");
-
-            // 🔄 Convert Lead → Opportunity
-            leadPage.convertLeadToOpportunity("Converted");
-            leadPage.clickMarkStageComplete();
-            leadPage.clickLeadModalCta("Convert");
-            log.info("✅ Lead converted successfully.");
-
-            // 💼 Open opportunity and continue
-            opportunityPage = leadPage.goToAccountContactOpportunity("Opportunity");
-            opportunityPage.clickAddProduct();
-            opportunityPage.goToProductListingModal("Save");
-            opportunityPage.chooseProductFromStandardBook("Standard Company / 1 visa / 1 year");
-            opportunityPage.clickOnCta("Next");
-            Thread.sleep(2000);
-            opportunityPage.clickEditProductModalCta("Save");
-            Thread.sleep(2000);
-            opportunityPage.clickAddInventoryButton();
-
-            // 🏢 Inventory selection logic
-            opportunityPage.ensureEntityType("Standard Company");
-            opportunityPage.ensureCustomerLookingFor("Co-Working Space");
-            opportunityPage.ensureResourceType("Shared Desk");
-            opportunityPage.clickGetInventoryButton();
-            opportunityPage.selectSpecificInventory();
-            opportunityPage.selectInventoryByRentalAmount("3000");
-            opportunityPage.clickAddSelectedInveButton();
-
-            // 🏁 Opportunity closure
-            opportunityPage.clickOpportunityStage("Closing");
-            opportunityPage.clickOpportunityCompleteButton();
-            opportunityPage.clickLinkBelowHeader("Primary Contact");
-            log.info("✅ Product selection & Opportunity completion done.");
-
-            Thread.sleep(3000);
+            // 🔐 Already logged in by BaseClass (cached session or UI login)
+            // Named after the runtime class, row and thread: the offline run and parallel invocations keep their own checkpoints
+            StagedFlow.forCurrentTest()
+                    .stage("createLead", this::createLead)
+                    .stage("convertLead", ctx -> openRecord("Lead", ctx.require("leadId")), this::convertLead)
+                    .stage("addProduct", this::openOpportunity, this::addProduct)
+                    .stage("addInventory", this::openOpportunity, this::addInventory)
+                    .stage("closeOpportunity", this::openOpportunity, this::closeOpportunity)
+                    .stage("openPrimaryContact", this::openOpportunity, this::openPrimaryContact)
+                    .run(getDriver());
+
             log.info("=== 🎉 Standard Incorporate Test Completed Successfully ===");
 
         } catch (Exception e) {
@@ -98,4 +45,122 @@ public class StandardIncorporate extends BaseClass {
             throw e;
         }
     }
+
+    /**
+     * Same Opportunity stages, starting from an Opportunity prepared through the API: the Lead is
+     * created and converted by {@link LeadApiClient} instead of the LeadPage steps, then opened by URL.
+     */
+    @Test(retryAnalyzer = RetryAnalyzer.class)
+    public void standardIncorporateFromApiLead() throws Exception {
+        log.info("=== 🚀 Starting Standard Incorporate Test (Opportunity prepared via API) ===");
+        StagedFlow.forCurrentTest()
+                .stage("prepareOpportunity", this::prepareOpportunity)
+                .stage("addProduct", this::openOpportunity, this::addProduct)
+                .stage("addInventory", this::openOpportunity, this::addInventory)
+                .stage("closeOpportunity", this::openOpportunity, this::closeOpportunity)
+                .stage("openPrimaryContact", this::openOpportunity, this::openPrimaryContact)
+                .run(getDriver());
+        log.info("=== 🎉 Standard Incorporate Test (API-prepared) Completed Successfully ===");
+    }
+
+    /** Creates and converts a Customer Lead through the Salesforce API (api.* keys in config.properties). */
+    protected void prepareOpportunity(FlowContext ctx) {
+        User user = UserGenerator.generateUser();
+        LeadApiClient leads = new LeadApiClient(SalesforceApi.fromConfig());
+        String leadId = leads.createLead(user, "Customer", Map.of());
+        LeadApiClient.ConvertedLead converted = leads.convertLead(leadId, "Converted");
+        ctx.put("leadId", leadId);
+        ctx.put("opportunityId", converted.getOpportunityId());
+        log.info("✅ Opportunity {} prepared via API for {} {}", converted.getOpportunityId(),
+                user.getFirstName(), user.getLastName());
+    }
+
+    // 🧾 Lead creation steps
+    private void createLead(FlowContext ctx) throws Exception {
+        // 🧩 Generate random test data
+        User user = UserGenerator.generateUser();
+        log.info("Generated test user: {} {}", user.getFirstName(), user.getLastName());
+
+        // 🏠 Navigate to Leads tab
+        HomePage homePage = new HomePage(ctx.getDriver());
+        homePage.clickNavigationTab("leads");  // from NavigationBar.json
+        homePage.clickNewLeadButton();                // opens Lead modal
+        LeadPage leadPage = homePage.goToLeadPage();     // switch control to LeadPage
+
+        leadPage.selectRecordType("Customer");
+        leadPage.clickNext("Next");
+        leadPage.enterLeadDetails(
+                user.getFirstName(),
+                user.getLastName(),
+                user.getCompany(),
+                user.getEmail(),
+                user.getMobile()
+        );
+        leadPage.selectEntityType("Standard Company");
+        leadPage.selectActivityGroup("Blockchain Development, DLT services & Software");
+        leadPage.selectNationality("India");
+
+        leadPage.clickRibbonCta("Save");
+        ctx.put("leadId", ctx.awaitRecordId("Lead"));
+        ctx.put("leadName", user.getFirstName() + " " + user.getLastName());
+        log.info("✅ Lead details entered and saved.");
+    }
+
+    // 🔄 Convert Lead → Opportunity
+    private void convertLead(FlowContext ctx) {
+        LeadPage leadPage = new LeadPage(ctx.getDriver());
+        leadPage.convertLeadToOpportunity("Converted");
+        leadPage.clickMarkStageComplete();
+        leadPage.clickLeadModalCta("Convert");
+        log.info("✅ Lead converted successfully.");
+
+        // 💼 Open opportunity and continue
+        leadPage.goToAccountContactOpportunity("Opportunity");
+        ctx.put("opportunityId", ctx.awaitRecordId("Opportunity"));
+    }
+
+    // Ends with the save (its spinner gone = saved): a failure after it would make the retry add a second line item
+    private void addProduct(FlowContext ctx) {
+        OpportunityPage opportunityPage = new OpportunityPage(ctx.getDriver());
+        opportunityPage.clickAddProduct();
+        opportunityPage.goToProductListingModal("Save");
+        opportunityPage.chooseProductFromStandardBook("Standard Company / 1 visa / 1 year");
+        opportunityPage.clickOnCta("Next");
+        opportunityPage.waitForPageIdle();
+        opportunityPage.clickEditProductModalCta("Save");
+    }
+
+    // 🏢 Inventory selection logic; the selection lives in the modal, so it shares the stage with its save, which comes last
+    private void addInventory(FlowContext ctx) {
+        OpportunityPage opportunityPage = new OpportunityPage(ctx.getDriver());
+        opportunityPage.waitForPageIdle(); // after addProduct's save (also done by the resume action)
+        opportunityPage.clickAddInventoryButton();
+        opportunityPage.ensureEntityType("Standard Company");
+        opportunityPage.ensureCustomerLookingFor("Co-Working Space");
+        opportunityPage.ensureResourceType("Shared Desk");
+        opportunityPage.clickGetInventoryButton();
+        opportunityPage.selectSpecificInventory();
+        opportunityPage.selectInventoryByRentalAmount("3000");
+        opportunityPage.clickAddSelectedInveButton();
+    }
+
+    // 🏁 Opportunity closure
+    private void closeOpportunity(FlowContext ctx) {
+        OpportunityPage opportunityPage = new OpportunityPage(ctx.getDriver());
+        opportunityPage.clickOpportunityStage("Closing");
+        opportunityPage.clickOpportunityCompleteButton();
+    }
+
+    private void openPrimaryContact(FlowContext ctx) {
+        OpportunityPage opportunityPage = new OpportunityPage(ctx.getDriver());
+        opportunityPage.clickLinkBelowHeader("Primary Contact");
+        log.info("✅ Product selection & Opportunity completion done.");
+        opportunityPage.waitForPageIdle();
+    }
+
+    /** Resume point of every Opportunity stage: the converted Opportunity's record page. */
+    protected void openOpportunity(FlowContext ctx) {
+        openRecord("Opportunity", ctx.require("opportunityId"));
+        new OpportunityPage(ctx.getDriver()).waitForPageIdle();
+    }
 }
@@ -0,0 +1,48 @@
+package org.rakdao;
+
+import org.rakdao.fixture.LocalFixtureServer;
+import org.rakdao.flow.FlowContext;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import java.util.Map;
+
+/**
+ * {@link StandardIncorporate} against the Lightning replica of {@link LocalFixtureServer}
+ * instead of the Salesforce sandbox: same page objects and stages, no network or org data.
+ * The API-prepared variant creates and converts its Lead directly in the replica.
+ * Latency and spinner time come from -Dfixture.latencyMs / -Dfixture.spinnerMs.
+ * Run with: mvn test -Dtest=StandardIncorporateOffline
+ */
+public class StandardIncorporateOffline extends StandardIncorporate {
+
+    private LocalFixtureServer server;
+
+    @BeforeClass
+    public void startFixture() {
+        server = new LocalFixtureServer().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFixture() {
+        server.close();
+    }
+
+    @Override
+    protected String baseUrl() {
+        return server.baseUrl() + "/lightning/page/home";
+    }
+
+    /** The replica keeps its own records: create and convert the Lead there instead of in an org. */
+    @Override
+    protected void prepareOpportunity(FlowContext ctx) {
+        User user = UserGenerator.generateUser();
+        String leadId = server.createRecord("Lead", Map.of("FirstName", user.getFirstName(),
+                "LastName", user.getLastName(), "Company", user.getCompany(), "Email", user.getEmail(),
+                "MobilePhone", user.getMobile(), "EntityType", "Standard Company"));
+        ctx.put("leadId", leadId);
+        ctx.put("opportunityId", String.valueOf(server.convertLead(leadId).get("opportunityId")));
+    }
+}
@@ -0,0 +1,153 @@
+package org.rakdao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.rakdao.utils.CounterUtil;
+import org.rakdao.utils.LoggerUtil;
+import org.rakdao.utils.PhoneUtil;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.User;
+import org.rakdao.utils.UserGenerator;
+import org.rakdao.utils.UserPool;
+import org.slf4j.Logger;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Checks the pre-generated test users of {@link UserPool}: parallel takers never get the
+ * same email or mobile and are mostly served from the pre-filled queue, the mobile/phone
+ * mapping is a permutation of the counter, the same seed and counter rebuild the same user,
+ * and the issued users are exported. Logs how often the former random mobiles collide
+ * (take cost: TestDataBenchmarks.generateUser in the jmh profile).
+ * Uses its own pool, exported to a temp file, and target/user-pool-verification/counter.txt
+ * (like the JMH forks), so the run leaves counter.txt and testData.exportFile alone.
+ * Run with: mvn test -Dtest=UserPoolVerification
+ */
+public class UserPoolVerification {
+
+    private static final Logger log = LoggerUtil.getLogger(UserPoolVerification.class);
+    private static final int THREADS = 4;
+    private static final int USERS_PER_THREAD = 500;
+    private static final Path COUNTER_FILE = Paths.get("target", "user-pool-verification", "counter.txt");
+
+    static {
+        // Before anything loads CounterUtil; -Dcounter.file on the command line still wins
+        if (System.getProperty("counter.file") == null) {
+            System.setProperty("counter.file", COUNTER_FILE.toString());
+        }
+    }
+
+    private UserPool pool;
+    private Path exportFile;
+
+    @BeforeClass
+    public void createPool() throws Exception {
+        if (Paths.get("counter.txt").toAbsolutePath().equals(CounterUtil.getCounterFile().toAbsolutePath())) {
+            throw new SkipException("CounterUtil was loaded before this class could redirect it; run with -Dtest=UserPoolVerification");
+        }
+        Files.createDirectories(CounterUtil.getCounterFile().toAbsolutePath().getParent());
+        exportFile = Files.createTempFile("issued-users-", ".json");
+        exportFile.toFile().deleteOnExit();
+        TestConfig config = TestConfig.getInstance();
+        pool = new UserPool(config.getTestDataSeed(), config.getTestDataPoolSize(), exportFile);
+    }
+
+    @Test
+    public void parallelTakersGetUniqueUsers() throws Exception {
+        // Let the filler top the pool up, as it does while browsers start
+        int capacity = TestConfig.getInstance().getTestDataPoolSize();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getReadyCount() < capacity && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(pool.getReadyCount(), capacity, "Pool not filled within 5 s");
+
+        List<List<User>> perThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<User> users = new ArrayList<>();
+            perThread.add(users);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < USERS_PER_THREAD; i++) {
+                    users.add(pool.take());
+                }
+            }, "taker-" + t));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join();
+
+        Set<String> emails = new HashSet<>();
+        Set<String> mobiles = new HashSet<>();
+        for (List<User> users : perThread) {
+            for (User user : users) {
+                Assert.assertTrue(emails.add(user.getEmail()), "Duplicate email " + user.getEmail());
+                Assert.assertTrue(mobiles.add(user.getMobile()), "Duplicate mobile " + user.getMobile());
+                Assert.assertTrue(user.getMobile().matches("05\\d{8}"), "Bad mobile " + user.getMobile());
+            }
+        }
+        int issued = pool.getIssued().size();
+        int fromQueue = issued - pool.getMisses();
+        Assert.assertEquals(issued, THREADS * USERS_PER_THREAD);
+        // Back-to-back takers outrun the filler, but the pre-filled users must come off the lock-free queue
+        Assert.assertTrue(fromQueue >= capacity, "Only " + fromQueue + " of " + issued + " users came from the pool");
+        log.info("👥 {} users on {} threads: all emails and mobiles unique, {} from the pool ({}%), {} generated inline",
+                emails.size(), THREADS, fromQueue, fromQueue * 100 / issued, pool.getMisses());
+    }
+
+    @Test
+    public void mobilesAreAPermutationOfTheCounter() {
+        long seed = TestConfig.getInstance().getTestDataSeed();
+        // Every 7-digit phone for counts 0..10^7-1 exactly once
+        BitSet seen = new BitSet(10_000_000);
+        for (int count = 0; count < 10_000_000; count++) {
+            int value = Integer.parseInt(PhoneUtil.permutedDigits(count, 7, seed));
+            Assert.assertFalse(seen.get(value), "Phone digits repeated at count " + count);
+            seen.set(value);
+        }
+        Assert.assertEquals(seen.cardinality(), 10_000_000);
+
+        // The former random 8-digit mobiles, for comparison
+        int users = 20_000;
+        Set<String> random = new HashSet<>();
+        int collisions = 0;
+        for (int i = 0; i < users; i++) {
+            if (!random.add(String.format("05%08d", ThreadLocalRandom.current().nextInt(100_000_000)))) collisions++;
+        }
+        log.info("📊 Random mobiles: {} collision(s) in {} users; permuted mobiles: 0 by construction", collisions, users);
+    }
+
+    @Test
+    public void sameSeedAndCountRebuildTheSameUser() {
+        User first = UserGenerator.createUser(42, 123_456);
+        User again = UserGenerator.createUser(42, 123_456);
+        Assert.assertEquals(again.getFirstName(), first.getFirstName());
+        Assert.assertEquals(again.getLastName(), first.getLastName());
+        Assert.assertEquals(again.getCompany(), first.getCompany());
+        Assert.assertEquals(again.getMobile(), first.getMobile());
+        Assert.assertEquals(again.getEmail(), "a.aldar+123456@innovationcity.com");
+        Assert.assertNotEquals(UserGenerator.createUser(43, 123_456).getMobile(), first.getMobile(),
+                "Another seed should map the count elsewhere");
+    }
+
+    @Test(dependsOnMethods = "parallelTakersGetUniqueUsers")
+    public void issuedUsersAreExported() throws Exception {
+        pool.take();
+        pool.export();
+
+        JsonNode exported = new ObjectMapper().readTree(exportFile.toFile());
+        Assert.assertEquals(exported.size(), pool.getIssued().size());
+        Assert.assertTrue(exported.get(0).hasNonNull("email") && exported.get(0).hasNonNull("mobile"));
+    }
+}
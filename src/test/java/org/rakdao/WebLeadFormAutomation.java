@@ -1,30 +1,26 @@
 package org.rakdao;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.rakdao.pageObjects.website.WebLeadFormPageObjects;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.DriverFactory;
 import org.rakdao.utils.User;
 import org.rakdao.utils.UserGenerator;
+import org.rakdao.utils.WriteToExcel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 
-import java.time.Duration;
-
 public class WebLeadFormAutomation {
 
     private static final Logger logger = LoggerFactory.getLogger(WebLeadFormAutomation.class);
-    WebDriver driver;
-    WebLeadFormPageObjects leadFormPage;
 
-    @BeforeTest
+    // One browser per data-provider invocation, held in DriverFactory's ThreadLocal
+    @BeforeMethod
     public void setup() {
-        WebDriverManager.chromedriver().setup();
-        driver = new ChromeDriver();
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        DriverFactory.initDriver(TestConfig.getInstance().getBrowser());
     }
 
     @Test(dataProvider = "urls")
@@ -32,8 +28,9 @@ public class WebLeadFormAutomation {
         User user = UserGenerator.generateUser();
         logger.info("🌐 Starting lead submission for URL: {}", url);
 
+        WebDriver driver = DriverFactory.getDriver();
         driver.get(url);
-        leadFormPage = new WebLeadFormPageObjects(driver);
+        WebLeadFormPageObjects leadFormPage = new WebLeadFormPageObjects(driver);
 
         boolean allSuccess = leadFormPage.submitLeadForAllEnquiryTypes(
                 user.getFirstName(), user.getLastName()
@@ -48,15 +45,18 @@ public class WebLeadFormAutomation {
         Assert.assertTrue(allSuccess, "❌ Some enquiry types failed during lead submission at " + url);
     }
 
-    @AfterTest
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-            logger.info("🛑 Browser closed after execution");
-        }
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        DriverFactory.quitDriver(result.isSuccess());
+        logger.info("🛑 Browser closed after execution");
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void writeRunReport() {
+        WriteToExcel.finish();
     }
 
-    @DataProvider(name = "urls")
+    @DataProvider(name = "urls", parallel = true)
     public Object[][] getURL() {
         return new Object[][]{
                 {"https://launchwith-staging.innovationcity.com/"},
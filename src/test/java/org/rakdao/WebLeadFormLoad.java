@@ -0,0 +1,48 @@
+package org.rakdao;
+
+import org.rakdao.load.LeadFormLoadWorker;
+import org.rakdao.load.LoadProfile;
+import org.rakdao.load.LoadReport;
+import org.rakdao.load.LoadRunner;
+import org.rakdao.utils.ConfigReader;
+import org.rakdao.utils.TestConfig;
+import org.rakdao.utils.WriteToExcel;
+import org.testng.Assert;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load mode for the website lead forms: load.workers headless browsers submit leads at
+ * load.flowsPerMinute (after load.rampUpSeconds) for load.durationSeconds.
+ * Writes target/load-report.json; fails when the error rate exceeds load.maxErrorRate.
+ * Run with: mvn test -Dtest=WebLeadFormLoad
+ */
+public class WebLeadFormLoad {
+
+    @Test
+    public void leadFormsUnderLoad() throws InterruptedException {
+        List<String> urls = Arrays.stream(ConfigReader.get("load.urls").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        String browser = TestConfig.getInstance().getBrowser();
+
+        LoadReport report = new LoadRunner(LoadProfile.fromConfig())
+                .run(() -> new LeadFormLoadWorker(browser, true, urls));
+        report.write(Paths.get(System.getProperty("user.dir"), "target", "load-report.json"));
+
+        double maxErrorRate = Double.parseDouble(ConfigReader.get("load.maxErrorRate").trim());
+        Assert.assertTrue(report.getCompletedFlows() > 0, "No flow completed");
+        Assert.assertTrue(report.getErrorRate() <= maxErrorRate,
+                String.format("Error rate %.1f%% above %.1f%%", report.getErrorRate() * 100, maxErrorRate * 100));
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void writeRunReport() {
+        WriteToExcel.finish();
+    }
+}
@@ -0,0 +1,38 @@
+package org.rakdao;
+
+import org.rakdao.fixture.LocalFixtureServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+
+/**
+ * {@link WebLeadFormAutomation} against the website pages of {@link LocalFixtureServer}:
+ * the LaunchWith landing page and the contact form, with and without UTM parameters.
+ * Run with: mvn test -Dtest=WebLeadFormOffline
+ */
+public class WebLeadFormOffline extends WebLeadFormAutomation {
+
+    private LocalFixtureServer server;
+
+    @BeforeClass
+    public void startFixture() {
+        server = new LocalFixtureServer().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFixture() {
+        server.close();
+    }
+
+    @Override
+    @DataProvider(name = "urls", parallel = true)
+    public Object[][] getURL() {
+        String base = server.baseUrl();
+        return new Object[][]{
+                {base + "/launchwith"},
+                {base + "/launchwith?utm_medium=cpc&utm_campaign=remarketing"},
+                {base + "/contact#contact"},
+                {base + "/contact?utm_source=fb-ig&utm_medium=paid-social&utm_campaign=remarketing"}
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package org.rakdao.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.By;
+import org.rakdao.pageObjects.BasePage;
+import org.rakdao.utils.JsonLocatorReader;
+import org.rakdao.utils.LocatorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares the old per-click "load + parse JSON, then build By list" path used by
+ * HomePage.clickNavigationTab with a LocatorRegistry lookup.
+ * Run with: mvn test -Dtest=LocatorLookupBenchmark
+ */
+public class LocatorLookupBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocatorLookupBenchmark.class);
+    private static final String NAV_BAR_JSON = System.getProperty("user.dir")
+            + "/src/main/java/org/rakdao/pageObjects/locators/NavigationBar.json";
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    public void registryLookupVersusLoadAndParse() throws IOException {
+        BasePage navBar = new BasePage(null, "NavigationBar");
+        Assert.assertEquals(navBar.getAllLocators("leadsTab"), legacyLoadAndBuild("leadsTab"));
+
+        for (int i = 0; i < WARMUP; i++) {
+            legacyLoadAndBuild("leadsTab");
+            navBar.getAllLocators("leadsTab");
+        }
+
+        long legacyStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyLoadAndBuild("leadsTab");
+        }
+        double legacyNs = (System.nanoTime() - legacyStart) / (double) ITERATIONS;
+
+        long registryStart = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += LocatorRegistry.getInstance().getLocators("NavigationBar", "leadsTab").size();
+        }
+        double registryNs = (System.nanoTime() - registryStart) / (double) ITERATIONS;
+
+        logger.info("Locator lookup over {} iterations: load+parse {} ns/op, registry {} ns/op ({}x faster)",
+                ITERATIONS, String.format("%.0f", legacyNs), String.format("%.0f", registryNs),
+                String.format("%.0f", legacyNs / registryNs));
+        Assert.assertEquals(sink, ITERATIONS * 3);
+    }
+
+    /** The pre-registry path: read and parse the file, then build the By list. */
+    private static List<By> legacyLoadAndBuild(String key) throws IOException {
+        JsonNode rootNode = new ObjectMapper().readTree(new File(NAV_BAR_JSON));
+        JsonNode element = rootNode.get("NavigationBar").get(key);
+
+        List<By> locators = new ArrayList<>();
+        locators.add(JsonLocatorReader.buildBy(Map.of(
+                "locatorType", element.get("locatorType").asText(),
+                "locatorValue", element.get("locatorValue").asText())));
+        for (JsonNode fb : element.get("fallback")) {
+            locators.add(JsonLocatorReader.buildBy(Map.of(
+                    "locatorType", fb.get("locatorType").asText(),
+                    "locatorValue", fb.get("locatorValue").asText())));
+        }
+        return locators;
+    }
+}
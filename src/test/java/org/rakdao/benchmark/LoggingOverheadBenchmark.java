@@ -0,0 +1,167 @@
+package org.rakdao.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.util.ContextInitializer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.rakdao.utils.ElementDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logging cost of one ReusableUtil.click (its two log lines) on a PageFactory element,
+ * before and after the async/JSON change: the previous synchronous file appender with the
+ * element's toString(), which locates the element first, against the async FILE + JSON
+ * appenders with MDC and {@link ElementDescription}. The element sits on a stub driver
+ * that counts findElement calls; each one is a browser round trip in a real session.
+ * Clicks are paced (~5,000/s, still far above a real test) so the async queues are measured
+ * in use rather than permanently full; only the two log calls are timed. The findElement
+ * calls dominate in a real session (milliseconds each); the async hand-off itself is not
+ * cheaper than a page-cache file write, and can be dearer on a single CPU, but a stalled
+ * sink (slow console, network share) no longer blocks the test.
+ * Run with: mvn test -Dtest=LoggingOverheadBenchmark
+ */
+public class LoggingOverheadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOverheadBenchmark.class);
+    // Same logger name, so the same levels and appenders as the real helper
+    private static final Logger actionLog = LoggerFactory.getLogger("org.rakdao.utils.ReusableUtil");
+    private static final Path LOG_DIR = Paths.get(System.getProperty("user.dir"), "target", "logging-benchmark");
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+    private static final long PAUSE_NS = 200_000;
+
+    private final AtomicInteger findElementCalls = new AtomicInteger();
+
+    /** One PageFactory field, as in the page objects. */
+    public static class SavePage {
+        @FindBy(xpath = "//button[@name='SaveEdit']")
+        public WebElement save;
+    }
+
+    @Test
+    public void clickLoggingBeforeVersusAfter() throws Exception {
+        SavePage page = new SavePage();
+        PageFactory.initElements(new DefaultElementLocatorFactory(countingDriver()), page);
+        WebElement element = page.save;
+
+        double beforeNs;
+        double afterNs;
+        int beforeCalls;
+        int afterCalls;
+        try {
+            configure("logback-sync.xml");
+            for (int i = 0; i < WARMUP; i++) before(element);
+            findElementCalls.set(0);
+            beforeNs = measure(() -> before(element));
+            beforeCalls = findElementCalls.get();
+
+            configure("logback-async.xml");
+            MDC.put("test", "LoggingOverheadBenchmark.clickLoggingBeforeVersusAfter");
+            MDC.put("session", "0123456789abcdef");
+            MDC.put("step", "LeadPage.saveLead");
+            for (int i = 0; i < WARMUP; i++) after(element);
+            findElementCalls.set(0);
+            afterNs = measure(() -> after(element));
+            afterCalls = findElementCalls.get();
+        } finally {
+            MDC.clear();
+            restoreDefaultConfig(); // stops the async appenders, flushing what they still hold
+        }
+
+        long expected = 2L * (WARMUP + ITERATIONS);
+        logger.info("📊 Logging per click ({} clicks, 2 lines each):", ITERATIONS);
+        logger.info(String.format("%-48s %10s %16s %14s", "", "ns/click", "findElement/click", "lines written"));
+        logger.info(String.format("%-48s %10.0f %16.1f %8d/%d", "before: sync FILE + element.toString()",
+                beforeNs, beforeCalls / (double) ITERATIONS, lines("sync.log"), expected));
+        logger.info(String.format("%-48s %10.0f %16.1f %8d/%d", "after: async FILE + JSON, MDC, ElementDescription",
+                afterNs, afterCalls / (double) ITERATIONS, lines("async.log"), expected));
+        logger.info("JSON sample: {}", Files.readAllLines(LOG_DIR.resolve("async.json")).stream()
+                .filter(l -> l.contains("Clicking")).findFirst().orElse("(none)"));
+
+        Assert.assertEquals(beforeCalls, 2 * ITERATIONS, "toString() on a PageFactory proxy should locate the element");
+        Assert.assertEquals(afterCalls, 0, "ElementDescription should not touch the driver");
+    }
+
+    /** Mean time of one click's log calls, with a pause between clicks. */
+    private static double measure(Runnable click) {
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            click.run();
+            total += System.nanoTime() - start;
+            LockSupport.parkNanos(PAUSE_NS);
+        }
+        return total / (double) ITERATIONS;
+    }
+
+    private static void before(WebElement element) {
+        actionLog.info("Clicking on element: {}", element);
+        actionLog.info("Waiting for element to be clickable: {}", element);
+    }
+
+    private static void after(WebElement element) {
+        actionLog.info("Clicking on element: {}", ElementDescription.of(element));
+        actionLog.info("Waiting for element to be clickable: {}", ElementDescription.of(element));
+    }
+
+    /** Stub session: findElement returns an element whose toString() mimics RemoteWebElement. */
+    private SearchContext countingDriver() {
+        WebElement located = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> "toString".equals(method.getName())
+                        ? "[[ChromeDriver: chrome on linux (0123456789abcdef)] -> xpath: //button[@name='SaveEdit']]"
+                        : null);
+        return new SearchContext() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                findElementCalls.incrementAndGet();
+                return List.of(located);
+            }
+
+            @Override
+            public WebElement findElement(By by) {
+                findElementCalls.incrementAndGet();
+                return located;
+            }
+        };
+    }
+
+    private static void configure(String resource) throws Exception {
+        Files.createDirectories(LOG_DIR);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        context.putProperty("benchmark.logDir", LOG_DIR.toString());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(LoggingOverheadBenchmark.class.getResource("/logging-benchmark/" + resource));
+    }
+
+    private static void restoreDefaultConfig() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        new ContextInitializer(context).autoConfig();
+    }
+
+    private static long lines(String file) throws IOException {
+        try (var stream = Files.lines(LOG_DIR.resolve(file))) {
+            return stream.count();
+        }
+    }
+}
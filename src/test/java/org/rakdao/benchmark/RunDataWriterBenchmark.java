@@ -0,0 +1,118 @@
+package org.rakdao.benchmark;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.rakdao.utils.RunDataSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes rows through the old "load workbook, append, rewrite" path and through
+ * RunDataSink, 8 writer threads each, and reports the per-row cost.
+ * Run with: mvn test -Dtest=RunDataWriterBenchmark
+ * RunDataSink writes benchmark.rows (default 10k) rows. The old path is quadratic in
+ * row count (~75 s for 1k rows locally), so it writes benchmark.legacyRows (default 1k);
+ * pass -Dbenchmark.legacyRows=10000 for the full comparison if you can wait hours.
+ */
+public class RunDataWriterBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunDataWriterBenchmark.class);
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int LEGACY_ROWS = Integer.getInteger("benchmark.legacyRows", 1_000);
+    private static final int THREADS = 8;
+    private static final String[] HEADER =
+            {"Timestamp", "URL", "Enquiry Type", "First Name", "Last Name", "Email", "Mobile", "Status"};
+
+    @Test
+    public void sinkVersusWorkbookRewrite() throws Exception {
+        Path dir = Files.createTempDirectory("run-data-benchmark");
+
+        File legacyFile = dir.resolve("legacy.xlsx").toFile();
+        long legacyMs = timeWriters(LEGACY_ROWS, i -> legacyWriteRunData(legacyFile, row(i)));
+
+        RunDataSink sink = new RunDataSink(dir.resolve("sink.jsonl"), dir.resolve("sink.xlsx"), HEADER, 50);
+        long sinkStart = System.nanoTime();
+        timeWriters(ROWS, i -> sink.append(row(i)));
+        sink.finish();
+        long sinkMs = (System.nanoTime() - sinkStart) / 1_000_000;
+
+        logger.info("Workbook rewrite: {} rows in {} ms ({} ms/row)",
+                LEGACY_ROWS, legacyMs, String.format("%.3f", legacyMs / (double) LEGACY_ROWS));
+        logger.info("RunDataSink:      {} rows in {} ms incl. final xlsx ({} ms/row)",
+                ROWS, sinkMs, String.format("%.3f", sinkMs / (double) ROWS));
+
+        try (FileInputStream legacyIn = new FileInputStream(legacyFile);
+             FileInputStream streamedIn = new FileInputStream(dir.resolve("sink.xlsx").toFile());
+             Workbook legacy = new XSSFWorkbook(legacyIn);
+             Workbook streamed = new XSSFWorkbook(streamedIn)) {
+            Assert.assertEquals(legacy.getSheetAt(0).getLastRowNum(), LEGACY_ROWS);
+            Assert.assertEquals(streamed.getSheetAt(0).getLastRowNum(), ROWS);
+        }
+    }
+
+    private interface RowWriter {
+        void write(int i) throws Exception;
+    }
+
+    private static long timeWriters(int rows, RowWriter writer) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            int n = i;
+            pool.submit(() -> {
+                try {
+                    writer.write(n);
+                } catch (Exception e) {
+                    logger.error("Row {} failed", n, e);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String[] row(int i) {
+        return new String[]{"2025-01-01 00:00:00", "https://staging.innovationcity.com/#contact", "Business Setup",
+                "John", "Smith", "a.aldar+" + i + "@innovationcity.com", "0500000000", "SUCCESS"};
+    }
+
+    /** The previous WriteToExcel.writeRunData: load the workbook, append one row, rewrite the file. */
+    private static synchronized void legacyWriteRunData(File file, String[] values) throws IOException {
+        Workbook workbook;
+        Sheet sheet;
+        if (file.exists()) {
+            try (FileInputStream fis = new FileInputStream(file)) {
+                workbook = new XSSFWorkbook(fis);
+            }
+            sheet = workbook.getSheetAt(0);
+        } else {
+            workbook = new XSSFWorkbook();
+            sheet = workbook.createSheet("RunData");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADER.length; c++) header.createCell(c).setCellValue(HEADER[c]);
+        }
+
+        Row row = sheet.createRow(sheet.getLastRowNum() + 1);
+        for (int c = 0; c < values.length; c++) row.createCell(c).setCellValue(values[c]);
+
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            workbook.write(fos);
+        }
+        workbook.close();
+    }
+}
@@ -0,0 +1,272 @@
+package org.rakdao.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Server side of the Lightning replica served by {@link LocalFixtureServer}: the login
+ * form, the app shell for every /lightning/ URL (fixture/lightning.html, rendered in the
+ * browser by fixture/static/lightning.js) and the JSON API the shell calls for records,
+ * lead conversion, product search and the paginated inventory.
+ * Records live in memory for the lifetime of the server.
+ */
+final class LightningReplica {
+
+    private static final Logger log = LoggerUtil.getLogger(LightningReplica.class);
+
+    static final List<String> PRODUCTS = List.of(
+            "Standard Company / 1 visa / 1 year",
+            "Standard Company / 2 visas / 1 year",
+            "Standard Company / 1 visa / 2 years",
+            "Freezone Company / 1 visa / 1 year",
+            "Freezone Company / 3 visas / 1 year",
+            "Branch Office / 1 visa / 1 year");
+    static final int INVENTORY_PAGE_SIZE = 20;
+
+    private static final Map<String, String> KEY_PREFIXES = Map.of(
+            "Lead", "00Q", "Account", "001", "Contact", "003", "Opportunity", "006");
+    private static final Pattern RECORD_PATH = Pattern.compile("/fixture-api/records/(\\w+)(/products|/inventory)?");
+    private static final Pattern CONVERT_PATH = Pattern.compile("/fixture-api/leads/(\\w+)/convert");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Map<String, Object>> records = new ConcurrentHashMap<>();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final List<Map<String, Object>> inventory;
+    private final long spinnerMs;
+
+    LightningReplica(int inventoryRows, long spinnerMs) {
+        this.inventory = generateInventory(inventoryRows);
+        this.spinnerMs = spinnerMs;
+    }
+
+    Map<String, Object> getRecord(String id) {
+        Map<String, Object> record = records.get(id);
+        return record == null ? null : Map.copyOf(record);
+    }
+
+    List<Map<String, Object>> getRecords(String sObject) {
+        return records.values().stream()
+                .filter(r -> sObject.equals(r.get("sObject")))
+                .map(Map::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    // ====== Handlers ======
+
+    /** GET: login form. POST: any credentials start a session (cookie "sid") and redirect to startURL. */
+    void handleLogin(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            LocalFixtureServer.respond(exchange, 200, "text/html", resource("/fixture/login.html"));
+            return;
+        }
+        Map<String, String> form = LocalFixtureServer.parseForm(
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String sid = UUID.randomUUID().toString();
+        sessions.add(sid);
+        log.debug("Fixture login for '{}'", form.get("username"));
+
+        String startUrl = form.getOrDefault("startURL", "");
+        exchange.getResponseHeaders().add("Set-Cookie", "sid=" + sid + "; Path=/; HttpOnly");
+        redirect(exchange, startUrl.startsWith("/lightning/") ? startUrl : "/lightning/page/home");
+    }
+
+    /** Every /lightning/ URL gets the same app shell, which routes on location.pathname. */
+    void handleApp(HttpExchange exchange) throws IOException {
+        if (!sessions.contains(cookie(exchange, "sid"))) {
+            redirect(exchange, "/login?startURL=" + URLEncoder.encode(exchange.getRequestURI().getPath(), StandardCharsets.UTF_8));
+            return;
+        }
+        String config = mapper.writeValueAsString(Map.of("spinnerMs", spinnerMs));
+        LocalFixtureServer.respond(exchange, 200, "text/html",
+                resource("/fixture/lightning.html").replace("/*FIXTURE_CONFIG*/", "window.FIXTURE_CONFIG = " + config + ";"));
+    }
+
+    void handleApi(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        try {
+            Matcher record = RECORD_PATH.matcher(path);
+            Matcher convert = CONVERT_PATH.matcher(path);
+            if (path.equals("/fixture-api/records") && method.equals("POST")) {
+                Map<String, Object> body = body(exchange);
+                String id = insert(String.valueOf(body.remove("sObject")), body);
+                json(exchange, 201, Map.of("id", id));
+            } else if (record.matches()) {
+                Map<String, Object> existing = records.get(record.group(1));
+                if (existing == null) {
+                    json(exchange, 404, Map.of("error", "No record " + record.group(1)));
+                } else if (method.equals("GET")) {
+                    json(exchange, 200, existing);
+                } else if (record.group(2) == null) {
+                    putAll(existing, body(exchange));
+                    json(exchange, 200, existing);
+                } else {
+                    // Related lists: products / inventory units appended to the record
+                    String list = record.group(2).substring(1);
+                    List<Object> items = castList(body(exchange).get("items"));
+                    synchronized (existing) {
+                        List<Object> merged = new ArrayList<>(castList(existing.getOrDefault(list, List.of())));
+                        merged.addAll(items);
+                        existing.put(list, merged);
+                    }
+                    json(exchange, 200, existing);
+                }
+            } else if (convert.matches() && method.equals("POST")) {
+                json(exchange, 200, convert(convert.group(1)));
+            } else if (path.equals("/fixture-api/products")) {
+                String q = LocalFixtureServer.queryParam(exchange, "q").toLowerCase();
+                json(exchange, 200, PRODUCTS.stream().filter(p -> p.toLowerCase().contains(q)).collect(Collectors.toList()));
+            } else if (path.equals("/fixture-api/inventory")) {
+                json(exchange, 200, inventoryPage(LocalFixtureServer.queryParam(exchange, "resourceType"),
+                        LocalFixtureServer.queryParam(exchange, "page")));
+            } else {
+                json(exchange, 404, Map.of("error", "Unknown fixture API: " + method + " " + path));
+            }
+        } catch (IllegalArgumentException e) {
+            json(exchange, 400, Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ====== Records ======
+
+    String insert(String sObject, Map<String, Object> fields) {
+        String prefix = KEY_PREFIXES.get(sObject);
+        if (prefix == null) throw new IllegalArgumentException("Unsupported sObject: " + sObject);
+        String id = prefix + String.format("%012d", sequence.incrementAndGet());
+        Map<String, Object> record = new ConcurrentHashMap<>();
+        putAll(record, fields);
+        record.put("Id", id);
+        record.put("sObject", sObject);
+        records.put(id, record);
+        return id;
+    }
+
+    /** Lead → Account + Contact + Opportunity, like the standard Convert action. */
+    Map<String, Object> convert(String leadId) {
+        Map<String, Object> lead = records.get(leadId);
+        if (lead == null || !"Lead".equals(lead.get("sObject"))) throw new IllegalArgumentException("No lead " + leadId);
+        if ("Converted".equals(lead.get("Status"))) throw new IllegalArgumentException("Lead already converted: " + leadId);
+
+        String company = String.valueOf(lead.getOrDefault("Company", ""));
+        String contactName = (lead.getOrDefault("FirstName", "") + " " + lead.getOrDefault("LastName", "")).trim();
+        String accountId = insert("Account", new HashMap<>(Map.of("Name", company)));
+        String contactId = insert("Contact", new HashMap<>(Map.of("Name", contactName, "AccountId", accountId)));
+        String opportunityId = insert("Opportunity", new HashMap<>(Map.of(
+                "Name", company + "-", "AccountId", accountId, "AccountName", company,
+                "PrimaryContactId", contactId, "PrimaryContactName", contactName,
+                "EntityType", lead.getOrDefault("EntityType", ""), "StageName", "Qualification")));
+        lead.put("Status", "Converted");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accountId", accountId);
+        result.put("accountName", company);
+        result.put("contactId", contactId);
+        result.put("contactName", contactName);
+        result.put("opportunityId", opportunityId);
+        result.put("opportunityName", company + "-");
+        return result;
+    }
+
+    // ====== Inventory ======
+
+    /** Deterministic units; the first "3000" rental (the amount the flows pick) sits on page 3 of Shared Desks. */
+    private static List<Map<String, Object>> generateInventory(int rows) {
+        String[] types = {"Shared Desk", "Dedicated Desk", "Private Office"};
+        int[] amounts = {1500, 2000, 2500, 3500, 4500, 6000};
+        Random random = new Random(7);
+        List<Map<String, Object>> units = new ArrayList<>();
+        int sharedDesks = 0;
+        for (int i = 0; i < rows; i++) {
+            String type = types[i % types.length];
+            boolean target = type.equals("Shared Desk") && sharedDesks++ == 2 * INVENTORY_PAGE_SIZE + 7;
+            Map<String, Object> unit = new LinkedHashMap<>();
+            unit.put("unit", "IC-" + (1001 + i));
+            unit.put("resourceType", type);
+            unit.put("floor", String.valueOf(1 + i % 6));
+            unit.put("rentalAmount", String.valueOf(target ? 3000 : amounts[random.nextInt(amounts.length)]));
+            units.add(unit);
+        }
+        return units;
+    }
+
+    private Map<String, Object> inventoryPage(String resourceType, String pageParam) {
+        List<Map<String, Object>> matching = inventory.stream()
+                .filter(u -> resourceType.isEmpty() || resourceType.equals(u.get("resourceType")))
+                .collect(Collectors.toList());
+        int pages = Math.max(1, (matching.size() + INVENTORY_PAGE_SIZE - 1) / INVENTORY_PAGE_SIZE);
+        int page = pageParam.isEmpty() ? 1 : Math.min(pages, Math.max(1, Integer.parseInt(pageParam)));
+        int from = (page - 1) * INVENTORY_PAGE_SIZE;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", matching.size());
+        result.put("page", page);
+        result.put("pages", pages);
+        result.put("rows", matching.subList(from, Math.min(matching.size(), from + INVENTORY_PAGE_SIZE)));
+        return result;
+    }
+
+    // ====== Internals ======
+
+    private Map<String, Object> body(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readAllBytes();
+        if (bytes.length == 0) return new HashMap<>();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = mapper.readValue(bytes, Map.class);
+        return body;
+    }
+
+    /** JSON nulls clear a field (ConcurrentHashMap takes no null values). */
+    private static void putAll(Map<String, Object> record, Map<String, Object> fields) {
+        fields.forEach((k, v) -> {
+            if (v == null) record.remove(k); else record.put(k, v);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> castList(Object value) {
+        if (value == null) return List.of();
+        if (!(value instanceof List<?>)) throw new IllegalArgumentException("Expected a list but got " + value);
+        return (List<Object>) value;
+    }
+
+    private void json(HttpExchange exchange, int status, Object body) throws IOException {
+        LocalFixtureServer.respond(exchange, status, "application/json", mapper.writeValueAsBytes(body));
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String pair : header.split(";")) {
+                String[] kv = pair.trim().split("=", 2);
+                if (kv.length == 2 && kv[0].equals(name)) return kv[1];
+            }
+        }
+        return "";
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = LightningReplica.class.getResourceAsStream(path)) {
+            if (in == null) throw new IOException("Missing fixture resource " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.rakdao.fixture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small in-process web site for running flows without Salesforce or the public website.
+ * Serves the pages under src/test/resources/fixture/ and records every form POST to
+ * /submit, answering with a thank-you page shaped like the real one.
+ * Paths under /asset/ are generated page weight (PNG images, web fonts, a tracker script)
+ * served after fixture.assetDelayMs (default 200) to stand in for a CDN.
+ *
+ * <p>Website pages: /contact (staging contact form, also with ?utm_... parameters) and
+ * /launchwith (LaunchWith landing page). Salesforce pages: /login and a Lightning replica
+ * under /lightning/ (Leads list, New Lead modal, Lead path and conversion, Opportunity with
+ * Price Book / Add Products / Edit Products modals, Add Inventory with a paginated table,
+ * stage path), see {@link LightningReplica}. Every app page and API call is answered after
+ * fixture.latencyMs (default 50) and every Lightning action shows a spinner for at least
+ * fixture.spinnerMs (default 200); set both to 0 to measure the framework alone.
+ */
+public class LocalFixtureServer implements AutoCloseable {
+
+    private static final Logger log = LoggerUtil.getLogger(LocalFixtureServer.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Queue<Map<String, String>> submissions = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> assetHits = new ConcurrentHashMap<>();
+    private final long assetDelayMs = Long.getLong("fixture.assetDelayMs", 200);
+    private long latencyMs = Long.getLong("fixture.latencyMs", 50);
+    private long spinnerMs = Long.getLong("fixture.spinnerMs", 200);
+    private int inventoryRows = Integer.getInteger("fixture.inventoryRows", 388);
+    private volatile LightningReplica lightning;
+    private static volatile byte[] png;
+
+    public LocalFixtureServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start fixture server", e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/submit", this::handleSubmit);
+        server.createContext("/asset/", this::handleAsset);
+        server.createContext("/login", exchange -> delayed(exchange, e -> lightning.handleLogin(e)));
+        server.createContext("/lightning/", exchange -> delayed(exchange, e -> lightning.handleApp(e)));
+        server.createContext("/fixture-api/", exchange -> delayed(exchange, e -> lightning.handleApi(e)));
+        server.createContext("/", this::handleStatic);
+    }
+
+    /** Server response time of Lightning pages and API calls (before {@link #start()}). */
+    public LocalFixtureServer withLatency(Duration latency) {
+        this.latencyMs = latency.toMillis();
+        return this;
+    }
+
+    /** Minimum time the Lightning spinner stays up for every save, search and page fetch (before {@link #start()}). */
+    public LocalFixtureServer withSpinnerDelay(Duration spinner) {
+        this.spinnerMs = spinner.toMillis();
+        return this;
+    }
+
+    /** Units in the Add Inventory search, a third of them Shared Desks (before {@link #start()}). */
+    public LocalFixtureServer withInventoryRows(int rows) {
+        this.inventoryRows = rows;
+        return this;
+    }
+
+    public LocalFixtureServer start() {
+        lightning = new LightningReplica(inventoryRows, spinnerMs);
+        server.start();
+        log.info("Fixture server listening on {}", baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Every form submission received so far, as field name -> value. */
+    public List<Map<String, String>> getSubmissions() {
+        return new ArrayList<>(submissions);
+    }
+
+    /** Requests served under /asset/ per kind (png, woff2, js), since start or the last reset. */
+    public Map<String, Long> getAssetHits() {
+        Map<String, Long> hits = new TreeMap<>();
+        assetHits.forEach((kind, count) -> hits.put(kind, count.sum()));
+        return hits;
+    }
+
+    public void resetAssetHits() {
+        assetHits.clear();
+    }
+
+    /** Lightning record (Lead, Account, Contact, Opportunity) as saved through the replica, or null. */
+    public Map<String, Object> getRecord(String id) {
+        return lightning.getRecord(id);
+    }
+
+    public List<Map<String, Object>> getRecords(String sObject) {
+        return lightning.getRecords(sObject);
+    }
+
+    /** Inserts a record server-side, as test data prepared through an API would be; returns its id. */
+    public String createRecord(String sObject, Map<String, Object> fields) {
+        return lightning.insert(sObject, new HashMap<>(fields));
+    }
+
+    /** Converts a Lead server-side; returns the new ids (accountId, contactId, opportunityId, ...). */
+    public Map<String, Object> convertLead(String leadId) {
+        return lightning.convert(leadId);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ====== Handlers ======
+
+    private void handleStatic(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/")) path = "/contact.html";
+        if (!path.contains(".")) path += ".html";
+
+        try (InputStream in = LocalFixtureServer.class.getResourceAsStream("/fixture" + path)) {
+            if (in == null) {
+                respond(exchange, 404, "text/plain", "Not found: " + path);
+                return;
+            }
+            respond(exchange, 200, contentType(path), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void handleSubmit(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        submissions.add(Collections.unmodifiableMap(form));
+        log.debug("Fixture submission: {}", form);
+
+        // Landing pages name their own "back to home" target; the contact form returns to itself
+        String back = form.containsKey("back") ? form.get("back") : "/contact?flow=" + form.getOrDefault("flow", "");
+        respond(exchange, 200, "text/html",
+                "<!DOCTYPE html><html><body><div class=\"thankyou-content\">" +
+                "<h1>Thank you, " + escape(form.getOrDefault("firstName", "")) + "</h1>" +
+                "<a href=\"" + escape(back) + "\">Back to home</a></div></body></html>");
+    }
+
+    private void handleAsset(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String kind = path.substring(path.lastIndexOf('.') + 1);
+        assetHits.computeIfAbsent(kind, k -> new LongAdder()).increment();
+        try {
+            Thread.sleep(assetDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        switch (kind) {
+            case "png" -> respond(exchange, 200, "image/png", png());
+            case "woff2" -> respond(exchange, 200, "font/woff2", new byte[128 * 1024]);
+            case "js" -> respond(exchange, 200, "application/javascript",
+                    // Stand-in for analytics: some heap, a beacon and a timer like real trackers
+                    ("window.__tracker = { events: new Array(200000).fill('pageview') };" +
+                     "new Image().src = '/asset/beacon.png?t=' + Date.now();" +
+                     "setInterval(function () { window.__tracker.events.push(Date.now()); }, 1000);")
+                            .getBytes(StandardCharsets.UTF_8));
+            default -> respond(exchange, 404, "text/plain", "Unknown asset: " + path);
+        }
+    }
+
+    private void delayed(HttpExchange exchange, HttpHandler handler) throws IOException {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handler.handle(exchange);
+    }
+
+    // ====== Internals ======
+
+    /** A 600x400 noise PNG (~700 KB), generated once so images cost real decode time and memory. */
+    private static byte[] png() throws IOException {
+        byte[] bytes = png;
+        if (bytes == null) {
+            BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+            Random random = new Random(42);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    image.setRGB(x, y, random.nextInt(0x1000000));
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            png = bytes = out.toByteArray();
+        }
+        return bytes;
+    }
+
+    static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new LinkedHashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            form.put(key, value);
+        }
+        return form;
+    }
+
+    static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        respond(exchange, status, contentType + "; charset=utf-8", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void respond(HttpExchange exchange, int status, String contentType, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return "";
+        return parseForm(query).getOrDefault(name, "");
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".js")) return "application/javascript";
+        if (path.endsWith(".css")) return "text/css";
+        return "text/html";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+    }
+}
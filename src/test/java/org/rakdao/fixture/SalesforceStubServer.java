@@ -0,0 +1,277 @@
+package org.rakdao.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.rakdao.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory stand-in for the parts of the Salesforce API used by the API clients:
+ * OAuth password login, sObject create/get/update, simple SOQL (equality filters joined
+ * by AND, one level of relationship fields) and the partner SOAP convertLead call.
+ * Seeded with a "Customer" Lead record type and one product in the Standard Price Book.
+ */
+public class SalesforceStubServer implements AutoCloseable {
+
+    private static final Logger log = LoggerUtil.getLogger(SalesforceStubServer.class);
+
+    public static final String TOKEN = "00Dstub!token";
+    public static final String PRICEBOOK = "Standard Price Book";
+    public static final String PRODUCT = "Standard Company / 1 visa / 1 year";
+
+    private static final Map<String, String> KEY_PREFIXES = Map.of(
+            "Lead", "00Q", "Account", "001", "Contact", "003", "Opportunity", "006",
+            "OpportunityLineItem", "00k", "PricebookEntry", "01u", "Pricebook2", "01s",
+            "Product2", "01t", "RecordType", "012");
+
+    private static final Pattern SOQL = Pattern.compile(
+            "SELECT\\s+(.+?)\\s+FROM\\s+(\\w+)(?:\\s+WHERE\\s+(.+))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONDITION = Pattern.compile("([\\w.]+)\\s*=\\s*('(?:[^'\\\\]|\\\\.)*'|\\S+)");
+
+    /** ConcurrentHashMap cannot hold null; stands for a blank field and is rendered as JSON null. */
+    private static final String NULL = "\u0000null";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Map<String, Object>> records = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public SalesforceStubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start Salesforce stub", e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/services/oauth2/token", this::handleToken);
+        server.createContext("/services/data/", this::handleRest);
+        server.createContext("/services/Soap/u/", this::handleSoap);
+        seed();
+    }
+
+    public SalesforceStubServer start() {
+        server.start();
+        log.info("Salesforce stub listening on {}", baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Direct read access for assertions. */
+    public Map<String, Object> record(String id) {
+        return records.get(id);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ====== Handlers ======
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (!body.contains("grant_type=password")) {
+            json(exchange, 400, Map.of("error", "unsupported_grant_type"));
+            return;
+        }
+        json(exchange, 200, Map.of("access_token", TOKEN, "instance_url", baseUrl(), "token_type", "Bearer"));
+    }
+
+    private void handleRest(HttpExchange exchange) throws IOException {
+        if (!("Bearer " + TOKEN).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            json(exchange, 401, List.of(Map.of("errorCode", "INVALID_SESSION_ID", "message", "Session expired or invalid")));
+            return;
+        }
+        // /services/data/vXX.X/<resource...>
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        String resource = parts.length > 4 ? parts[4] : "";
+        String method = exchange.getRequestMethod();
+
+        if (resource.equals("query") && method.equals("GET")) {
+            List<Map<String, Object>> result = query(queryParam(exchange, "q"));
+            json(exchange, 200, Map.of("totalSize", result.size(), "done", true, "records", result));
+        } else if (resource.equals("sobjects") && parts.length == 6 && method.equals("POST")) {
+            Map<String, Object> fields = mapper.readValue(exchange.getRequestBody(), Map.class);
+            json(exchange, 201, Map.of("id", insert(parts[5], fields), "success", true, "errors", List.of()));
+        } else if (resource.equals("sobjects") && parts.length == 7) {
+            Map<String, Object> record = records.get(parts[6]);
+            if (record == null || !parts[5].equals(type(record))) {
+                json(exchange, 404, List.of(Map.of("errorCode", "NOT_FOUND", "message", "Provided external ID field does not exist or is not accessible")));
+            } else if (method.equals("GET")) {
+                json(exchange, 200, record);
+            } else if (method.equals("PATCH")) {
+                Map<String, Object> fields = mapper.readValue(exchange.getRequestBody(), Map.class);
+                fields.forEach((k, v) -> record.put(k, v == null ? NULL : v));
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            } else {
+                json(exchange, 405, List.of(Map.of("errorCode", "METHOD_NOT_ALLOWED", "message", method)));
+            }
+        } else {
+            json(exchange, 404, List.of(Map.of("errorCode", "NOT_FOUND", "message", exchange.getRequestURI().getPath())));
+        }
+    }
+
+    private void handleSoap(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String leadId = element(body, "leadId");
+        Map<String, Object> lead = leadId == null ? null : records.get(leadId);
+
+        String result;
+        if (!TOKEN.equals(element(body, "sessionId"))) {
+            result = "<success>false</success><errors><message>INVALID_SESSION_ID</message></errors>";
+        } else if (lead == null || !"Lead".equals(type(lead))) {
+            result = "<success>false</success><errors><message>invalid lead id</message></errors>";
+        } else if (Boolean.TRUE.equals(lead.get("IsConverted"))) {
+            result = "<success>false</success><errors><message>CANNOT_UPDATE_CONVERTED_LEAD</message></errors>";
+        } else {
+            String name = lead.get("FirstName") + " " + lead.get("LastName");
+            String accountId = insert("Account", new HashMap<>(Map.of("Name", String.valueOf(lead.get("Company")))));
+            String contactId = insert("Contact", new HashMap<>(Map.of(
+                    "LastName", String.valueOf(lead.get("LastName")), "AccountId", accountId)));
+            String opportunityId = insert("Opportunity", new HashMap<>(Map.of(
+                    "Name", name, "AccountId", accountId, "StageName", "Qualification")));
+            lead.put("IsConverted", true);
+            lead.put("Status", element(body, "convertedStatus"));
+            result = "<accountId>" + accountId + "</accountId><contactId>" + contactId + "</contactId>" +
+                    "<leadId>" + leadId + "</leadId><opportunityId>" + opportunityId + "</opportunityId>" +
+                    "<success>true</success>";
+        }
+
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns=\"urn:partner.soap.sforce.com\">" +
+                "<soapenv:Body><convertLeadResponse><result>" + result + "</result></convertLeadResponse>" +
+                "</soapenv:Body></soapenv:Envelope>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ====== In-memory org ======
+
+    private void seed() {
+        insert("RecordType", new HashMap<>(Map.of("Name", "Customer", "SobjectType", "Lead")));
+        String pricebookId = insert("Pricebook2", new HashMap<>(Map.of("Name", PRICEBOOK, "IsStandard", true)));
+        String productId = insert("Product2", new HashMap<>(Map.of("Name", PRODUCT)));
+        insert("PricebookEntry", new HashMap<>(Map.of("Pricebook2Id", pricebookId, "Product2Id", productId,
+                "UnitPrice", 15000.0, "IsActive", true)));
+    }
+
+    private String insert(String sObject, Map<String, Object> fields) {
+        String id = KEY_PREFIXES.getOrDefault(sObject, "a00")
+                + String.format("%012d", sequence.incrementAndGet());
+        Map<String, Object> record = new ConcurrentHashMap<>();
+        fields.forEach((k, v) -> record.put(k, v == null ? NULL : v));
+        record.put("Id", id);
+        record.put("attributes", Map.of("type", sObject));
+        if (sObject.equals("Opportunity")) record.putIfAbsent("Pricebook2Id", NULL);
+        records.put(id, record);
+        return id;
+    }
+
+    private List<Map<String, Object>> query(String soql) {
+        Matcher m = SOQL.matcher(soql.trim());
+        if (!m.matches()) throw new IllegalArgumentException("Unsupported SOQL: " + soql);
+        String[] selected = m.group(1).split("\\s*,\\s*");
+        String sObject = m.group(2);
+
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (m.group(3) != null) {
+            for (String condition : m.group(3).split("(?i)\\s+AND\\s+")) {
+                Matcher c = CONDITION.matcher(condition.trim());
+                if (!c.matches()) throw new IllegalArgumentException("Unsupported condition: " + condition);
+                String value = c.group(2);
+                if (value.startsWith("'")) value = value.substring(1, value.length() - 1).replace("\\'", "'").replace("\\\\", "\\");
+                filters.put(c.group(1), value);
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> record : records.values()) {
+            if (!sObject.equals(type(record))) continue;
+            boolean matches = filters.entrySet().stream()
+                    .allMatch(f -> f.getValue().equals(String.valueOf(resolve(record, f.getKey()))));
+            if (!matches) continue;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("attributes", record.get("attributes"));
+            for (String field : selected) {
+                row.put(field, render(record.get(field)));
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    /** Field value, following one relationship hop (e.g. Product2.Name via Product2Id). */
+    private Object resolve(Map<String, Object> record, String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) return render(record.get(path));
+        Map<String, Object> parent = records.get(String.valueOf(record.get(path.substring(0, dot) + "Id")));
+        return parent == null ? null : render(parent.get(path.substring(dot + 1)));
+    }
+
+    private static Object render(Object value) {
+        return NULL.equals(value) ? null : value;
+    }
+
+    private static String type(Map<String, Object> record) {
+        return String.valueOf(((Map<?, ?>) record.get("attributes")).get("type"));
+    }
+
+    // ====== Internals ======
+
+    private void json(HttpExchange exchange, int status, Object body) throws IOException {
+        Object payload = body instanceof Map<?, ?> map ? withNulls(map) : body;
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<Object, Object> withNulls(Map<?, ?> map) {
+        Map<Object, Object> copy = new LinkedHashMap<>();
+        map.forEach((k, v) -> copy.put(k, render(v)));
+        return copy;
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return "";
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private static String element(String xml, String localName) {
+        Matcher m = Pattern.compile("<(?:\\w+:)?" + localName + ">([^<]*)</").matcher(xml);
+        return m.find() ? m.group(1) : null;
+    }
+}
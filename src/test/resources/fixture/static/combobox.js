@@ -0,0 +1,98 @@
+/*
+ * Lightning picklist (lightning-base-combobox) shared by the fixture pages: a
+ * button[role=combobox][aria-controls] that renders its lightning-base-combobox-item
+ * options into the listbox FixtureCombobox.renderDelayMs after opening, like a
+ * Lightning re-render. Selecting an option stores it in the button's data-value.
+ */
+window.FixtureCombobox = (function () {
+    var NATIONALITIES = ('Afghan,Albanian,Algerian,American,Andorran,Angolan,Antiguan,Argentine,Armenian,Australian,' +
+        'Austrian,Azerbaijani,Bahamian,Bahraini,Bangladeshi,Barbadian,Belarusian,Belgian,Belizean,Beninese,Bhutanese,' +
+        'Bolivian,Bosnian,Botswanan,Brazilian,British,Bruneian,Bulgarian,Burkinabe,Burmese,Burundian,Cambodian,' +
+        'Cameroonian,Canadian,Cape Verdean,Central African,Chadian,Chilean,Chinese,Colombian,Comoran,Congolese,' +
+        'Costa Rican,Croatian,Cuban,Cypriot,Czech,Danish,Djiboutian,Dominican,Dutch,East Timorese,Ecuadorean,' +
+        'Egyptian,Emirati,Equatorial Guinean,Eritrean,Estonian,Ethiopian,Fijian,Filipino,Finnish,French,Gabonese,' +
+        'Gambian,Georgian,German,Ghanaian,Greek,Grenadian,Guatemalan,Guinean,Guyanese,Haitian,Honduran,Hungarian,' +
+        'Icelandic,India,Indonesian,Iranian,Iraqi,Irish,Israeli,Italian,Ivorian,Jamaican,Japanese,Jordanian,' +
+        'Kazakh,Kenyan,Kiribati,Kuwaiti,Kyrgyz,Laotian,Latvian,Lebanese,Liberian,Libyan,Liechtensteiner,' +
+        'Lithuanian,Luxembourgish,Macedonian,Malagasy,Malawian,Malaysian,Maldivian,Malian,Maltese,Marshallese,' +
+        'Mauritanian,Mauritian,Mexican,Micronesian,Moldovan,Monacan,Mongolian,Montenegrin,Moroccan,Mozambican,' +
+        'Namibian,Nauruan,Nepalese,New Zealander,Nicaraguan,Nigerian,Nigerien,North Korean,Norwegian,Omani,' +
+        'Pakistani,Palauan,Palestinian,Panamanian,Papua New Guinean,Paraguayan,Peruvian,Polish,Portuguese,' +
+        'Qatari,Romanian,Russian,Rwandan,Saint Lucian,Salvadoran,Samoan,San Marinese,Sao Tomean,Saudi,' +
+        'Senegalese,Serbian,Seychellois,Sierra Leonean,Singaporean,Slovak,Slovenian,Solomon Islander,Somali,' +
+        'South African,South Korean,South Sudanese,Spanish,Sri Lankan,Sudanese,Surinamese,Swazi,Swedish,Swiss,' +
+        'Syrian,Taiwanese,Tajik,Tanzanian,Thai,Togolese,Tongan,Trinidadian,Tunisian,Turkish,Turkmen,Tuvaluan,' +
+        'Ugandan,Ukrainian,Uruguayan,Uzbek,Vanuatuan,Venezuelan,Vietnamese,Yemeni,Zambian,Zimbabwean').split(',');
+    var PICKLISTS = {
+        'Customer Looking For': ['Co-Working Space', 'Office Space', 'Warehouse'],
+        'Resource Type': ['Shared Desk', 'Dedicated Desk', 'Private Office'],
+        'Entity Type': ['Standard Company', 'Freezone Company', 'Branch Office'],
+        'Activity Group': ['Blockchain Development, DLT services & Software', 'Consultancy', 'E-Commerce', 'Trading'],
+        'Nationality': NATIONALITIES
+    };
+    var optionsById = {}, count = 0;
+
+    function esc(text) {
+        return String(text == null ? '' : text).replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/"/g, '&quot;');
+    }
+
+    function setOpen(button, open) {
+        var container = button.closest('lightning-base-combobox');
+        var listbox = document.getElementById(button.getAttribute('aria-controls'));
+        button.setAttribute('aria-expanded', String(open));
+        container.classList.toggle('slds-is-open', open);
+        listbox.innerHTML = '';
+        if (!open) return;
+        setTimeout(function () {
+            if (button.getAttribute('aria-expanded') !== 'true') return;
+            listbox.innerHTML = optionsById[button.id].map(function (label) {
+                return '<lightning-base-combobox-item role="option" data-value="' + esc(label) + '">' +
+                    '<span class="slds-media__body"><span class="slds-truncate" title="' + esc(label) + '">' +
+                    esc(label) + '</span></span></lightning-base-combobox-item>';
+            }).join('');
+        }, api.renderDelayMs);
+    }
+
+    document.addEventListener('click', function (event) {
+        var item = event.target.closest('lightning-base-combobox-item');
+        if (item) {
+            var button = item.closest('lightning-base-combobox').querySelector('button[role=combobox]');
+            button.setAttribute('data-value', item.getAttribute('data-value'));
+            button.querySelector('span').textContent = item.getAttribute('data-value');
+            setOpen(button, false);
+            button.dispatchEvent(new Event('change', {bubbles: true}));
+            return;
+        }
+        var trigger = event.target.closest('button[role=combobox]');
+        if (trigger && !trigger.disabled) {
+            setOpen(trigger, trigger.getAttribute('aria-expanded') !== 'true');
+        }
+    });
+
+    var api = {
+        renderDelayMs: 50,
+
+        /** Options of the picklists used on the fixture pages, by field label. */
+        PICKLISTS: PICKLISTS,
+
+        /** Markup of one picklist; {@code value} pre-selects an option. */
+        html: function (label, options, value) {
+            var n = ++count, id = 'combobox-button-' + n;
+            optionsById[id] = options;
+            return '<lightning-base-combobox class="slds-combobox slds-dropdown-trigger slds-form-element">' +
+                '<label class="slds-form-element__label">' + esc(label) + '</label>' +
+                '<button type="button" role="combobox" id="' + id + '" name="' + esc(label) + '" aria-label="' + esc(label) + '"' +
+                ' aria-controls="dropdown-element-' + n + '" aria-expanded="false" data-value="' + esc(value || '') + '">' +
+                '<span class="slds-truncate">' + esc(value || '--None--') + '</span></button>' +
+                '<div id="dropdown-element-' + n + '" role="listbox" class="slds-dropdown"></div>' +
+                '</lightning-base-combobox>';
+        },
+
+        /** Selected value of the picklist with the given label inside root, '' when none. */
+        value: function (root, label) {
+            var button = root.querySelector('button[role=combobox][aria-label="' + label + '"]');
+            return button ? button.getAttribute('data-value') : '';
+        }
+    };
+    return api;
+})();
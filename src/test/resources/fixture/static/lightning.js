@@ -0,0 +1,596 @@
+/*
+ * Lightning replica rendered client-side for every /lightning/ URL, like the real app:
+ * in-app links navigate with pushState, records are loaded and saved through
+ * /fixture-api/ (see LightningReplica.java) and every server action shows a
+ * full-page lightning-spinner for at least FIXTURE_CONFIG.spinnerMs.
+ * The markup mirrors the locators used by the page objects (LeadPage, OpportunityPage, ...).
+ */
+(function () {
+    'use strict';
+
+    var CONFIG = window.FIXTURE_CONFIG || {spinnerMs: 0};
+    var LEAD_STATUSES = ['New', 'Contact Initiated 1', 'Contact Initiated 2', 'Contact Initiated 3',
+        'Contact Initiated 4', 'Contact Initiated 5', 'Unqualified', 'Converted'];
+    var OPPORTUNITY_STAGES = ['Qualification', 'Needs Analysis', 'Proposal', 'Negotiation', 'Closing', 'Closed'];
+    var LEAD_RECORD_TYPES = ['Customer', 'Partner', 'Referral'];
+    var SEARCH_DEBOUNCE_MS = 150;
+
+    var app = document.getElementById('app');
+    var modalRoot = document.getElementById('modal-root');
+    var spinner = document.createElement('lightning-spinner');
+    spinner.setAttribute('alternative-text', 'Loading');
+    spinner.className = 'slds-spinner_container';
+    spinner.style.display = 'none';
+    spinner.innerHTML = '<div role="status" class="slds-spinner slds-spinner_medium"><span class="slds-assistive-text">Loading</span></div>';
+    document.body.appendChild(spinner);
+
+    // ====== Helpers ======
+
+    function esc(text) {
+        return String(text == null ? '' : text).replace(/&/g, '&amp;').replace(/</g, '&lt;')
+            .replace(/>/g, '&gt;').replace(/"/g, '&quot;');
+    }
+
+    function delay(ms) {
+        return new Promise(function (resolve) { setTimeout(resolve, ms); });
+    }
+
+    function api(method, path, body) {
+        return fetch('/fixture-api/' + path, {
+            method: method,
+            headers: {'Content-Type': 'application/json'},
+            body: body === undefined ? undefined : JSON.stringify(body)
+        }).then(function (response) {
+            return response.json().then(function (json) {
+                if (!response.ok) throw new Error(json.error || 'HTTP ' + response.status);
+                return json;
+            });
+        });
+    }
+
+    var busy = 0;
+
+    /** Full-page spinner (blocks clicks) until the promise settles, shown at least spinnerMs. */
+    function withSpinner(promise) {
+        busy++;
+        spinner.style.display = 'block';
+        var minimum = delay(CONFIG.spinnerMs);
+        return promise.then(function (value) {
+            return minimum.then(function () { return value; });
+        }, function (error) {
+            return minimum.then(function () { throw error; });
+        }).finally(function () {
+            if (--busy === 0) spinner.style.display = 'none';
+        });
+    }
+
+    function toast(message, error) {
+        var node = document.createElement('div');
+        node.className = 'forceToastMessage' + (error ? ' error' : '');
+        node.setAttribute('role', 'alert');
+        node.textContent = message;
+        document.body.appendChild(node);
+        setTimeout(function () { node.remove(); }, 3000);
+    }
+
+    function showError(error) {
+        toast(error.message || String(error), true);
+    }
+
+    /** Click handler for every element matching the selector inside root. */
+    function on(root, selector, handler) {
+        root.querySelectorAll(selector).forEach(function (el) {
+            el.addEventListener('click', function (event) {
+                event.preventDefault();
+                handler(el, event);
+            });
+        });
+    }
+
+    function recordUrl(sObject, id) {
+        return '/lightning/r/' + sObject + '/' + id + '/view';
+    }
+
+    function fullName(record) {
+        return [record.FirstName, record.LastName].filter(Boolean).join(' ');
+    }
+
+    // ====== Router ======
+
+    function navigate(path) {
+        history.pushState(null, '', path);
+        route();
+    }
+
+    document.addEventListener('click', function (event) {
+        var link = event.target.closest('a[href^="/lightning/"]');
+        if (!link || event.defaultPrevented || event.ctrlKey || event.metaKey) return;
+        event.preventDefault();
+        navigate(link.getAttribute('href'));
+    });
+    window.addEventListener('popstate', route);
+
+    function route() {
+        closeModal();
+        var path = location.pathname, match;
+        if ((match = path.match(/^\/lightning\/r\/(\w+)\/(\w+)\/view/))) return recordPage(match[1], match[2]);
+        if ((match = path.match(/^\/lightning\/o\/(\w+)\//))) return objectHome(match[1]);
+        app.innerHTML = '<div class="slds-page-header"><h1 class="slds-page-header__title">Home</h1></div>';
+    }
+
+    // ====== Modals ======
+
+    function openModal(html) {
+        modalRoot.innerHTML =
+            '<section role="dialog" aria-modal="true" class="slds-modal slds-fade-in-open">' +
+            '<div class="modal-container slds-modal__container">' + html + '</div></section>' +
+            '<div class="slds-backdrop slds-backdrop_open"></div>';
+        var modal = modalRoot.querySelector('.modal-container');
+        on(modal, '[data-action=cancel]', closeModal);
+        return modal;
+    }
+
+    function closeModal() {
+        modalRoot.innerHTML = '';
+    }
+
+    function footer(buttons) {
+        return '<div class="modal-footer slds-modal__footer">' + buttons.map(function (b) {
+            return '<button type="button" class="slds-button ' + (b.brand ? 'slds-button_brand' : 'slds-button_neutral') +
+                '" data-action="' + b.action + '"><span>' + esc(b.label) + '</span></button>';
+        }).join('') + '</div>';
+    }
+
+    // ====== Object home (list views) ======
+
+    function objectHome(sObject) {
+        var actions = sObject === 'Lead'
+            ? [['New', 'New'], ['IntelligenceView', 'Intelligence View'], ['Import', 'Import'],
+               ['MassChangeStatus', 'Change Status'], ['MassChangeOwner', 'Change Owner']]
+            : [['New', 'New']];
+        app.innerHTML =
+            '<div class="slds-page-header forceListViewManagerHeader">' +
+            '<h1 class="slds-page-header__title">' + esc(sObject) + 's</h1><span>Recently Viewed</span>' +
+            '<ul class="branding-actions slds-button-group">' + actions.map(function (a) {
+                return '<li data-target-selection-name="sfdc:StandardButton.' + sObject + '.' + a[0] + '">' +
+                    '<a href="#" role="button" class="forceActionLink" title="' + a[1] + '">' +
+                    '<div title="' + a[1] + '">' + a[1] + '</div></a></li>';
+            }).join('') +
+            '<li class="oneActionsDropDown"><a href="#" title="Show more actions">More</a></li></ul></div>' +
+            '<table class="slds-table"><tbody></tbody></table>';
+        if (sObject === 'Lead') {
+            on(app, '[data-target-selection-name="sfdc:StandardButton.Lead.New"] a', openNewLead);
+        }
+    }
+
+    // ====== New Lead ======
+
+    function openNewLead() {
+        var modal = openModal(
+            '<div class="forceChangeRecordType">' +
+            '<div class="modal-header slds-modal__header"><h2>New Lead</h2></div>' +
+            '<div class="modal-body slds-modal__content">' +
+            '<div class="changeRecordTypeLeftColumn">Select a record type</div>' +
+            '<div class="changeRecordTypeRightColumn">' + LEAD_RECORD_TYPES.map(function (type, i) {
+                return '<label class="slds-radio"><input type="radio" name="recordType" value="' + type + '"' +
+                    (i === 0 ? ' checked' : '') + '><span class="slds-form-element__label">' + type + '</span></label>';
+            }).join('') + '</div></div>' +
+            '<div class="inlineFooter"><div class="forceChangeRecordTypeFooter">' +
+            '<button type="button" class="slds-button slds-button_neutral" data-action="cancel"><span>Cancel</span></button>' +
+            '<button type="button" class="slds-button slds-button_brand" data-action="next"><span>Next</span></button>' +
+            '</div></div></div>');
+        on(modal, '[data-action=next]', function () {
+            var recordType = modal.querySelector('input[name=recordType]:checked').value;
+            // The real modal fetches the record type's layout before showing the form
+            withSpinner(Promise.resolve()).then(function () { openLeadForm(recordType); });
+        });
+    }
+
+    function input(label, name, required) {
+        return '<lightning-input class="slds-form-element"><label class="slds-form-element__label">' +
+            (required ? '<abbr title="required">*</abbr>' : '') + esc(label) + '</label>' +
+            '<input type="text" class="slds-input" name="' + name + '"' + (required ? ' required' : '') + '></lightning-input>';
+    }
+
+    function openLeadForm(recordType) {
+        var picklists = FixtureCombobox.PICKLISTS;
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><h2 class="slds-modal__title">New Lead: ' + esc(recordType) + '</h2></div>' +
+            '<div class="modal-body slds-modal__content"><div class="slds-form">' +
+            input('First Name', 'firstName') + input('Last Name', 'lastName', true) + input('Company', 'Company', true) +
+            input('Email', 'Email') + input('Mobile', 'MobilePhone') +
+            FixtureCombobox.html('Entity Type', picklists['Entity Type']) +
+            FixtureCombobox.html('Activity Group', picklists['Activity Group']) +
+            FixtureCombobox.html('Nationality', picklists['Nationality']) +
+            '</div><div class="pageLevelErrors" style="display:none"></div></div>' +
+            '<div class="modal-footer slds-modal__footer">' +
+            '<button type="button" name="CancelEdit" class="slds-button slds-button_neutral">Cancel</button>' +
+            '<button type="button" name="SaveAndNew" class="slds-button slds-button_neutral">Save &amp; New</button>' +
+            '<button type="button" name="SaveEdit" class="slds-button slds-button_brand">Save</button></div>');
+        on(modal, 'button[name=CancelEdit]', closeModal);
+        on(modal, 'button[name=SaveAndNew]', function () { saveLead(modal, recordType, true); });
+        on(modal, 'button[name=SaveEdit]', function () { saveLead(modal, recordType, false); });
+    }
+
+    function saveLead(modal, recordType, andNew) {
+        function value(name) {
+            return modal.querySelector('input[name=' + name + ']').value.trim();
+        }
+        var lead = {
+            sObject: 'Lead', RecordType: recordType, Status: 'New',
+            FirstName: value('firstName'), LastName: value('lastName'), Company: value('Company'),
+            Email: value('Email'), MobilePhone: value('MobilePhone'),
+            EntityType: FixtureCombobox.value(modal, 'Entity Type'),
+            ActivityGroup: FixtureCombobox.value(modal, 'Activity Group'),
+            Nationality: FixtureCombobox.value(modal, 'Nationality')
+        };
+        var missing = [['Last Name', lead.LastName], ['Company', lead.Company]].filter(function (f) { return !f[1]; });
+        var errors = modal.querySelector('.pageLevelErrors');
+        if (missing.length) {
+            errors.textContent = 'These required fields must be completed: ' + missing.map(function (f) { return f[0]; }).join(', ');
+            errors.style.display = 'block';
+            return;
+        }
+        withSpinner(api('POST', 'records', lead)).then(function (saved) {
+            toast('Lead "' + fullName(lead) + '" was created.');
+            if (andNew) {
+                openNewLead();
+            } else {
+                navigate(recordUrl('Lead', saved.id));
+            }
+        }).catch(showError);
+    }
+
+    // ====== Record pages ======
+
+    function recordPage(sObject, id) {
+        app.innerHTML = '';
+        withSpinner(api('GET', 'records/' + id)).then(function (record) {
+            if (location.pathname.indexOf(id) === -1) return; // navigated away meanwhile
+            var render = {Lead: leadPage, Opportunity: opportunityPage}[sObject] || genericPage;
+            render(record);
+        }).catch(showError);
+    }
+
+    function reload(record) {
+        recordPage(record.sObject, record.Id || record.id);
+    }
+
+    function recordHeader(sObject, title, highlights) {
+        return '<div class="slds-page-header record-header windowViewMode-normal">' +
+            '<div class="entityNameTitle">' + esc(sObject) + '</div>' +
+            '<h1 class="slds-page-header__title"><lightning-formatted-text>' + esc(title) + '</lightning-formatted-text></h1>' +
+            '<div class="highlights slds-grid">' + (highlights || []).map(function (h) {
+                return '<div class="slds-page-header__detail-block">' +
+                    '<p class="slds-text-title slds-truncate">' + esc(h[0]) + '</p>' +
+                    '<p class="fieldComponent slds-text-body--regular">' +
+                    (h[2] ? '<a href="' + h[2] + '">' + esc(h[1]) + '</a>' : esc(h[1])) + '</p></div>';
+            }).join('') + '</div></div>';
+    }
+
+    function details(fields) {
+        return '<div class="record-details slds-form">' + fields.map(function (f) {
+            return '<div class="slds-form-element"><span class="test-id__field-label">' + esc(f[0]) + '</span>' +
+                '<div class="slds-form-element__control">' + esc(f[1]) + '</div></div>';
+        }).join('') + '</div>';
+    }
+
+    /** Sales path; clicking a stage selects it, the button then marks it current (or opens onSelect). */
+    function path(stages, current, noun, onMark) {
+        var html = '<div class="slds-path"><ul class="slds-path__nav" role="listbox">' + stages.map(function (stage) {
+            var index = stages.indexOf(stage), currentIndex = stages.indexOf(current);
+            var state = index === currentIndex ? 'slds-is-current' : index < currentIndex ? 'slds-is-complete' : 'slds-is-incomplete';
+            return '<li class="slds-path__item ' + state + '" data-name="' + esc(stage) + '" role="presentation">' +
+                '<a role="option" tabindex="0" class="slds-path__link" aria-selected="' + (index === currentIndex) + '">' +
+                '<span class="slds-path__stage"></span><span class="title slds-path__title">' + esc(stage) + '</span></a></li>';
+        }).join('') + '</ul>' +
+            '<button type="button" class="slds-button slds-button_brand slds-path__mark-complete">' +
+            '<span class="uiOutputText">Mark ' + noun + ' as Complete</span></button></div>';
+        return {
+            html: html,
+            bind: function (root) {
+                var selected = current, button = root.querySelector('.slds-path__mark-complete');
+                on(root, '.slds-path__item', function (item) {
+                    selected = item.getAttribute('data-name');
+                    root.querySelectorAll('.slds-path__item').forEach(function (li) {
+                        li.classList.toggle('slds-is-active', li === item);
+                    });
+                    button.querySelector('span').textContent = onMark.label(selected);
+                });
+                on(root, '.slds-path__mark-complete', function () {
+                    onMark.click(selected === current ? stages[Math.min(stages.indexOf(current) + 1, stages.length - 1)] : selected);
+                });
+            }
+        };
+    }
+
+    function leadPage(lead) {
+        var leadPath = path(LEAD_STATUSES, lead.Status, 'Status', {
+            label: function (status) {
+                if (status === 'Converted') return 'Select Converted Status';
+                return status === lead.Status ? 'Mark Status as Complete' : 'Mark as Current Status';
+            },
+            click: function (status) {
+                if (status === 'Converted') {
+                    openConvert(lead);
+                    return;
+                }
+                withSpinner(api('POST', 'records/' + lead.Id, {Status: status})).then(function () { reload(lead); }).catch(showError);
+            }
+        });
+        // No div.title on this page: LeadPage uses "div.title h2" for the conversion confirmation
+        app.innerHTML = recordHeader('Lead', fullName(lead), [['Company', lead.Company], ['Email', lead.Email],
+                ['Mobile', lead.MobilePhone], ['Lead Status', lead.Status]]) +
+            leadPath.html +
+            details([['Name', fullName(lead)], ['Company', lead.Company], ['Email', lead.Email],
+                ['Mobile', lead.MobilePhone], ['Entity Type', lead.EntityType], ['Activity Group', lead.ActivityGroup],
+                ['Nationality', lead.Nationality], ['Record Type', lead.RecordType]]);
+        leadPath.bind(app);
+    }
+
+    function openConvert(lead) {
+        if (lead.Status === 'Converted') {
+            toast('This lead was already converted.', true);
+            return;
+        }
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><h2 class="slds-modal__title">Convert Lead</h2></div>' +
+            '<div class="modal-body slds-modal__content">' +
+            '<p>Account: Create New <strong>' + esc(lead.Company) + '</strong></p>' +
+            '<p>Contact: Create New <strong>' + esc(fullName(lead)) + '</strong></p>' +
+            '<p>Opportunity: <strong>' + esc(lead.Company) + '-</strong></p></div>' +
+            footer([{action: 'cancel', label: 'Cancel'}, {action: 'convert', label: 'Convert', brand: true}]));
+        on(modal, '[data-action=convert]', function () {
+            withSpinner(api('POST', 'leads/' + lead.Id + '/convert', {})).then(function (result) {
+                modal.innerHTML =
+                    '<div class="modal-body slds-modal__content convertedLead">' +
+                    '<div class="title"><h2>Your lead has been converted</h2></div><div class="convertedItems slds-grid">' +
+                    [['Account', result.accountId, result.accountName],
+                     ['Contact', result.contactId, result.contactName],
+                     ['Opportunity', result.opportunityId, result.opportunityName]].map(function (item) {
+                        return '<div class="convertedItem">' +
+                            '<div class="headerConvertedItem slds-text-heading_large"><h3>' + item[0] + '</h3></div>' +
+                            '<div class="bodyConvertedItem"><div class="primaryField truncate">' +
+                            '<a href="' + recordUrl(item[0], item[1]) + '">' + esc(item[2]) + '</a></div></div></div>';
+                    }).join('') + '</div></div>' +
+                    '<div class="modal-footer slds-modal__footer">' +
+                    '<a class="slds-button slds-button_brand" href="/lightning/o/Lead/home">Go to Leads</a></div>';
+            }).catch(showError);
+        });
+    }
+
+    function opportunityPage(opportunity) {
+        var stagePath = path(OPPORTUNITY_STAGES, opportunity.StageName, 'Stage', {
+            label: function (stage) {
+                return stage === opportunity.StageName ? 'Mark Stage as Complete' : 'Mark as Current Stage';
+            },
+            click: function (stage) {
+                withSpinner(api('POST', 'records/' + opportunity.Id, {StageName: stage}))
+                    .then(function () { reload(opportunity); }).catch(showError);
+            }
+        });
+        var products = opportunity.products || [], inventory = opportunity.inventory || [];
+        app.innerHTML =
+            recordHeader('Opportunity', opportunity.Name, [
+                ['Account Name', opportunity.AccountName, recordUrl('Account', opportunity.AccountId)],
+                ['Entity Type', opportunity.EntityType],
+                ['Primary Contact', opportunity.PrimaryContactName, recordUrl('Contact', opportunity.PrimaryContactId)],
+                ['Stage', opportunity.StageName]]) +
+            stagePath.html +
+            '<div class="record-actions"><button type="button" name="Opportunity.Add_Inventory" ' +
+            'class="slds-button slds-button_neutral">Add Inventory</button></div>' +
+            details([['Opportunity Name', opportunity.Name], ['Company Name', opportunity.AccountName],
+                ['Entity Type', opportunity.EntityType], ['Stage', opportunity.StageName],
+                ['Price Book', opportunity.Pricebook2 || '']]) +
+            relatedList('Products', products, ['Product', 'Quantity', 'Sales Price'], function (p) {
+                return [p.product, p.quantity, p.salesPrice];
+            }, '<div title="Add Products" role="button" tabindex="0" class="slds-button slds-button_neutral">Add Products</div>') +
+            relatedList('Inventory', inventory, ['Unit', 'Resource Type', 'Rental Amount'], function (i) {
+                return [i.unit, i.resourceType, i.rentalAmount];
+            }, '');
+        stagePath.bind(app);
+        on(app, 'div[title="Add Products"]', function () { openPriceBook(opportunity); });
+        on(app, 'button[name="Opportunity.Add_Inventory"]', function () { openAddInventory(opportunity); });
+    }
+
+    function relatedList(title, rows, columns, cells, action) {
+        return '<div class="container forceRelatedListSingleContainer"><article class="slds-card">' +
+            '<header class="slds-card__header"><h2>' + esc(title) + ' (' + rows.length + ')</h2>' + action + '</header>' +
+            '<table class="slds-table"><thead><tr>' + columns.map(function (c) { return '<th>' + esc(c) + '</th>'; }).join('') +
+            '</tr></thead><tbody>' + rows.map(function (row) {
+                return '<tr>' + cells(row).map(function (c) { return '<td>' + esc(c) + '</td>'; }).join('') + '</tr>';
+            }).join('') + '</tbody></table></article></div>';
+    }
+
+    function genericPage(record) {
+        var fields = Object.keys(record).filter(function (key) {
+            return key !== 'sObject' && typeof record[key] !== 'object';
+        }).map(function (key) { return [key, record[key]]; });
+        app.innerHTML = recordHeader(record.sObject, record.Name || fullName(record)) + details(fields);
+    }
+
+    // ====== Add Products: Price Book → Add Products → Edit Selected Products ======
+
+    function openPriceBook(opportunity) {
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><h1 class="slds-modal__title">Choose Price Book</h1></div>' +
+            '<div class="modal-body slds-modal__content"><label>Price Book ' +
+            '<select name="Pricebook2"><option>Standard Price Book</option></select></label></div>' +
+            footer([{action: 'cancel', label: 'Cancel'}, {action: 'save', label: 'Save', brand: true}]));
+        on(modal, '[data-action=save]', function () {
+            var priceBook = modal.querySelector('select').value;
+            withSpinner(api('POST', 'records/' + opportunity.Id, {Pricebook2: priceBook}))
+                .then(function () { openAddProducts(opportunity, priceBook); }).catch(showError);
+        });
+    }
+
+    function openAddProducts(opportunity, priceBook) {
+        var selected = [], debounce = null;
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><div class="title forceMultiAddMultiEditHeader">' +
+            '<h2>Add Products</h2><div class="subtitle">Price Book: ' + esc(priceBook) + '</div></div></div>' +
+            '<div class="modal-body slds-modal__content">' +
+            '<div class="slds-combobox_container"><input type="search" class="slds-input" title="Search Products" ' +
+            'placeholder="Search Products..."><div role="listbox" class="slds-dropdown search-results"></div></div>' +
+            '<div class="selectionCountString"><button type="button" class="slds-button slds-button" style="display:none"></button></div>' +
+            '<div class="slds-grid listDisplays safari-workaround-anchor">' +
+            '<div class="uiScroller scroller-wrapper scroll-bidirectional native"><table class="slds-table">' +
+            '<thead><tr><th><div><a><span class="assistiveText">Sort</span><span>Product Name</span></a></div></th>' +
+            '<th><div><a><span class="assistiveText">Sort</span><span>Product Code</span></a></div></th></tr></thead>' +
+            '<tbody></tbody></table></div></div></div>' +
+            footer([{action: 'cancel', label: 'Cancel'}, {action: 'next', label: 'Next', brand: true}]));
+        var search = modal.querySelector('input[title="Search Products"]');
+        var results = modal.querySelector('.search-results');
+        var tbody = modal.querySelector('tbody');
+        var count = modal.querySelector('.selectionCountString button');
+
+        function renderTable(products) {
+            tbody.innerHTML = products.map(function (name, i) {
+                return '<tr><th class="slds-cell-edit cellContainer"><span><a>' + esc(name) + '</a></span></th>' +
+                    '<td>PRD-' + (101 + i) + '</td></tr>';
+            }).join('');
+        }
+
+        function select(name) {
+            if (selected.indexOf(name) === -1) selected.push(name);
+            results.classList.remove('slds-is-open');
+            results.innerHTML = '';
+            count.textContent = selected.length + (selected.length === 1 ? ' item' : ' items') + ' selected';
+            count.style.display = '';
+            tbody.querySelectorAll('th a').forEach(function (a) {
+                if (a.textContent === name) a.closest('tr').classList.add('slds-is-selected');
+            });
+        }
+
+        api('GET', 'products?q=').then(renderTable).catch(showError);
+
+        search.addEventListener('input', function () {
+            clearTimeout(debounce);
+            debounce = setTimeout(function () {
+                var query = search.value;
+                api('GET', 'products?q=' + encodeURIComponent(query)).then(function (found) {
+                    if (search.value !== query) return; // a newer search is on its way
+                    results.innerHTML = found.map(function (name) {
+                        return '<div role="option" class="slds-listbox__option" data-name="' + esc(name) + '">' +
+                            '<lightning-formatted-rich-text><span part="formatted-rich-text">' + esc(name) +
+                            '</span></lightning-formatted-rich-text></div>';
+                    }).join('');
+                    results.classList.toggle('slds-is-open', found.length > 0);
+                    on(results, '[role=option]', function (option) { select(option.getAttribute('data-name')); });
+                }).catch(showError);
+            }, SEARCH_DEBOUNCE_MS);
+        });
+
+        on(modal, '[data-action=next]', function () {
+            if (!selected.length) {
+                toast('Select at least one product.', true);
+                return;
+            }
+            openEditProducts(opportunity, priceBook, selected);
+        });
+    }
+
+    function openEditProducts(opportunity, priceBook, selected) {
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><h2>Edit Selected Products</h2></div>' +
+            '<div class="modal-body slds-modal__content"><table class="slds-table"><thead><tr>' +
+            '<th>Product</th><th>Quantity</th><th>Sales Price</th></tr></thead><tbody>' + selected.map(function (name) {
+                return '<tr data-product="' + esc(name) + '"><th>' + esc(name) + '</th>' +
+                    '<td><input class="slds-input" name="Quantity" value="1"></td>' +
+                    '<td><input class="slds-input" name="UnitPrice" value="15000"></td></tr>';
+            }).join('') + '</tbody></table></div>' +
+            footer([{action: 'back', label: 'Back'}, {action: 'cancel', label: 'Cancel'}, {action: 'save', label: 'Save', brand: true}]));
+        on(modal, '[data-action=back]', function () { openAddProducts(opportunity, priceBook); });
+        on(modal, '[data-action=save]', function () {
+            var items = Array.prototype.map.call(modal.querySelectorAll('tbody tr'), function (tr) {
+                return {
+                    product: tr.getAttribute('data-product'),
+                    quantity: Number(tr.querySelector('[name=Quantity]').value),
+                    salesPrice: Number(tr.querySelector('[name=UnitPrice]').value)
+                };
+            });
+            withSpinner(api('POST', 'records/' + opportunity.Id + '/products', {items: items})).then(function () {
+                closeModal();
+                toast(items.length + ' product(s) added.');
+                reload(opportunity);
+            }).catch(showError);
+        });
+    }
+
+    // ====== Add Inventory ======
+
+    function openAddInventory(opportunity) {
+        var picklists = FixtureCombobox.PICKLISTS, selected = {}, page = 1;
+        var modal = openModal(
+            '<div class="modal-header slds-modal__header"><h2 class="slds-modal__title">Add Inventory</h2></div>' +
+            '<div class="modal-body slds-modal__content">' +
+            FixtureCombobox.html('Entity Type', picklists['Entity Type'], opportunity.EntityType) +
+            FixtureCombobox.html('Customer Looking For', picklists['Customer Looking For']) +
+            FixtureCombobox.html('Resource Type', picklists['Resource Type']) +
+            '<button type="button" class="slds-button slds-button_brand" data-action="get">Get Inventory</button>' +
+            '<div class="inventory-results"><h2 class="slds-text-heading_small">No record found.</h2></div></div>' +
+            '<div class="modal-footer slds-modal__footer">' +
+            '<button type="button" class="slds-button slds-button_neutral" data-action="cancel">Cancel</button>' +
+            '<button type="button" class="slds-button slds-button_brand" data-action="add">Add Selected Inventory</button></div>');
+        var results = modal.querySelector('.inventory-results');
+
+        function load(pageNumber) {
+            var resourceType = FixtureCombobox.value(modal, 'Resource Type');
+            var query = 'inventory?resourceType=' + encodeURIComponent(resourceType) + '&page=' + pageNumber;
+            withSpinner(api('GET', query)).then(function (data) {
+                page = data.page;
+                if (!data.total) {
+                    results.innerHTML = '<h2 class="slds-text-heading_small">No record found.</h2>';
+                    return;
+                }
+                results.innerHTML =
+                    '<span class="slds-text-title">Total Records : ' + data.total + '</span>' +
+                    '<table class="slds-table slds-table_bordered slds-table_cell-buffer"><thead><tr>' +
+                    '<th></th><th>UNIT</th><th>RESOURCE TYPE</th><th>FLOOR</th><th>RENTAL AMOUNT</th></tr></thead><tbody>' +
+                    data.rows.map(function (row) {
+                        return '<tr><td><input type="checkbox" value="' + esc(row.unit) + '"' + (selected[row.unit] ? ' checked' : '') + '></td>' +
+                            [row.unit, row.resourceType, row.floor, row.rentalAmount].map(function (value) {
+                                return '<td><div class="slds-truncate" title="' + esc(value) + '">' + esc(value) + '</div></td>';
+                            }).join('') + '</tr>';
+                    }).join('') + '</tbody></table>' +
+                    '<div class="slds-grid pagination">' +
+                    '<button type="button" class="slds-button slds-button_neutral" data-action="previous"' +
+                    (page > 1 ? '' : ' style="display:none"') + '>Previous</button>' +
+                    '<span>Page ' + page + ' of ' + data.pages + '</span>' +
+                    '<button type="button" class="slds-button slds-button_neutral" data-action="next"' +
+                    (page < data.pages ? '' : ' style="display:none"') + '>Next</button></div>';
+                results.querySelectorAll('tbody input[type=checkbox]').forEach(function (box) {
+                    box.addEventListener('change', function () {
+                        var row = data.rows.filter(function (r) { return r.unit === box.value; })[0];
+                        if (box.checked) selected[box.value] = row; else delete selected[box.value];
+                    });
+                });
+                on(results, '[data-action=previous]', function () { load(page - 1); });
+                on(results, '[data-action=next]', function () { load(page + 1); });
+            }).catch(showError);
+        }
+
+        on(modal, '[data-action=get]', function () {
+            if (!FixtureCombobox.value(modal, 'Resource Type')) {
+                toast('Select a Resource Type.', true);
+                return;
+            }
+            selected = {};
+            load(1);
+        });
+        on(modal, '[data-action=add]', function () {
+            var items = Object.keys(selected).map(function (unit) { return selected[unit]; });
+            if (!items.length) {
+                toast('Select at least one inventory unit.', true);
+                return;
+            }
+            withSpinner(api('POST', 'records/' + opportunity.Id + '/inventory', {items: items})).then(function () {
+                closeModal();
+                toast(items.length + ' inventory unit(s) added.');
+                reload(opportunity);
+            }).catch(showError);
+        });
+    }
+
+    route();
+})();